@@ -0,0 +1,777 @@
+package com.abtm.analyzer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scores BDD scenarios on 6 dimensions and detects their anti-patterns
+ *
+ * Plain Java, shared by the web application and the command line
+ * (cli.AnalyzeFeatures). Thread-safe: one instance serves any number of
+ * threads, and creating the first one compiles the keywords and terms of
+ * every language.
+ */
+public class ScenarioAnalyzer {
+
+    private static final String UI_DEPENDENT = "UI-dependent steps detected - prefer behavior over implementation";
+    private static final String TECHNICAL_DETAILS = "Technical implementation details should be avoided";
+    private static final String VAGUE_ASSERTIONS = "Vague assertions - be more specific about expected behavior";
+    private static final String GENERIC_UI = "Generic UI references - be more specific about which page, button, or form";
+    private static final String OUTLINE_WITHOUT_EXAMPLES = "Scenario Outline without Examples rows - add a row for each case";
+    private static final String UNBOUND_PLACEHOLDERS = "Placeholders without an Examples column: ";
+    private static final String UNUSED_COLUMNS = "Examples columns not used by the steps: ";
+    private static final String CONSTANT_COLUMNS = "Examples columns with the same value in every row - move the value into the steps: ";
+    private static final String DUPLICATE_ROWS = "Duplicate table rows - each row should add a new case";
+    private static final String MALFORMED_ROWS = "Table rows with a different number of cells than the header";
+    private static final String VAGUE_CELLS = "Empty or placeholder table cells - use concrete values";
+    private static final String UNKNOWN_LANGUAGE = "Unknown Gherkin language \"%s\" - scored as English";
+
+    // Column and placeholder names listed in one anti-pattern
+    private static final int MAX_NAMES = 10;
+
+    // Keywords and terms of every Gherkin language, compiled with the analyzer
+    private final ScenarioLanguages languages = ScenarioLanguages.get();
+
+    /**
+     * Analyze a BDD scenario and return scores for 6 dimensions
+     *
+     * Examples and data tables are read once (ScenarioStructure): the dimensions
+     * score the steps without the table rows, then the table summaries adjust
+     * the scores, so an outline is never expanded into one scenario per row.
+     * Keywords and terms are those of the scenario's "# language:" header
+     * (English without one), all found in a single scan of the steps.
+     */
+    public AnalysisResult analyze(String scenarioContent) {
+        return analyze(scenarioContent, PhaseTimer.NONE);
+    }
+
+    /**
+     * Analyze a BDD scenario, reporting the duration of each phase to the timer
+     */
+    public AnalysisResult analyze(String scenarioContent, PhaseTimer timer) {
+        AnalysisResult result = new AnalysisResult();
+
+        if (scenarioContent == null || scenarioContent.trim().isEmpty()) {
+            return result; // Return zeros
+        }
+
+        // Analyze each dimension (timed per dimension)
+        long start = timer.mark();
+        String declared = ScenarioLanguages.declaredLanguage(scenarioContent);
+        ScenarioLanguage language = declared != null ? languages.find(declared) : languages.getDefault();
+        boolean unknownLanguage = language == null;
+        if (unknownLanguage) {
+            language = languages.getDefault();
+        }
+        ScenarioStructure structure = ScenarioStructure.parse(scenarioContent, language);
+        String content = structure.getTemplate().trim();
+        ScenarioLanguage.Matches terms = language.scan(content.toLowerCase());
+        // Concrete table cells are specific examples just like quoted values
+        int examples = countQuotedStrings(content) + structure.getConcreteCells();
+        long mark = timer.lap("analyzer-structure", start);
+        result.setLanguage(language.getCode());
+        result.setClarityScore(analyzeClarityAndReadability(content, examples, language, terms));
+        mark = timer.lap("analyzer-clarity", mark);
+        result.setBusinessValueScore(analyzeBusinessValueAlignment(language, terms));
+        mark = timer.lap("analyzer-business-value", mark);
+        result.setGherkinScore(analyzeGherkinCorrectness(language, terms));
+        mark = timer.lap("analyzer-gherkin", mark);
+        result.setTestabilityScore(analyzeTestability(content, structure.getConcreteCells() > 0, language, terms));
+        mark = timer.lap("analyzer-testability", mark);
+        result.setSpecificityScore(analyzeSpecificity(content, examples, language, terms));
+        mark = timer.lap("analyzer-specificity", mark);
+        result.setDuplicationScore(analyzeDuplicationAvoidance(content));
+        mark = timer.lap("analyzer-duplication", mark);
+        scoreTables(result, structure);
+        timer.lap("analyzer-tables", mark);
+
+        // Calculate overall score
+        result.calculateOverallScore();
+
+        // Detect anti-patterns, and where the line-level ones occur in the text as submitted
+        result.setDetectedAntipatterns(detectAntipatterns(examples, language, terms));
+        if (unknownLanguage) {
+            result.getDetectedAntipatterns().add(String.format(UNKNOWN_LANGUAGE, declared));
+        }
+        result.setAntipatternLocations(locateAntipatterns(scenarioContent, result.getDetectedAntipatterns(), language));
+        detectTableAntipatterns(structure, result);
+        result.setTables(summarizeTables(structure));
+
+        // Generate feedback
+        result.setFeedback(generateFeedback(result));
+
+        // Check automation readiness
+        result.setAutomationReady(isAutomationReady(result));
+
+        timer.lap("analyzer", start);
+        return result;
+    }
+
+    /**
+     * Analyze clarity and readability (0-10)
+     * FIXED: Context-aware - doesn't penalize terms when used with specific examples
+     */
+    private double analyzeClarityAndReadability(String content, int quotedStrings,
+                                                ScenarioLanguage language, ScenarioLanguage.Matches terms) {
+        double score = 5.0;
+
+        // Check for Given/When/Then structure
+        if (terms.any(language.given) &&
+            terms.any(language.when) &&
+            terms.any(language.then)) {
+            score += 2.0;
+        }
+
+        // Check line length (prefer concise lines)
+        String[] lines = content.split("\n");
+        int longLines = 0;
+        for (String line : lines) {
+            if (line.length() > 100) {
+                longLines++;
+            }
+        }
+        if (longLines == 0) {
+            score += 1.5;
+        } else if (longLines < 3) {
+            score += 0.5;
+        }
+
+        // Check for clear step separation
+        if (content.contains("\n")) {
+            score += 1.0;
+        }
+
+        // SMART: Only penalize vague terms if NO quoted strings present
+        if (quotedStrings == 0) {
+            // No specific examples - penalize vague terms heavily
+            score -= terms.count(language.clarityVague) * 0.8;
+        } else {
+            // Has quoted strings - only penalize truly vague terms
+            score -= terms.count(language.clarityTrulyVague) * 1.0;
+        }
+
+        // BIG BONUS for using specific examples with quotes
+        if (quotedStrings >= 5) {
+            score += 2.0;  // Excellent use of specific examples
+        } else if (quotedStrings >= 3) {
+            score += 1.5;  // Good use of examples
+        } else if (quotedStrings >= 1) {
+            score += 0.5;  // Some examples
+        }
+
+        // Penalize if too short or too long
+        if (content.length() < 50) {
+            score -= 2.0;
+        } else if (content.length() > 1000) {
+            score -= 1.0;
+        }
+
+        return Math.max(0, Math.min(10, score));
+    }
+
+    /**
+     * Analyze business value alignment (0-10)
+     */
+    private double analyzeBusinessValueAlignment(ScenarioLanguage language, ScenarioLanguage.Matches terms) {
+        double score = 5.0;
+
+        // Check for business domain terms
+        if (terms.any(language.businessDomain)) {
+            score += 0.5;
+        }
+
+        // Check for value-oriented language
+        if (terms.any(language.businessOutcome)) {
+            score += 1.0;
+        }
+
+        // Check for concrete outcomes
+        if (terms.any(language.then)) {
+            score += 1.5;
+        }
+
+        // Penalize technical jargon
+        score -= terms.count(language.businessTechnical) * 0.5;
+
+        return Math.max(0, Math.min(10, score));
+    }
+
+    /**
+     * Analyze Gherkin correctness (0-10)
+     */
+    private double analyzeGherkinCorrectness(ScenarioLanguage language, ScenarioLanguage.Matches terms) {
+        double score = 0.0;
+
+        int givenIndex = terms.first(language.given);
+        int whenIndex = terms.first(language.when);
+        int thenIndex = terms.first(language.then);
+
+        // Check for Given
+        if (givenIndex >= 0) {
+            score += 3.0;
+        }
+
+        // Check for When
+        if (whenIndex >= 0) {
+            score += 3.0;
+        }
+
+        // Check for Then
+        if (thenIndex >= 0) {
+            score += 3.0;
+        }
+
+        // Bonus for proper order (Given before When before Then)
+
+        if (givenIndex >= 0 && whenIndex >= 0 && thenIndex >= 0) {
+            if (givenIndex < whenIndex && whenIndex < thenIndex) {
+                score += 1.0;
+            }
+        }
+
+        return Math.max(0, Math.min(10, score));
+    }
+
+    /**
+     * Analyze testability (0-10)
+     */
+    private double analyzeTestability(String content, boolean tableValues,
+                                      ScenarioLanguage language, ScenarioLanguage.Matches terms) {
+        double score = 5.0;
+
+        // Check for concrete, testable assertions
+        if (terms.any(language.testabilityAssertion)) {
+            score += 1.5;
+        }
+
+        // Check for specific values (in the steps or their tables)
+        Pattern numberPattern = Pattern.compile("\\d+");
+        Matcher matcher = numberPattern.matcher(content);
+        if (tableValues || matcher.find()) {
+            score += 1.5;
+        }
+
+        // Penalize vague terms
+        score -= terms.count(language.testabilityVague) * 1.0;
+
+        // Check for action verbs in When clause
+        if (terms.any(language.when) && terms.any(language.testabilityAction)) {
+            score += 1.0;
+        }
+
+        return Math.max(0, Math.min(10, score));
+    }
+
+    /**
+     * Analyze specificity (0-10)
+     * FIXED: Bigger rewards for many quoted strings
+     */
+    private double analyzeSpecificity(String content, int quotedStrings,
+                                      ScenarioLanguage language, ScenarioLanguage.Matches terms) {
+        double score = 5.0;
+
+        if (quotedStrings == 0) {
+            // NO specific examples - MAJOR penalty!
+            score -= 4.0;
+        } else if (quotedStrings >= 1 && quotedStrings <= 2) {
+            // Minimal examples - small penalty
+            score -= 1.0;
+        } else if (quotedStrings >= 3 && quotedStrings <= 5) {
+            // Good number of examples - bonus
+            score += 2.0;  // Increased from 1.5
+        } else if (quotedStrings > 5) {
+            // Many specific examples - BIG bonus
+            score += 4.0;  // Increased from 2.5 - MAJOR reward!
+        }
+
+        // Check for specific data (numbers)
+        if (content.matches(".*\\d+.*")) {
+            score += 0.5;
+        }
+
+        // Check for specific URLs or paths
+        if (content.matches(".*\"/.+\".*")) {
+            score += 0.5;
+        }
+
+        // Only penalize truly generic terms
+        score -= terms.count(language.specificityGeneric) * 2.0;
+
+        return Math.max(0, Math.min(10, score));
+    }
+
+    /**
+     * Analyze duplication avoidance (0-10)
+     */
+    private double analyzeDuplicationAvoidance(String content) {
+        double score = 7.0; // Base score assuming no duplication
+
+        // Check for repetitive patterns within the scenario
+        String[] lines = content.split("\n");
+        Map<String, Integer> lineCount = new HashMap<>();
+
+        for (String line : lines) {
+            String trimmed = line.trim().toLowerCase();
+            if (!trimmed.isEmpty()) {
+                lineCount.put(trimmed, lineCount.getOrDefault(trimmed, 0) + 1);
+            }
+        }
+
+        // Penalize repeated lines
+        for (Integer count : lineCount.values()) {
+            if (count > 1) {
+                score -= 1.5;
+            }
+        }
+
+        return Math.max(0, Math.min(10, score));
+    }
+
+    /**
+     * Detect anti-patterns in the scenario
+     */
+    private List<String> detectAntipatterns(int quotedStrings, ScenarioLanguage language,
+                                            ScenarioLanguage.Matches terms) {
+        List<String> antipatterns = new ArrayList<>();
+
+        // Check for UI-specific steps
+        if (terms.any(language.uiDependent)) {
+            antipatterns.add(UI_DEPENDENT);
+        }
+
+        // Check for technical implementation details
+        if (terms.any(language.technicalDetails)) {
+            antipatterns.add(TECHNICAL_DETAILS);
+        }
+
+        // Check for missing structure
+        if (!terms.any(language.given) || !terms.any(language.when) || !terms.any(language.then)) {
+            antipatterns.add("Missing proper Given-When-Then structure");
+        }
+
+        // Check for vague assertions
+        if (terms.any(language.vagueAssertions)) {
+            antipatterns.add(VAGUE_ASSERTIONS);
+        }
+
+        // Only flag missing concrete examples if there are NO quotes
+        if (quotedStrings == 0) {
+            antipatterns.add("Missing concrete examples - use specific values in quotes (e.g., \"john.doe\", \"/login\")");
+        }
+
+        // Only flag generic terms if no quotes present
+        if (quotedStrings == 0 && terms.any(language.genericUi)) {
+            antipatterns.add(GENERIC_UI);
+        }
+
+        return antipatterns;
+    }
+
+    /**
+     * Line and column (1-based) of each term behind a detected line-level anti-pattern;
+     * scenario-level ones (structure, missing examples) have no location
+     */
+    private List<AntipatternLocation> locateAntipatterns(String content, List<String> detected,
+                                                         ScenarioLanguage language) {
+        List<AntipatternLocation> locations = new ArrayList<>();
+        if (!detected.contains(UI_DEPENDENT) && !detected.contains(TECHNICAL_DETAILS)
+            && !detected.contains(VAGUE_ASSERTIONS) && !detected.contains(GENERIC_UI)) {
+            return locations;
+        }
+        String[] lines = content.split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].trim().startsWith("|")) {
+                // Table rows are not steps: the table checks cover them
+                continue;
+            }
+            String line = lines[i].toLowerCase();
+            if (detected.contains(UI_DEPENDENT)) {
+                locate(locations, i + 1, line, language.uiDependent.getTerms(), UI_DEPENDENT);
+            }
+            if (detected.contains(TECHNICAL_DETAILS)) {
+                locate(locations, i + 1, line, language.technicalDetails.getTerms(), TECHNICAL_DETAILS);
+            }
+            if (detected.contains(VAGUE_ASSERTIONS)) {
+                locate(locations, i + 1, line, language.vagueAssertions.getTerms(), VAGUE_ASSERTIONS);
+            }
+            if (detected.contains(GENERIC_UI)) {
+                locate(locations, i + 1, line, language.genericUi.getTerms(), GENERIC_UI);
+            }
+        }
+        return locations;
+    }
+
+    private static void locate(List<AntipatternLocation> locations, int lineNumber, String line,
+                               String[] terms, String antipattern) {
+        for (String term : terms) {
+            int column = line.indexOf(term);
+            if (column >= 0) {
+                locations.add(new AntipatternLocation(lineNumber, column + 1, term, antipattern));
+            }
+        }
+    }
+
+    /**
+     * Adjust the scores for the outlines and tables of the scenario
+     */
+    private void scoreTables(AnalysisResult result, ScenarioStructure structure) {
+        if (structure.getTables().isEmpty() && structure.getOutlines().isEmpty()) {
+            return;
+        }
+        double clarity = result.getClarityScore();
+        double gherkin = result.getGherkinScore();
+        double testability = result.getTestabilityScore();
+        double specificity = result.getSpecificityScore();
+        double duplication = result.getDuplicationScore();
+
+        boolean dataDriven = false;
+        for (ScenarioStructure.Outline outline : structure.getOutlines()) {
+            List<String> unbound = outline.getUnboundPlaceholders();
+            if (outline.getExampleRows() == 0) {
+                // An outline without rows never runs
+                gherkin -= 3.0;
+            } else if (unbound.isEmpty()) {
+                dataDriven = true;
+            }
+            gherkin -= unbound.size();
+            clarity -= 0.5 * outline.getUnusedColumns().size();
+        }
+        if (dataDriven) {
+            // The same steps checked against every row
+            testability += 1.0;
+        }
+
+        for (ScenarioStructure.Table table : structure.getTables()) {
+            if (table.getMalformedRows() > 0) {
+                gherkin -= 1.0;
+            }
+            // Repeated rows count like repeated lines; so does a column repeating one value
+            duplication -= 1.5 * table.getDuplicateRows() + 1.0 * table.getConstantColumns().size();
+        }
+
+        // Empty or placeholder cells take specificity away in proportion
+        int cells = structure.getCells();
+        if (cells > 0) {
+            specificity -= 3.0 * (cells - structure.getConcreteCells()) / cells;
+        }
+
+        result.setClarityScore(Math.max(0, Math.min(10, clarity)));
+        result.setGherkinScore(Math.max(0, Math.min(10, gherkin)));
+        result.setTestabilityScore(Math.max(0, Math.min(10, testability)));
+        result.setSpecificityScore(Math.max(0, Math.min(10, specificity)));
+        result.setDuplicationScore(Math.max(0, Math.min(10, duplication)));
+    }
+
+    /**
+     * Anti-patterns of outlines and tables, located at the offending rows
+     */
+    private void detectTableAntipatterns(ScenarioStructure structure, AnalysisResult result) {
+        List<String> antipatterns = result.getDetectedAntipatterns();
+        List<AntipatternLocation> locations = result.getAntipatternLocations();
+
+        boolean withoutExamples = false;
+        List<String> unbound = new ArrayList<>();
+        List<String> unused = new ArrayList<>();
+        for (ScenarioStructure.Outline outline : structure.getOutlines()) {
+            withoutExamples |= outline.getExampleRows() == 0;
+            addNew(unbound, outline.getUnboundPlaceholders());
+            addNew(unused, outline.getUnusedColumns());
+        }
+        if (withoutExamples) {
+            antipatterns.add(OUTLINE_WITHOUT_EXAMPLES);
+        }
+        if (!unbound.isEmpty()) {
+            List<String> placeholders = new ArrayList<>();
+            for (String name : unbound) {
+                placeholders.add("<" + name + ">");
+            }
+            antipatterns.add(UNBOUND_PLACEHOLDERS + names(placeholders));
+        }
+        if (!unused.isEmpty()) {
+            antipatterns.add(UNUSED_COLUMNS + names(unused));
+        }
+
+        List<String> constant = new ArrayList<>();
+        boolean duplicates = false;
+        boolean malformed = false;
+        for (ScenarioStructure.Table table : structure.getTables()) {
+            addNew(constant, table.getConstantColumns());
+            duplicates |= table.getDuplicateRows() > 0;
+            malformed |= table.getMalformedRows() > 0;
+            for (ScenarioStructure.Row row : table.getDuplicates()) {
+                locations.add(new AntipatternLocation(row.line, row.column, row.text, DUPLICATE_ROWS));
+            }
+            for (ScenarioStructure.Row row : table.getMalformed()) {
+                locations.add(new AntipatternLocation(row.line, row.column, row.text, MALFORMED_ROWS));
+            }
+        }
+        if (!constant.isEmpty()) {
+            antipatterns.add(CONSTANT_COLUMNS + names(constant));
+        }
+        if (duplicates) {
+            antipatterns.add(DUPLICATE_ROWS);
+        }
+        if (malformed) {
+            antipatterns.add(MALFORMED_ROWS);
+        }
+        if (structure.getConcreteCells() < structure.getCells()) {
+            antipatterns.add(VAGUE_CELLS);
+        }
+    }
+
+    private static List<TableSummary> summarizeTables(ScenarioStructure structure) {
+        List<TableSummary> summaries = new ArrayList<>();
+        for (ScenarioStructure.Table table : structure.getTables()) {
+            summaries.add(new TableSummary(table));
+        }
+        return summaries;
+    }
+
+    private static void addNew(List<String> names, List<String> more) {
+        for (String name : more) {
+            if (!names.contains(name)) {
+                names.add(name);
+            }
+        }
+    }
+
+    private static String names(List<String> names) {
+        if (names.size() <= MAX_NAMES) {
+            return String.join(", ", names);
+        }
+        return String.join(", ", names.subList(0, MAX_NAMES)) + " and " + (names.size() - MAX_NAMES) + " more";
+    }
+
+    private static int countQuotedStrings(String content) {
+        int quoteCount = 0;
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '"') quoteCount++;
+        }
+        return quoteCount / 2;
+    }
+
+    /**
+     * Generate feedback based on analysis results
+     */
+    private String generateFeedback(AnalysisResult result) {
+        StringBuilder feedback = new StringBuilder();
+
+        // Overall assessment
+        if (result.getOverallScore() >= 8.0) {
+            feedback.append("Excellent scenario! Well-structured and testable.\n\n");
+        } else if (result.getOverallScore() >= 6.0) {
+            feedback.append("Good scenario with room for improvement.\n\n");
+        } else if (result.getOverallScore() >= 4.0) {
+            feedback.append("Scenario needs improvement in several areas.\n\n");
+        } else {
+            feedback.append("Scenario requires significant revision.\n\n");
+        }
+
+        // Specific feedback for low scores
+        if (result.getClarityScore() < 7.0) {
+            feedback.append("• Improve clarity: Use clear, concise language and include specific examples.\n");
+        }
+        if (result.getBusinessValueScore() < 6.0) {
+            feedback.append("• Focus on business value: Describe user behavior, not technical implementation.\n");
+        }
+        if (result.getGherkinScore() < 7.0) {
+            feedback.append("• Fix Gherkin structure: Ensure proper Given-When-Then format.\n");
+        }
+        if (result.getTestabilityScore() < 7.0) {
+            feedback.append("• Improve testability: Use specific, measurable assertions.\n");
+        }
+        if (result.getSpecificityScore() < 6.0) {
+            feedback.append("• Be more specific: Include concrete examples with actual data in quotes.\n");
+            feedback.append("  Example: Instead of 'a user', use 'a user with username \"john.doe\"'\n");
+        }
+
+        // Anti-patterns feedback
+        if (!result.getDetectedAntipatterns().isEmpty()) {
+            feedback.append("\nDetected Issues:\n");
+            for (String antipattern : result.getDetectedAntipatterns()) {
+                feedback.append("• ").append(antipattern).append("\n");
+            }
+        }
+
+        return feedback.toString();
+    }
+
+    /**
+     * Check if scenario is automation-ready
+     */
+    private boolean isAutomationReady(AnalysisResult result) {
+        return result.getGherkinScore() >= 7.0 &&
+               result.getTestabilityScore() >= 7.0 &&
+               result.getSpecificityScore() >= 6.0;
+    }
+
+    /**
+     * Receives the duration of each phase of an analysis (structure, each dimension, tables, and the whole)
+     */
+    public interface PhaseTimer {
+
+        PhaseTimer NONE = new PhaseTimer() {
+            @Override
+            public long mark() {
+                return 0;
+            }
+
+            @Override
+            public long lap(String phase, long since) {
+                return 0;
+            }
+        };
+
+        /**
+         * Start of the first phase
+         */
+        long mark();
+
+        /**
+         * The phase started at since has ended; returns the start of the next
+         */
+        long lap(String phase, long since);
+    }
+
+    /**
+     * Analysis result class
+     */
+    public static class AnalysisResult {
+        private double clarityScore;
+        private double businessValueScore;
+        private double gherkinScore;
+        private double testabilityScore;
+        private double specificityScore;
+        private double duplicationScore;
+        private double overallScore;
+        private String feedback;
+        private List<String> detectedAntipatterns = new ArrayList<>();
+        private List<AntipatternLocation> antipatternLocations = new ArrayList<>();
+        private List<TableSummary> tables = new ArrayList<>();
+        private String language;
+        private boolean automationReady;
+
+        /**
+         * Calculate overall score with balanced weights
+         */
+        public void calculateOverallScore() {
+            double[] weights = {0.20, 0.15, 0.15, 0.15, 0.25, 0.10};
+            double[] scores = {
+                    clarityScore,       // 20%
+                    businessValueScore, // 15%
+                    gherkinScore,       // 15%
+                    testabilityScore,   // 15%
+                    specificityScore,   // 25%
+                    duplicationScore    // 10%
+            };
+
+            double weightedSum = 0.0;
+            for (int i = 0; i < weights.length; i++) {
+                weightedSum += weights[i] * scores[i];
+            }
+
+            this.overallScore = Math.round(weightedSum * 100.0) / 100.0;
+        }
+
+        // Getters and Setters
+        public double getClarityScore() { return clarityScore; }
+        public void setClarityScore(double clarityScore) { this.clarityScore = clarityScore; }
+
+        public double getBusinessValueScore() { return businessValueScore; }
+        public void setBusinessValueScore(double businessValueScore) { this.businessValueScore = businessValueScore; }
+
+        public double getGherkinScore() { return gherkinScore; }
+        public void setGherkinScore(double gherkinScore) { this.gherkinScore = gherkinScore; }
+
+        public double getTestabilityScore() { return testabilityScore; }
+        public void setTestabilityScore(double testabilityScore) { this.testabilityScore = testabilityScore; }
+
+        public double getSpecificityScore() { return specificityScore; }
+        public void setSpecificityScore(double specificityScore) { this.specificityScore = specificityScore; }
+
+        public double getDuplicationScore() { return duplicationScore; }
+        public void setDuplicationScore(double duplicationScore) { this.duplicationScore = duplicationScore; }
+
+        public double getOverallScore() { return overallScore; }
+        public void setOverallScore(double overallScore) { this.overallScore = overallScore; }
+
+        public String getFeedback() { return feedback; }
+        public void setFeedback(String feedback) { this.feedback = feedback; }
+
+        public List<String> getDetectedAntipatterns() { return detectedAntipatterns; }
+        public void setDetectedAntipatterns(List<String> detectedAntipatterns) { this.detectedAntipatterns = detectedAntipatterns; }
+
+        public List<AntipatternLocation> getAntipatternLocations() { return antipatternLocations; }
+        public void setAntipatternLocations(List<AntipatternLocation> antipatternLocations) { this.antipatternLocations = antipatternLocations; }
+
+        public List<TableSummary> getTables() { return tables; }
+        public void setTables(List<TableSummary> tables) { this.tables = tables; }
+
+        public String getLanguage() { return language; }
+        public void setLanguage(String language) { this.language = language; }
+
+        public boolean isAutomationReady() { return automationReady; }
+        public void setAutomationReady(boolean automationReady) { this.automationReady = automationReady; }
+    }
+
+    /**
+     * Where in the scenario text an anti-pattern was found
+     */
+    public static class AntipatternLocation {
+        private final int line;
+        private final int column;
+        private final String text;
+        private final String antipattern;
+
+        public AntipatternLocation(int line, int column, String text, String antipattern) {
+            this.line = line;
+            this.column = column;
+            this.text = text;
+            this.antipattern = antipattern;
+        }
+
+        public int getLine() { return line; }
+        public int getColumn() { return column; }
+        public String getText() { return text; }
+        public String getAntipattern() { return antipattern; }
+    }
+
+    /**
+     * An Examples or data table of the scenario, as read in one pass
+     */
+    public static class TableSummary {
+        private final String kind;
+        private final int line;
+        private final List<String> columns;
+        private final int rows;
+        private final int duplicateRows;
+        private final int malformedRows;
+        private final double concreteCellRatio;
+        private final List<String> constantColumns;
+
+        TableSummary(ScenarioStructure.Table table) {
+            this.kind = table.kind == ScenarioStructure.Kind.EXAMPLES ? "examples" : "data";
+            this.line = table.line;
+            this.columns = table.getColumns();
+            this.rows = table.getRows();
+            this.duplicateRows = table.getDuplicateRows();
+            this.malformedRows = table.getMalformedRows();
+            this.concreteCellRatio = table.getCells() > 0
+                ? Math.round(100.0 * table.getConcreteCells() / table.getCells()) / 100.0 : 1.0;
+            this.constantColumns = table.getConstantColumns();
+        }
+
+        public String getKind() { return kind; }
+        public int getLine() { return line; }
+        public List<String> getColumns() { return columns; }
+        public int getRows() { return rows; }
+        public int getDuplicateRows() { return duplicateRows; }
+        public int getMalformedRows() { return malformedRows; }
+        public double getConcreteCellRatio() { return concreteCellRatio; }
+        public List<String> getConstantColumns() { return constantColumns; }
+    }
+}
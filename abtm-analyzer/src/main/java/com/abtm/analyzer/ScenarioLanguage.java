@@ -0,0 +1,212 @@
+package com.abtm.analyzer;
+
+import io.cucumber.gherkin.GherkinDialect;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * The Gherkin keywords and analyzer terms of one language, compiled once
+ *
+ * Keywords come from the io.cucumber:gherkin dialect of the language, terms
+ * from its gherkin-terms/<language>.properties (English terms when it has
+ * none). Every step keyword and term goes into a single TermMatcher, so the
+ * analyzer finds all of them in one scan of a scenario whatever the language.
+ */
+final class ScenarioLanguage {
+
+    /**
+     * Kind of block a keyword line opens
+     */
+    enum Block { OUTLINE, EXAMPLES, OTHER }
+
+    private final String code;
+    private final String name;
+
+    final Terms given;
+    final Terms when;
+    final Terms then;
+    final Terms clarityVague;
+    final Terms clarityTrulyVague;
+    final Terms businessDomain;
+    final Terms businessOutcome;
+    final Terms businessTechnical;
+    final Terms testabilityAssertion;
+    final Terms testabilityVague;
+    final Terms testabilityAction;
+    final Terms specificityGeneric;
+    final Terms uiDependent;
+    final Terms technicalDetails;
+    final Terms vagueAssertions;
+    final Terms genericUi;
+
+    private final TermMatcher matcher;
+    // Block keywords with their colon; none is a prefix of another
+    private final List<String> blockKeywords = new ArrayList<>();
+    private final List<Block> blockKinds = new ArrayList<>();
+
+    ScenarioLanguage(GherkinDialect dialect, Properties terms) {
+        this.code = dialect.getLanguage();
+        this.name = dialect.getName();
+
+        List<String> dictionary = new ArrayList<>();
+        Map<String, Integer> ids = new HashMap<>();
+        given = new Terms(keywords(dialect.getGivenKeywords()), dictionary, ids);
+        when = new Terms(keywords(dialect.getWhenKeywords()), dictionary, ids);
+        then = new Terms(keywords(dialect.getThenKeywords()), dictionary, ids);
+        clarityVague = new Terms(list(terms, "clarity.vague"), dictionary, ids);
+        clarityTrulyVague = new Terms(list(terms, "clarity.truly-vague"), dictionary, ids);
+        businessDomain = new Terms(list(terms, "business.domain"), dictionary, ids);
+        businessOutcome = new Terms(list(terms, "business.outcome"), dictionary, ids);
+        businessTechnical = new Terms(list(terms, "business.technical"), dictionary, ids);
+        testabilityAssertion = new Terms(list(terms, "testability.assertion"), dictionary, ids);
+        testabilityVague = new Terms(list(terms, "testability.vague"), dictionary, ids);
+        testabilityAction = new Terms(list(terms, "testability.action"), dictionary, ids);
+        specificityGeneric = new Terms(list(terms, "specificity.generic"), dictionary, ids);
+        uiDependent = new Terms(list(terms, "antipattern.ui"), dictionary, ids);
+        technicalDetails = new Terms(list(terms, "antipattern.technical"), dictionary, ids);
+        vagueAssertions = new Terms(list(terms, "antipattern.vague-assertion"), dictionary, ids);
+        genericUi = new Terms(list(terms, "antipattern.generic-ui"), dictionary, ids);
+        matcher = new TermMatcher(dictionary);
+
+        // Checked in this order, so a keyword shared by two kinds counts as the first
+        addBlocks(dialect.getScenarioOutlineKeywords(), Block.OUTLINE);
+        addBlocks(dialect.getExamplesKeywords(), Block.EXAMPLES);
+        addBlocks(dialect.getScenarioKeywords(), Block.OTHER);
+        addBlocks(dialect.getBackgroundKeywords(), Block.OTHER);
+        addBlocks(dialect.getRuleKeywords(), Block.OTHER);
+        addBlocks(dialect.getFeatureKeywords(), Block.OTHER);
+    }
+
+    String getCode() {
+        return code;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Every term of this language in a lowercase text, in one scan
+     */
+    Matches scan(String lower) {
+        return new Matches(matcher.firstIndexes(lower));
+    }
+
+    /**
+     * The block a line opens when its keyword (with colon) starts at the offset, or null
+     */
+    Block block(String text, int offset) {
+        for (int i = 0; i < blockKeywords.size(); i++) {
+            String keyword = blockKeywords.get(i);
+            if (text.regionMatches(true, offset, keyword, 0, keyword.length())) {
+                return blockKinds.get(i);
+            }
+        }
+        return null;
+    }
+
+    private void addBlocks(List<String> keywords, Block kind) {
+        for (String keyword : keywords) {
+            blockKeywords.add(keyword.trim() + ":");
+            blockKinds.add(kind);
+        }
+    }
+
+    // Step keywords as terms: lowercase and trimmed, without the "*" bullet
+    private static List<String> keywords(List<String> keywords) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            String term = keyword.trim().toLowerCase(Locale.ROOT);
+            if (!term.isEmpty() && !term.equals("*")) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static List<String> list(Properties terms, String key) {
+        List<String> list = new ArrayList<>();
+        for (String term : terms.getProperty(key, "").split(",")) {
+            if (!term.trim().isEmpty()) {
+                list.add(term.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * One list of terms, as ids in the language's matcher
+     */
+    static final class Terms {
+        private final String[] terms;
+        private final int[] ids;
+
+        private Terms(List<String> terms, List<String> dictionary, Map<String, Integer> ids) {
+            this.terms = terms.toArray(new String[0]);
+            this.ids = new int[terms.size()];
+            for (int i = 0; i < this.ids.length; i++) {
+                this.ids[i] = ids.computeIfAbsent(terms.get(i), term -> {
+                    dictionary.add(term);
+                    return dictionary.size() - 1;
+                });
+            }
+        }
+
+        String[] getTerms() {
+            return terms;
+        }
+    }
+
+    /**
+     * Where the terms of a language first occur in one text
+     */
+    static final class Matches {
+        private final int[] first;
+
+        private Matches(int[] first) {
+            this.first = first;
+        }
+
+        boolean any(Terms terms) {
+            for (int id : terms.ids) {
+                if (first[id] >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * How many of the terms occur
+         */
+        int count(Terms terms) {
+            int count = 0;
+            for (int id : terms.ids) {
+                if (first[id] >= 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Index of the first occurrence of any of the terms, -1 when none occurs
+         */
+        int first(Terms terms) {
+            int index = -1;
+            for (int id : terms.ids) {
+                if (first[id] >= 0 && (index < 0 || first[id] < index)) {
+                    index = first[id];
+                }
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.abtm.analyzer;
+
+import io.cucumber.gherkin.GherkinDialectProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Every Gherkin language the analyzer scores, compiled together on first use
+ *
+ * The languages are those of the Gherkin specification (io.cucumber:gherkin).
+ * A scenario picks one with a "# language: de" header among its leading
+ * comments; without one it is English. Adding a language's terms is adding
+ * its gherkin-terms/<language>.properties.
+ */
+final class ScenarioLanguages {
+
+    static final String DEFAULT = "en";
+
+    private static final String TERMS = "gherkin-terms/%s.properties";
+
+    private static final Pattern LANGUAGE_HEADER = Pattern.compile("^\\s*#\\s*language\\s*:\\s*([a-zA-Z\\-_]+)\\s*$");
+
+    private static final ScenarioLanguages INSTANCE = new ScenarioLanguages();
+
+    private final Map<String, ScenarioLanguage> languages = new TreeMap<>();
+    private final ScenarioLanguage defaultLanguage;
+
+    private ScenarioLanguages() {
+        GherkinDialectProvider dialects = new GherkinDialectProvider(DEFAULT);
+        Properties defaultTerms = loadTerms(DEFAULT, null);
+        for (String code : dialects.getLanguages()) {
+            languages.put(code, new ScenarioLanguage(dialects.getDialect(code, null), loadTerms(code, defaultTerms)));
+        }
+        defaultLanguage = languages.get(DEFAULT);
+    }
+
+    static ScenarioLanguages get() {
+        return INSTANCE;
+    }
+
+    ScenarioLanguage getDefault() {
+        return defaultLanguage;
+    }
+
+    /**
+     * The language with this code, or null when there is none
+     */
+    ScenarioLanguage find(String code) {
+        ScenarioLanguage language = languages.get(code);
+        if (language == null) {
+            for (Map.Entry<String, ScenarioLanguage> entry : languages.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(code)) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return language;
+    }
+
+    /**
+     * The language named by the "# language:" header of a scenario, or null when it has none
+     *
+     * Only blank and comment lines before the first other line are read.
+     */
+    static String declaredLanguage(String text) {
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            String line = text.substring(start, end).trim();
+            if (!line.isEmpty()) {
+                if (line.charAt(0) != '#') {
+                    return null;
+                }
+                Matcher header = LANGUAGE_HEADER.matcher(line);
+                if (header.matches()) {
+                    return header.group(1);
+                }
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    // The language's terms, falling back to the defaults for any it does not define
+    private static Properties loadTerms(String code, Properties defaults) {
+        Properties terms = new Properties(defaults);
+        InputStream in = ScenarioLanguages.class.getClassLoader().getResourceAsStream(String.format(TERMS, code));
+        if (in == null) {
+            return terms;
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            terms.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the analyzer terms of " + code, e);
+        }
+        return terms;
+    }
+}
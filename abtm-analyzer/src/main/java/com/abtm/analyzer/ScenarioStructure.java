@@ -0,0 +1,397 @@
+package com.abtm.analyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A scenario split into its template (every line but table rows) and its tables
+ *
+ * Read in one pass. Table rows are not kept: each row of an Examples or step
+ * data table is folded into its table's summary as it is read (cell count,
+ * duplicate rows, concrete cells, columns whose value varies), so a table
+ * costs one scan of its text whatever its size and is never expanded into
+ * scenarios. The first row of a table is its header. Outlines collect the
+ * placeholders of their steps to be matched against their Examples columns.
+ * Block keywords (Scenario Outline, Examples, ...) are the scenario language's.
+ */
+final class ScenarioStructure {
+
+    // Rows remembered per table and problem, to be located in the text
+    private static final int MAX_ROW_LOCATIONS = 20;
+
+    // Cell values that stand for no case in particular
+    private static final Set<String> VAGUE_CELLS = new HashSet<>(Arrays.asList(
+        "", "-", "?", "...", "x", "n/a", "tbd", "todo", "something", "anything", "stuff", "whatever", "etc"));
+    private static final int MAX_VAGUE_CELL = 9;
+
+    private String template;
+    private final List<Table> tables = new ArrayList<>();
+    private final List<Outline> outlines = new ArrayList<>();
+    private int lineCount;
+
+    private ScenarioStructure() {
+    }
+
+    static ScenarioStructure parse(String text, ScenarioLanguage language) {
+        ScenarioStructure structure = new ScenarioStructure();
+        StringBuilder template = new StringBuilder();
+        Outline outline = null;
+        Table table = null;
+        boolean examplesNext = false;
+        String docString = null;
+
+        int length = text.length();
+        int start = 0;
+        int lineNumber = 0;
+        while (start <= length) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = length;
+            }
+            lineNumber++;
+            int first = start;
+            while (first < end && Character.isWhitespace(text.charAt(first))) {
+                first++;
+            }
+
+            if (docString == null && first < end && text.charAt(first) == '|') {
+                if (table == null) {
+                    table = new Table(examplesNext ? Kind.EXAMPLES : Kind.DATA, lineNumber);
+                    structure.tables.add(table);
+                    if (examplesNext && outline != null) {
+                        outline.examples.add(table);
+                    }
+                    examplesNext = false;
+                }
+                table.addRow(text, first, end, lineNumber);
+                if (table.kind == Kind.DATA && outline != null) {
+                    outline.collectPlaceholders(text, first, end);
+                }
+            } else {
+                table = null;
+                template.append(text, start, end);
+                if (end < length) {
+                    template.append('\n');
+                }
+
+                if (docString != null) {
+                    if (text.startsWith(docString, first)) {
+                        docString = null;
+                    } else if (outline != null) {
+                        outline.collectPlaceholders(text, first, end);
+                    }
+                } else if (text.startsWith("\"\"\"", first) || text.startsWith("```", first)) {
+                    docString = text.substring(first, first + 3);
+                } else {
+                    ScenarioLanguage.Block block = language.block(text, first);
+                    if (block == ScenarioLanguage.Block.OUTLINE) {
+                        outline = new Outline(lineNumber);
+                        outline.collectPlaceholders(text, first, end);
+                        structure.outlines.add(outline);
+                        examplesNext = false;
+                    } else if (block == ScenarioLanguage.Block.EXAMPLES) {
+                        examplesNext = true;
+                    } else if (block == ScenarioLanguage.Block.OTHER) {
+                        outline = null;
+                        examplesNext = false;
+                    } else if (outline != null) {
+                        outline.collectPlaceholders(text, first, end);
+                    }
+                }
+            }
+            start = end + 1;
+        }
+
+        structure.template = template.toString();
+        structure.lineCount = lineNumber;
+        return structure;
+    }
+
+    /**
+     * The scenario without its table rows, line breaks kept
+     */
+    String getTemplate() {
+        return template;
+    }
+
+    List<Table> getTables() {
+        return tables;
+    }
+
+    List<Outline> getOutlines() {
+        return outlines;
+    }
+
+    int getLineCount() {
+        return lineCount;
+    }
+
+    int getTableRows() {
+        int rows = 0;
+        for (Table table : tables) {
+            rows += table.rows;
+        }
+        return rows;
+    }
+
+    int getCells() {
+        int cells = 0;
+        for (Table table : tables) {
+            cells += table.cells;
+        }
+        return cells;
+    }
+
+    int getConcreteCells() {
+        int concrete = 0;
+        for (Table table : tables) {
+            concrete += table.concreteCells;
+        }
+        return concrete;
+    }
+
+    enum Kind { EXAMPLES, DATA }
+
+    /**
+     * Summary of a table, built row by row
+     */
+    static final class Table {
+        final Kind kind;
+        final int line;
+        private List<String> columns;
+        private String[] firstRow;
+        private boolean[] varies;
+        private int rows;
+        private int cells;
+        private int concreteCells;
+        private int duplicateRows;
+        private int malformedRows;
+        private final Set<Long> seenRows = new HashSet<>();
+        private final List<Row> duplicates = new ArrayList<>();
+        private final List<Row> malformed = new ArrayList<>();
+        private final List<String> scratch = new ArrayList<>();
+
+        Table(Kind kind, int line) {
+            this.kind = kind;
+            this.line = line;
+        }
+
+        void addRow(String text, int from, int to, int lineNumber) {
+            List<String> row = splitCells(text, from, to);
+            if (columns == null) {
+                columns = new ArrayList<>(row);
+                firstRow = new String[row.size()];
+                varies = new boolean[row.size()];
+                return;
+            }
+
+            rows++;
+            if (row.size() != columns.size()) {
+                malformedRows++;
+                remember(malformed, text, from, to, lineNumber);
+            }
+            if (!seenRows.add(hash(row))) {
+                duplicateRows++;
+                remember(duplicates, text, from, to, lineNumber);
+            }
+            for (int i = 0; i < row.size(); i++) {
+                String cell = row.get(i);
+                cells++;
+                if (isConcrete(cell)) {
+                    concreteCells++;
+                }
+                if (i < firstRow.length) {
+                    if (rows == 1) {
+                        firstRow[i] = cell;
+                    } else if (!varies[i] && !cell.equalsIgnoreCase(firstRow[i])) {
+                        varies[i] = true;
+                    }
+                }
+            }
+        }
+
+        // Cells between unescaped pipes, trimmed; text after the last pipe counts only when not blank
+        private List<String> splitCells(String text, int from, int to) {
+            scratch.clear();
+            int cellStart = from + 1;
+            for (int i = from + 1; i < to; i++) {
+                char c = text.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '|') {
+                    scratch.add(text.substring(cellStart, i).trim());
+                    cellStart = i + 1;
+                }
+            }
+            String rest = text.substring(Math.min(cellStart, to), to).trim();
+            if (!rest.isEmpty()) {
+                scratch.add(rest);
+            }
+            return scratch;
+        }
+
+        private static long hash(List<String> row) {
+            // FNV-1a over the case-folded cells, a separator after each
+            long hash = 0xcbf29ce484222325L;
+            for (String cell : row) {
+                for (int i = 0; i < cell.length(); i++) {
+                    hash ^= Character.toLowerCase(cell.charAt(i));
+                    hash *= 0x100000001b3L;
+                }
+                hash ^= 0x1F;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        private static boolean isConcrete(String cell) {
+            if (cell.length() > 2 && cell.charAt(0) == '<' && cell.charAt(cell.length() - 1) == '>') {
+                return false;
+            }
+            return cell.length() > MAX_VAGUE_CELL || !VAGUE_CELLS.contains(cell.toLowerCase(Locale.ROOT));
+        }
+
+        private static void remember(List<Row> rows, String text, int from, int to, int lineNumber) {
+            if (rows.size() < MAX_ROW_LOCATIONS) {
+                String row = text.substring(from, to).trim();
+                rows.add(new Row(lineNumber, from - text.lastIndexOf('\n', from - 1),
+                    row.length() > 80 ? row.substring(0, 77) + "..." : row));
+            }
+        }
+
+        List<String> getColumns() {
+            return columns != null ? columns : new ArrayList<>();
+        }
+
+        int getRows() {
+            return rows;
+        }
+
+        int getCells() {
+            return cells;
+        }
+
+        int getConcreteCells() {
+            return concreteCells;
+        }
+
+        int getDuplicateRows() {
+            return duplicateRows;
+        }
+
+        int getMalformedRows() {
+            return malformedRows;
+        }
+
+        List<Row> getDuplicates() {
+            return duplicates;
+        }
+
+        List<Row> getMalformed() {
+            return malformed;
+        }
+
+        /**
+         * Examples columns holding one value in every row (there being at least two)
+         */
+        List<String> getConstantColumns() {
+            List<String> constant = new ArrayList<>();
+            if (kind == Kind.EXAMPLES && rows >= 2) {
+                for (int i = 0; i < varies.length; i++) {
+                    if (!varies[i]) {
+                        constant.add(columns.get(i));
+                    }
+                }
+            }
+            return constant;
+        }
+    }
+
+    /**
+     * A Scenario Outline: the placeholders of its steps and its Examples tables
+     */
+    static final class Outline {
+        final int line;
+        private final Set<String> placeholders = new LinkedHashSet<>();
+        private final List<Table> examples = new ArrayList<>();
+
+        Outline(int line) {
+            this.line = line;
+        }
+
+        private void collectPlaceholders(String text, int from, int to) {
+            int open = text.indexOf('<', from);
+            while (open >= 0 && open < to) {
+                int close = text.indexOf('>', open + 1);
+                if (close < 0 || close >= to) {
+                    return;
+                }
+                String name = text.substring(open + 1, close).trim();
+                if (!name.isEmpty() && name.indexOf('<') < 0 && name.length() <= 64) {
+                    placeholders.add(name);
+                }
+                open = text.indexOf('<', close + 1);
+            }
+        }
+
+        int getExampleRows() {
+            int rows = 0;
+            for (Table table : examples) {
+                rows += table.rows;
+            }
+            return rows;
+        }
+
+        /**
+         * Placeholders without a column in any of the outline's Examples
+         */
+        List<String> getUnboundPlaceholders() {
+            Set<String> columns = new HashSet<>();
+            for (Table table : examples) {
+                columns.addAll(table.getColumns());
+            }
+            List<String> unbound = new ArrayList<>();
+            for (String placeholder : placeholders) {
+                if (!columns.contains(placeholder)) {
+                    unbound.add(placeholder);
+                }
+            }
+            return unbound;
+        }
+
+        /**
+         * Examples columns that no step refers to
+         */
+        List<String> getUnusedColumns() {
+            List<String> unused = new ArrayList<>();
+            for (Table table : examples) {
+                for (String column : table.getColumns()) {
+                    if (!placeholders.contains(column) && !unused.contains(column)) {
+                        unused.add(column);
+                    }
+                }
+            }
+            return unused;
+        }
+    }
+
+    /**
+     * A table row pointed out by the analysis
+     */
+    static final class Row {
+        final int line;
+        final int column;
+        final String text;
+
+        Row(int line, int column, String text) {
+            this.line = line;
+            this.column = column;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.abtm.analyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Finds where each term of a fixed dictionary first occurs in a text, in one pass
+ *
+ * An Aho-Corasick automaton, built once per dictionary: a scan costs one
+ * transition per character whatever the number of terms, where checking
+ * every term with contains() costs a scan of the text per term. Terms are
+ * matched as given (callers lowercase both sides) and may overlap.
+ */
+final class TermMatcher {
+
+    private static final int[] NONE = new int[0];
+
+    private final int termCount;
+    private final int[] termLengths;
+    // Transitions of each state: sorted characters and the states they lead to
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] failure;
+    // Terms ending at each state, including those of its failure chain
+    private final int[][] outputs;
+    // Transitions of the root for ASCII, the most frequent lookups
+    private final int[] rootAscii = new int[128];
+
+    /**
+     * @param terms the dictionary; a term's id is its position in the list
+     */
+    TermMatcher(List<String> terms) {
+        termCount = terms.size();
+        termLengths = new int[termCount];
+
+        List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        transitions.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+        for (int id = 0; id < termCount; id++) {
+            String term = terms.get(id);
+            termLengths[id] = term.length();
+            if (term.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                Integer next = transitions.get(state).get(term.charAt(i));
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                    transitions.get(state).put(term.charAt(i), next);
+                }
+                state = next;
+            }
+            ends.get(state).add(id);
+        }
+
+        int states = transitions.size();
+        keys = new char[states][];
+        targets = new int[states][];
+        failure = new int[states];
+        outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            TreeMap<Character, Integer> map = transitions.get(state);
+            keys[state] = new char[map.size()];
+            targets[state] = new int[map.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> transition : map.entrySet()) {
+                keys[state][i] = transition.getKey();
+                targets[state][i] = transition.getValue();
+                i++;
+            }
+        }
+
+        for (int i = 0; i < keys[0].length; i++) {
+            if (keys[0][i] < 128) {
+                rootAscii[keys[0][i]] = targets[0][i];
+            }
+        }
+
+        // Breadth first, so the failure state of a state is complete before its children need it
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        outputs[0] = toArray(ends.get(0));
+        for (int child : targets[0]) {
+            failure[child] = 0;
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            List<Integer> out = new ArrayList<>(ends.get(state));
+            for (int id : outputs[failure[state]]) {
+                out.add(id);
+            }
+            outputs[state] = toArray(out);
+            for (int i = 0; i < keys[state].length; i++) {
+                char c = keys[state][i];
+                int child = targets[state][i];
+                int fallback = failure[state];
+                int next = transition(fallback, c);
+                while (next < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                    next = transition(fallback, c);
+                }
+                failure[child] = next < 0 ? 0 : next;
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    int getTermCount() {
+        return termCount;
+    }
+
+    /**
+     * Index of the first occurrence of each term in the text, by term id; -1 when absent
+     */
+    int[] firstIndexes(String text) {
+        int[] first = new int[termCount];
+        Arrays.fill(first, -1);
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next = transition(state, c);
+            while (next < 0 && state != 0) {
+                state = failure[state];
+                next = transition(state, c);
+            }
+            state = next < 0 ? 0 : next;
+            for (int id : outputs[state]) {
+                if (first[id] < 0) {
+                    first[id] = i - termLengths[id] + 1;
+                }
+            }
+        }
+        return first;
+    }
+
+    // Next state, -1 when there is no transition (no state leads back to the root)
+    private int transition(int state, char c) {
+        if (state == 0 && c < 128) {
+            return rootAscii[c] > 0 ? rootAscii[c] : -1;
+        }
+        int i = Arrays.binarySearch(keys[state], c);
+        return i >= 0 ? targets[state][i] : -1;
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return NONE;
+        }
+        int[] array = new int[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        return array;
+    }
+}
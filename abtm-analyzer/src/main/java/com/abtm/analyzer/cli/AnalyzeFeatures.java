@@ -0,0 +1,383 @@
+package com.abtm.analyzer.cli;
+
+import com.abtm.analyzer.ScenarioAnalyzer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Scores every .feature file under the given files and directories, the same
+ * way the web application scores a submitted scenario
+ *
+ * Files are read through read-only memory mappings and scored on a fixed pool
+ * (one thread per core by default). Each file is scored as one text, as if it
+ * had been pasted into the submission form. Results are written in path order
+ * as JSON or CSV; a summary goes to stderr.
+ *
+ * Usage:
+ *   java -jar abtm-analyzer/target/abtm-analyzer-1.0.0.jar --format=csv --min-score=6 src/test/resources/features
+ *
+ * Exit status is 0 when every file was scored, 1 when a file scored below
+ * --min-score and 2 on bad arguments or unreadable files.
+ */
+public class AnalyzeFeatures {
+
+    private static final String USAGE = "Usage: AnalyzeFeatures [--format=json|csv] [--output=<file>] "
+        + "[--threads=<n>] [--min-score=<score>] <file or directory>...";
+
+    private final Options options;
+    private final ScenarioAnalyzer analyzer = new ScenarioAnalyzer();
+
+    public AnalyzeFeatures(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        List<Path> files;
+        try {
+            options = Options.parse(args);
+            files = findFeatureFiles(options.paths);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<FileScore> scores = new AnalyzeFeatures(options).score(files);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        if (options.outputFile != null) {
+            try (Writer out = Files.newBufferedWriter(Paths.get(options.outputFile), StandardCharsets.UTF_8)) {
+                write(scores, options.format, out);
+            }
+        } else {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            write(scores, options.format, out);
+            out.flush();
+        }
+
+        System.exit(summarize(scores, options.minScore, elapsedSeconds));
+    }
+
+    /**
+     * Score the files on the pool, returning results in the order given
+     */
+    public List<FileScore> score(List<Path> files) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(options.threads, runnable -> {
+            Thread thread = new Thread(runnable, "analyze-features");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<FileScore>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(pool.submit(() -> score(file)));
+            }
+            List<FileScore> scores = new ArrayList<>(files.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    scores.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    scores.add(FileScore.failed(files.get(i), String.valueOf(e.getCause())));
+                }
+            }
+            return scores;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Keeps only what is reported so the full AnalysisResult can be collected right away
+    private FileScore score(Path file) {
+        String text;
+        try {
+            text = read(file);
+        } catch (IOException e) {
+            return FileScore.failed(file, "Cannot read: " + e.getMessage());
+        }
+        ScenarioAnalyzer.AnalysisResult result = analyzer.analyze(text);
+        FileScore score = new FileScore(file);
+        score.language = result.getLanguage();
+        score.overall = result.getOverallScore();
+        score.clarity = result.getClarityScore();
+        score.businessValue = result.getBusinessValueScore();
+        score.gherkin = result.getGherkinScore();
+        score.testability = result.getTestabilityScore();
+        score.specificity = result.getSpecificityScore();
+        score.duplication = result.getDuplicationScore();
+        score.automationReady = result.isAutomationReady();
+        score.antipatterns = new ArrayList<>(result.getDetectedAntipatterns());
+        for (ScenarioAnalyzer.TableSummary table : result.getTables()) {
+            score.tableRows += table.getRows();
+        }
+        return score;
+    }
+
+    /**
+     * Read a file as UTF-8 through a read-only mapping, dropping a byte order mark
+     */
+    static String read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return "";
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is larger than 2 GB");
+            }
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            String text = decoder.decode(bytes).toString();
+            return !text.isEmpty() && text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+        }
+    }
+
+    /**
+     * Every *.feature file under the given paths, sorted and without duplicates
+     */
+    static List<Path> findFeatureFiles(List<String> paths) throws IOException {
+        TreeSet<Path> files = new TreeSet<>();
+        for (String name : paths) {
+            Path path = Paths.get(name).toAbsolutePath().normalize();
+            if (Files.isRegularFile(path)) {
+                files.add(path);
+            } else if (Files.isDirectory(path)) {
+                Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        if (attributes.isRegularFile() && file.getFileName().toString().endsWith(".feature")) {
+                            files.add(file);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } else {
+                throw new IOException("No such file or directory: " + name);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    static void write(List<FileScore> scores, String format, Writer out) throws IOException {
+        if ("csv".equals(format)) {
+            out.write("path,language,overall,clarity,business_value,gherkin,testability,specificity,"
+                + "duplication,automation_ready,table_rows,antipatterns,error\n");
+            for (FileScore score : scores) {
+                out.write(csv(score.path.toString()) + ',' + csv(score.language) + ','
+                    + number(score.overall) + ',' + number(score.clarity) + ',' + number(score.businessValue) + ','
+                    + number(score.gherkin) + ',' + number(score.testability) + ','
+                    + number(score.specificity) + ',' + number(score.duplication) + ','
+                    + score.automationReady + ',' + score.tableRows + ','
+                    + csv(String.join("; ", score.antipatterns)) + ',' + csv(score.error) + '\n');
+            }
+            return;
+        }
+
+        out.write("{\"files\":[");
+        for (int i = 0; i < scores.size(); i++) {
+            FileScore score = scores.get(i);
+            out.write(i == 0 ? "\n" : ",\n");
+            out.write("{\"path\":" + json(score.path.toString()));
+            if (score.error != null) {
+                out.write(",\"error\":" + json(score.error) + "}");
+                continue;
+            }
+            out.write(",\"language\":" + json(score.language)
+                + ",\"overallScore\":" + number(score.overall)
+                + ",\"clarityScore\":" + number(score.clarity)
+                + ",\"businessValueScore\":" + number(score.businessValue)
+                + ",\"gherkinScore\":" + number(score.gherkin)
+                + ",\"testabilityScore\":" + number(score.testability)
+                + ",\"specificityScore\":" + number(score.specificity)
+                + ",\"duplicationScore\":" + number(score.duplication)
+                + ",\"automationReady\":" + score.automationReady
+                + ",\"tableRows\":" + score.tableRows
+                + ",\"detectedAntipatterns\":[");
+            for (int a = 0; a < score.antipatterns.size(); a++) {
+                out.write((a == 0 ? "" : ",") + json(score.antipatterns.get(a)));
+            }
+            out.write("]}");
+        }
+        out.write("\n]}\n");
+    }
+
+    // Prints the summary to stderr and returns the exit status
+    private static int summarize(List<FileScore> scores, double minScore, double elapsedSeconds) {
+        int failed = 0;
+        int belowMinimum = 0;
+        int automationReady = 0;
+        double total = 0;
+        double lowest = Double.NaN;
+        Map<String, Integer> languages = new TreeMap<>();
+        for (FileScore score : scores) {
+            if (score.error != null) {
+                failed++;
+                System.err.println("FAILED: " + score.path + ": " + score.error);
+                continue;
+            }
+            total += score.overall;
+            lowest = Double.isNaN(lowest) ? score.overall : Math.min(lowest, score.overall);
+            if (score.automationReady) {
+                automationReady++;
+            }
+            if (score.overall < minScore) {
+                belowMinimum++;
+                System.err.println("BELOW " + number(minScore) + ": " + score.path + " (" + number(score.overall) + ")");
+            }
+            if (score.language != null) {
+                languages.merge(score.language, 1, Integer::sum);
+            }
+        }
+        int scored = scores.size() - failed;
+        System.err.println(String.format(Locale.ROOT,
+            "%d file(s), %d failed, mean %.2f, min %.2f, %d automation ready, languages %s, %.2fs (%.0f files/s)",
+            scores.size(), failed, scored == 0 ? 0 : total / scored, Double.isNaN(lowest) ? 0 : lowest,
+            automationReady, languages, elapsedSeconds, elapsedSeconds > 0 ? scores.size() / elapsedSeconds : 0));
+
+        if (failed > 0) {
+            return 2;
+        }
+        return belowMinimum > 0 ? 1 : 0;
+    }
+
+    private static String number(double value) {
+        return Double.toString(value);
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    /**
+     * What is reported for one file
+     */
+    public static class FileScore {
+        final Path path;
+        String language;
+        double overall;
+        double clarity;
+        double businessValue;
+        double gherkin;
+        double testability;
+        double specificity;
+        double duplication;
+        boolean automationReady;
+        int tableRows;
+        List<String> antipatterns = new ArrayList<>();
+        String error;
+
+        FileScore(Path path) {
+            this.path = path;
+        }
+
+        static FileScore failed(Path path, String error) {
+            FileScore score = new FileScore(path);
+            score.error = error;
+            return score;
+        }
+    }
+
+    public static class Options {
+        String format = "json";
+        String outputFile;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double minScore = 0;
+        List<String> paths = new ArrayList<>();
+
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (arg.isBlank()) {
+                    continue;
+                }
+                if (!arg.startsWith("--")) {
+                    options.paths.add(arg);
+                    continue;
+                }
+                String[] pair = arg.substring(2).split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+                }
+                String value = pair[1];
+                switch (pair[0]) {
+                    case "format": options.format = value.toLowerCase(Locale.ROOT); break;
+                    case "output": options.outputFile = value; break;
+                    case "threads": options.threads = Integer.parseInt(value); break;
+                    case "min-score": options.minScore = Double.parseDouble(value); break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: --" + pair[0]
+                            + " (known: format, output, threads, min-score)");
+                }
+            }
+            if (!"json".equals(options.format) && !"csv".equals(options.format)) {
+                throw new IllegalArgumentException("Unknown format: " + options.format + " (known: json, csv)");
+            }
+            if (options.threads < 1) {
+                throw new IllegalArgumentException("--threads must be at least 1");
+            }
+            if (options.paths.isEmpty()) {
+                throw new IllegalArgumentException("No file or directory given");
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.abtm.bench;
+
+import com.abtm.analyzer.ScenarioAnalyzer;
+import com.abtm.model.Exercise;
+import com.abtm.model.Scenario;
+import com.abtm.model.User;
+import com.abtm.repository.ExerciseRepository;
+import com.abtm.repository.ModuleRepository;
+import com.abtm.service.ScenarioAnalysisService;
+import com.abtm.service.SkillProfileService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic data generator for the bench profile
+ *
+ * Loads the catalog from init-database.sql, then creates N users with M
+ * analyzed scenario submissions each (plus the matching user_performance
+ * and user_skills rows) so services and controllers can be benchmarked at realistic volumes.
+ */
+@Component
+@Profile("bench")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BenchDataGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BenchDataGenerator.class);
+
+    // Also assumed by the load generator's returning students (abtm-load Journey)
+    public static final String USERNAME_PREFIX = "bench_user_";
+    public static final String PASSWORD = "BenchPass123";
+    // Instructor account for the cohort report and user import, created after the learners
+    public static final String INSTRUCTOR_USERNAME = "bench_instructor";
+
+    private static final int BATCH_SIZE = 500;
+
+    // Step templates of varying quality, modelled on the examples in test-api.sh
+    private static final String[][] STEP_TEMPLATES = {
+        {
+            "Given a customer with email \"{name}@example.com\" and password \"{secret}\"",
+            "When the customer submits the {action} request",
+            "Then the customer receives a confirmation with reference \"{n}\"",
+            "And the account status is \"active\""
+        },
+        {
+            "Given a user with username \"{name}\" and {n} items in the order",
+            "When the user completes the {action}",
+            "Then the order total should be \"{n}.00\"",
+            "And a receipt is sent to \"{name}@example.com\""
+        },
+        {
+            "When I click the login button",
+            "And I enter my username in the username textbox",
+            "And I click submit button",
+            "Then I see the dashboard screen"
+        },
+        {
+            "Given I am logged in",
+            "When I add an item",
+            "Then it should be added correctly"
+        },
+        {
+            "When the user pays with credit card",
+            "Then the payment is processed successfully"
+        }
+    };
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private ScenarioAnalysisService scenarioAnalysisService;
+
+    @Autowired
+    private SkillProfileService skillProfileService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @Value("${bench.data.users:200}")
+    private int userCount;
+
+    @Value("${bench.data.scenarios-per-user:20}")
+    private int scenariosPerUser;
+
+    @Value("${bench.data.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.currentTimeMillis();
+        Random random = new Random(seed);
+
+        List<Exercise> exercises = loadCatalog();
+        List<Long> userIds = generateUsers(random);
+        int scenarios = generateScenarios(random, userIds, exercises);
+
+        log.info("Bench data ready: {} modules, {} exercises, {} users, {} scenarios in {} ms",
+            moduleRepository.count(), exercises.size(), userIds.size(), scenarios,
+            System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Persist the module and exercise catalog
+     */
+    private List<Exercise> loadCatalog() throws Exception {
+        InitSqlCatalog catalog = InitSqlCatalog.load(InitSqlCatalog.DEFAULT_LOCATION);
+        moduleRepository.saveAll(catalog.getModules());
+        return exerciseRepository.saveAll(catalog.getExercises());
+    }
+
+    /**
+     * Insert users in JDBC batches and return their generated ids
+     */
+    private List<Long> generateUsers(Random random) {
+        User.Role[] roles = Arrays.stream(User.Role.values()).filter(User.Role::isLearner).toArray(User.Role[]::new);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // One hash shared by all bench users, at the configured cost, so logins verify as in production
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> batch = new ArrayList<>();
+
+        for (int i = 1; i <= userCount; i++) {
+            String username = USERNAME_PREFIX + i;
+            batch.add(new Object[] {
+                username, passwordHash, username + "@bench.abtm", "Bench User " + i,
+                roles[random.nextInt(roles.length)].name(), now
+            });
+            if (batch.size() == BATCH_SIZE) {
+                insertUsers(batch);
+            }
+        }
+        insertUsers(batch);
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+
+        batch.add(new Object[] {
+            INSTRUCTOR_USERNAME, passwordHash, INSTRUCTOR_USERNAME + "@bench.abtm", "Bench Instructor",
+            User.Role.INSTRUCTOR.name(), now
+        });
+        insertUsers(batch);
+        return userIds;
+    }
+
+    private void insertUsers(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO users (username, password, email, full_name, role, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+            batch);
+        batch.clear();
+    }
+
+    /**
+     * Insert M analyzed scenarios per user and the aggregated performance rows
+     */
+    private int generateScenarios(Random random, List<Long> userIds, List<Exercise> exercises) {
+        LocalDateTime baseTime = LocalDateTime.now().minusDays(30);
+        List<Object[]> scenarioBatch = new ArrayList<>();
+        List<Object[]> performanceBatch = new ArrayList<>();
+        List<Object[]> skillBatch = new ArrayList<>();
+        int total = 0;
+
+        for (Long userId : userIds) {
+            // Per exercise: [attempts, best score, last attempt minute offset]
+            Map<Long, double[]> performance = new HashMap<>();
+            Double[] skills = new Double[6];
+
+            for (int s = 0; s < scenariosPerUser; s++) {
+                Exercise exercise = exercises.get(random.nextInt(exercises.size()));
+                String content = generateContent(random, exercise);
+                ScenarioAnalyzer.AnalysisResult result = scenarioAnalysisService.analyze(content);
+                double sqs = overallSqs(result);
+                int minutes = random.nextInt(30 * 24 * 60);
+
+                double[] stats = performance.computeIfAbsent(exercise.getId(), id -> new double[3]);
+                stats[0]++;
+                stats[1] = Math.max(stats[1], sqs);
+                stats[2] = Math.max(stats[2], minutes);
+
+                double[] scores = {
+                    result.getClarityScore(), result.getBusinessValueScore(), result.getGherkinScore(),
+                    result.getTestabilityScore(), result.getSpecificityScore(), result.getDuplicationScore()
+                };
+                for (int d = 0; d < skills.length; d++) {
+                    skills[d] = skillProfileService.blend(skills[d], scores[d]);
+                }
+
+                scenarioBatch.add(new Object[] {
+                    userId, exercise.getId(), content, (int) stats[0],
+                    Timestamp.valueOf(baseTime.plusMinutes(minutes)),
+                    result.getClarityScore(), result.getBusinessValueScore(), result.getGherkinScore(),
+                    result.getTestabilityScore(), result.getSpecificityScore(), result.getDuplicationScore(),
+                    sqs, result.getFeedback(), String.join("; ", result.getDetectedAntipatterns()),
+                    result.isAutomationReady(), status(sqs)
+                });
+                total++;
+
+                if (scenarioBatch.size() == BATCH_SIZE) {
+                    insertScenarios(scenarioBatch);
+                }
+            }
+
+            for (Map.Entry<Long, double[]> entry : performance.entrySet()) {
+                double[] stats = entry.getValue();
+                double score = stats[1] * 10; // Convert 0-10 to 0-100
+                Timestamp lastAttempt = Timestamp.valueOf(baseTime.plusMinutes((long) stats[2]));
+                performanceBatch.add(new Object[] {
+                    userId, entry.getKey(), score, (int) stats[0], lastAttempt, score >= 70 ? lastAttempt : null
+                });
+            }
+            if (performanceBatch.size() >= BATCH_SIZE) {
+                insertPerformance(performanceBatch);
+            }
+
+            if (scenariosPerUser > 0) {
+                skillBatch.add(new Object[] {
+                    userId, skills[0], skills[1], skills[2], skills[3], skills[4], skills[5],
+                    scenariosPerUser, Timestamp.valueOf(LocalDateTime.now())
+                });
+            }
+            if (skillBatch.size() == BATCH_SIZE) {
+                insertSkills(skillBatch);
+            }
+        }
+        insertScenarios(scenarioBatch);
+        insertPerformance(performanceBatch);
+        insertSkills(skillBatch);
+
+        return total;
+    }
+
+    private void insertScenarios(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO scenarios (user_id, exercise_id, content, submission_number, submitted_at, " +
+            "clarity_score, business_value_score, gherkin_score, testability_score, specificity_score, " +
+            "duplication_score, overall_sqs, feedback, detected_antipatterns, is_automation_ready, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            batch);
+        batch.clear();
+    }
+
+    private void insertPerformance(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO user_performance (user_id, exercise_id, performance_score, attempt_count, " +
+            "last_attempt_date, completed_date) VALUES (?, ?, ?, ?, ?, ?)",
+            batch);
+        batch.clear();
+    }
+
+    private void insertSkills(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO user_skills (user_id, clarity, business_value, gherkin, testability, specificity, " +
+            "duplication, sample_count, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            batch);
+        batch.clear();
+    }
+
+    /**
+     * Build a scenario for the exercise from a randomly chosen step template
+     */
+    private String generateContent(Random random, Exercise exercise) {
+        String[] steps = STEP_TEMPLATES[random.nextInt(STEP_TEMPLATES.length)];
+        String name = "user" + random.nextInt(10000);
+        String secret = "Secret" + random.nextInt(100);
+        String n = String.valueOf(1 + random.nextInt(99));
+
+        StringBuilder content = new StringBuilder();
+        content.append("Feature: ").append(exercise.getTitle()).append("\n\n");
+        content.append("Scenario: ").append(exercise.getTitle()).append(" #").append(random.nextInt(1000)).append("\n");
+        for (String step : steps) {
+            content.append("  ").append(step
+                .replace("{name}", name)
+                .replace("{secret}", secret)
+                .replace("{action}", exercise.getTitle().toLowerCase())
+                .replace("{n}", n))
+                .append("\n");
+        }
+        return content.toString();
+    }
+
+    // Reuse the entity's weighting so generated rows match real submissions
+    private double overallSqs(ScenarioAnalyzer.AnalysisResult result) {
+        Scenario scenario = new Scenario();
+        scenario.setClarityScore(result.getClarityScore());
+        scenario.setBusinessValueScore(result.getBusinessValueScore());
+        scenario.setGherkinScore(result.getGherkinScore());
+        scenario.setTestabilityScore(result.getTestabilityScore());
+        scenario.setSpecificityScore(result.getSpecificityScore());
+        scenario.setDuplicationScore(result.getDuplicationScore());
+        scenario.calculateOverallSqs();
+        return scenario.getOverallSqs();
+    }
+
+    // Same thresholds as ScenarioService
+    private String status(double sqs) {
+        if (sqs >= 8.0) {
+            return "PASSED";
+        } else if (sqs >= 6.0) {
+            return "NEEDS_IMPROVEMENT";
+        }
+        return "FAILED";
+    }
+}
@@ -0,0 +1,224 @@
+package com.abtm.bench;
+
+import com.abtm.model.Exercise;
+import com.abtm.model.Module;
+import com.abtm.model.User;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the module and exercise catalog from db/init-database.sql
+ *
+ * The script is written for the original Postgres schema (module_number,
+ * order_index, FOUNDATION/STANDARD/ADVANCED), so values are mapped onto the
+ * current entity model instead of executing the SQL directly.
+ */
+public class InitSqlCatalog {
+
+    public static final String DEFAULT_LOCATION = "db/init-database.sql";
+
+    private final List<Module> modules = new ArrayList<>();
+    private final Map<Long, Module> modulesBySqlId = new HashMap<>();
+    private final List<Exercise> exercises = new ArrayList<>();
+
+    /**
+     * Load the catalog from the classpath
+     */
+    public static InitSqlCatalog load(String location) throws IOException {
+        InputStream in = InitSqlCatalog.class.getClassLoader().getResourceAsStream(location);
+        if (in == null) {
+            throw new IOException("Catalog script not found: " + location);
+        }
+        try (InputStream script = in) {
+            return parse(new String(script.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Parse the INSERT statements of the script
+     */
+    public static InitSqlCatalog parse(String sql) {
+        InitSqlCatalog catalog = new InitSqlCatalog();
+        String script = stripComments(sql);
+
+        for (Map<String, String> row : readInserts(script, "modules")) {
+            Module module = new Module();
+            module.setTitle(row.get("title"));
+            module.setDescription(row.get("description"));
+            module.setModuleOrder(toInteger(firstPresent(row, "module_number", "module_order", "order_index")));
+            module.setEstimatedHours(toInteger(row.get("estimated_hours")));
+            module.setPassingScore(row.get("passing_score") != null ? Double.valueOf(row.get("passing_score")) : 70.0);
+            module.setIsActive(row.get("is_active") == null || Boolean.parseBoolean(row.get("is_active")));
+
+            Long sqlId = row.get("id") != null ? Long.valueOf(row.get("id")) : (long) catalog.modules.size() + 1;
+            catalog.modules.add(module);
+            catalog.modulesBySqlId.put(sqlId, module);
+        }
+
+        for (Map<String, String> row : readInserts(script, "exercises")) {
+            Exercise exercise = new Exercise();
+            exercise.setTitle(row.get("title"));
+            exercise.setDescription(row.get("description"));
+            exercise.setUserStory(row.get("user_story"));
+            exercise.setDifficulty(toDifficulty(row.get("difficulty")));
+            exercise.setTargetRole(toRole(row.get("target_role")));
+            exercise.setExpectedScenarios(toInteger(row.get("expected_scenarios")));
+            exercise.setExerciseOrder(toInteger(firstPresent(row, "exercise_order", "order_index")));
+            exercise.setIsActive(row.get("is_active") == null || Boolean.parseBoolean(row.get("is_active")));
+            exercise.setModule(catalog.modulesBySqlId.get(Long.valueOf(row.get("module_id"))));
+            catalog.exercises.add(exercise);
+        }
+
+        return catalog;
+    }
+
+    public List<Module> getModules() {
+        return modules;
+    }
+
+    /**
+     * Exercises with their module already attached (resolved from module_id)
+     */
+    public List<Exercise> getExercises() {
+        return exercises;
+    }
+
+    // Map the script's difficulty levels onto the entity enum
+    private static Exercise.DifficultyLevel toDifficulty(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.toUpperCase(Locale.ROOT)) {
+            case "FOUNDATION":
+            case "EASY":
+                return Exercise.DifficultyLevel.EASY;
+            case "ADVANCED":
+            case "HARD":
+                return Exercise.DifficultyLevel.HARD;
+            default:
+                return Exercise.DifficultyLevel.MEDIUM;
+        }
+    }
+
+    // Map the script's roles onto the entity enum (TESTER was renamed to QA_ENGINEER)
+    private static User.Role toRole(String value) {
+        if (value == null) {
+            return null;
+        }
+        String role = value.toUpperCase(Locale.ROOT);
+        if (role.equals("TESTER")) {
+            return User.Role.QA_ENGINEER;
+        }
+        return User.Role.valueOf(role);
+    }
+
+    private static Integer toInteger(String value) {
+        return value != null ? Integer.valueOf(value) : null;
+    }
+
+    private static String firstPresent(Map<String, String> row, String... columns) {
+        for (String column : columns) {
+            if (row.get(column) != null) {
+                return row.get(column);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remove "--" line comments that are not inside a string literal
+     */
+    private static String stripComments(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        boolean inString = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inString = !inString;
+            } else if (!inString && c == '-' && i + 1 < sql.length() && sql.charAt(i + 1) == '-') {
+                while (i < sql.length() && sql.charAt(i) != '\n') {
+                    i++;
+                }
+            }
+            if (i < sql.length()) {
+                out.append(sql.charAt(i));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Collect the rows of every "INSERT INTO table (...) VALUES ..." statement
+     */
+    private static List<Map<String, String>> readInserts(String script, String table) {
+        List<Map<String, String>> rows = new ArrayList<>();
+        String marker = "INSERT INTO " + table + " (";
+        int from = 0;
+
+        while ((from = script.indexOf(marker, from)) >= 0) {
+            int columnsEnd = script.indexOf(')', from);
+            String[] columns = script.substring(from + marker.length(), columnsEnd).split(",");
+            int pos = script.indexOf("VALUES", columnsEnd) + "VALUES".length();
+
+            List<String> values = new ArrayList<>();
+            StringBuilder token = new StringBuilder();
+            boolean inString = false;
+            boolean quoted = false;
+            int depth = 0;
+
+            for (; pos < script.length(); pos++) {
+                char c = script.charAt(pos);
+                if (inString) {
+                    if (c == '\'' && pos + 1 < script.length() && script.charAt(pos + 1) == '\'') {
+                        token.append('\'');
+                        pos++;
+                    } else if (c == '\'') {
+                        inString = false;
+                    } else {
+                        token.append(c);
+                    }
+                } else if (c == '\'') {
+                    token.setLength(0);
+                    inString = true;
+                    quoted = true;
+                } else if (c == '(') {
+                    depth++;
+                } else if (depth > 0 && (c == ',' || c == ')')) {
+                    values.add(quoted ? token.toString() : nullIfKeyword(token.toString().trim()));
+                    token.setLength(0);
+                    quoted = false;
+                    if (c == ')') {
+                        depth--;
+                        rows.add(toRow(columns, values));
+                        values = new ArrayList<>();
+                    }
+                } else if (c == ';' && depth == 0) {
+                    break;
+                } else if (depth > 0 && !quoted) {
+                    token.append(c);
+                }
+            }
+            from = pos;
+        }
+        return rows;
+    }
+
+    private static String nullIfKeyword(String value) {
+        return value.isEmpty() || value.equalsIgnoreCase("null") ? null : value;
+    }
+
+    private static Map<String, String> toRow(String[] columns, List<String> values) {
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < columns.length && i < values.size(); i++) {
+            row.put(columns[i].trim(), values.get(i));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,78 @@
+package com.abtm.cluster;
+
+/**
+ * A committed write that nodes caching the written data must apply
+ *
+ * Versions are positions in the cache_change log, assigned in commit order.
+ * The key identifies what changed within the topic (see Topic); topics that
+ * flush a whole cache have an empty key.
+ */
+public final class CacheChange {
+
+    public enum Topic {
+        /** Module or exercise created, changed or deleted */
+        CATALOG,
+        /** User registered or changed; key: user id */
+        USER,
+        /** Users added in bulk */
+        USERS,
+        /** User deleted; key: user id ":" revocation time (epoch millis) */
+        USER_DELETED,
+        /** Token revoked at logout; key: token id ":" expiry (epoch millis) */
+        TOKEN_REVOKED,
+        /** Scenario or performance score saved or deleted; key: user id ":" exercise id */
+        SCORE
+    }
+
+    private final long version;
+    private final Topic topic;
+    private final String key;
+    private final String origin;
+
+    public CacheChange(long version, Topic topic, String key, String origin) {
+        this.version = version;
+        this.topic = topic;
+        this.key = key;
+        this.origin = origin;
+    }
+
+    /**
+     * Change announced by a notification: "version topic origin key"
+     */
+    public static CacheChange parse(String payload) {
+        String[] fields = payload.split(" ", 4);
+        if (fields.length < 3) {
+            throw new IllegalArgumentException("Malformed cache change: " + payload);
+        }
+        return new CacheChange(Long.parseLong(fields[0]), Topic.valueOf(fields[1]),
+            fields.length > 3 ? fields[3] : "", fields[2]);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Topic getTopic() {
+        return topic;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Numeric part of a compound key (part 1 of "12:34" is 34)
+     */
+    public long getKeyPart(int index) {
+        return Long.parseLong(key.split(":")[index]);
+    }
+
+    @Override
+    public String toString() {
+        return version + " " + topic + " " + origin + " " + key;
+    }
+}
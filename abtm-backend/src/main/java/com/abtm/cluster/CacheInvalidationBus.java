@@ -0,0 +1,344 @@
+package com.abtm.cluster;
+
+import com.abtm.repository.CacheChangeRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the in-process caches of several nodes coherent through PostgreSQL
+ *
+ * A write that other nodes may have cached is appended to the cache_change
+ * log once the write's transaction has committed, in a short transaction of
+ * its own that also NOTIFYs every node. Each node LISTENs on a dedicated
+ * connection and applies changes from other nodes (ClusterCaches) strictly
+ * in version order: an older or repeated version is ignored, and a version
+ * past the next expected one means a notification was lost, so the missing
+ * changes are read from the log first.
+ *
+ * The log version is recorded at startup, before any cache is built; once
+ * listening, the node replays everything logged since then, and token
+ * revocations from the whole log (its deny list starts empty). After a
+ * reconnect the log is replayed from the last applied version; a node
+ * further behind than the log's retention reloads all of its caches.
+ * Active only on PostgreSQL with abtm.cache-bus.enabled.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    @Autowired
+    private CacheChangeRepository changeRepository;
+
+    @Autowired
+    private ClusterCaches clusterCaches;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${abtm.cache-bus.enabled:true}")
+    private boolean enabledByConfig;
+
+    @Value("${spring.datasource.url:}")
+    private String url;
+
+    @Value("${spring.datasource.username:}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    @Value("${abtm.cache-bus.poll-ms:10000}")
+    private int pollMillis;
+
+    @Value("${abtm.cache-bus.reconnect-ms:5000}")
+    private long reconnectMillis;
+
+    @Value("${abtm.cache-bus.retention-ms:86400000}")
+    private long retentionMillis;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection connection;
+    private Thread listener;
+
+    // Highest version applied here (or made here); set at startup, then only the listener thread writes it
+    private volatile long appliedVersion = -1;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder publishFailures = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder ignored = new LongAdder();
+    private final LongAdder applyFailures = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+
+    public boolean isEnabled() {
+        return enabledByConfig && url.startsWith("jdbc:postgresql:");
+    }
+
+    /**
+     * Record the log version before any cache is built (caches build once the application is ready)
+     */
+    @PostConstruct
+    void recordStartVersion() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            changeRepository.createTable();
+            long startVersion = changeRepository.findVersionRange()[1];
+            for (CacheChange revocation : changeRepository.findRevocations(startVersion)) {
+                clusterCaches.apply(revocation);
+            }
+            appliedVersion = startVersion;
+        } catch (RuntimeException e) {
+            log.warn("Cannot read the cache change log, caches will be reloaded once listening: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-bus");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Cache invalidation bus started as node {}", nodeId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        closeConnection();
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    /**
+     * Announce a write to the other nodes, after the caller's transaction (if any) commits
+     *
+     * Call after updating this node's own caches. Nothing is announced when
+     * the transaction rolls back. A failure is logged, not thrown: the write
+     * itself has succeeded, and other nodes catch up at their next reconnect
+     * or reload.
+     */
+    public void publish(CacheChange.Topic topic, Object key) {
+        if (!isEnabled()) {
+            return;
+        }
+        String cacheKey = key != null ? key.toString() : "";
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(topic, cacheKey);
+                }
+            });
+        } else {
+            append(topic, cacheKey);
+        }
+    }
+
+    // In a new transaction: the append's advisory lock serializes publishers for that statement only
+    private void append(CacheChange.Topic topic, String key) {
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transaction.executeWithoutResult(status -> changeRepository.append(topic, key, nodeId));
+            published.increment();
+        } catch (RuntimeException e) {
+            publishFailures.increment();
+            log.warn("Cannot publish cache change {} {}: {}", topic, key, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${abtm.cache-bus.purge-ms:300000}")
+    public void purge() {
+        if (running) {
+            try {
+                int purged = changeRepository.purgeOlderThan(retentionMillis);
+                if (purged > 0) {
+                    log.debug("Purged {} cache changes", purged);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Cannot purge cache changes: {}", e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("node", nodeId);
+        stats.put("connected", connected);
+        stats.put("appliedVersion", appliedVersion);
+        stats.put("published", published.sum());
+        stats.put("publishFailures", publishFailures.sum());
+        stats.put("received", received.sum());
+        stats.put("applied", applied.sum());
+        stats.put("ignored", ignored.sum());
+        stats.put("applyFailures", applyFailures.sum());
+        stats.put("replays", replays.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("reloads", reloads.sum());
+        stats.put("reconnects", reconnects.sum());
+        return stats;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection listening = openConnection()) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + CacheChangeRepository.CHANNEL);
+                }
+                // Listening before catching up: nothing committed from here on can be missed
+                catchUp();
+                connected = true;
+
+                PGConnection notifications = listening.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] batch = notifications.getNotifications(pollMillis);
+                    if (batch == null || batch.length == 0) {
+                        // A dead connection may stay silent; a query surfaces it
+                        try (Statement statement = listening.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : batch) {
+                        received.increment();
+                        receive(CacheChange.parse(notification.getParameter()));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Cache invalidation bus disconnected, reconnecting in {} ms: {}",
+                        reconnectMillis, e.getMessage());
+                }
+            } finally {
+                connected = false;
+                connection = null;
+            }
+            if (running) {
+                reconnects.increment();
+                try {
+                    Thread.sleep(reconnectMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        properties.setProperty("ApplicationName", "abtm-cache-bus");
+        properties.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(url, properties);
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Closing the cache bus connection failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Replay what was missed since startup (first connect) or since the connection was lost
+    private void catchUp() {
+        long[] range = changeRepository.findVersionRange();
+        if (appliedVersion < 0) {
+            // The start version could not be read: the caches may miss any change
+            reloads.increment();
+            clusterCaches.reloadAll();
+            appliedVersion = range[1];
+        } else if (range[1] > appliedVersion) {
+            replay(range);
+        }
+    }
+
+    private void receive(CacheChange change) {
+        long version = change.getVersion();
+        if (version <= appliedVersion) {
+            // Already applied through a replay
+            ignored.increment();
+        } else if (version == appliedVersion + 1) {
+            apply(change);
+        } else {
+            // Versions commit in order, so the ones in between were committed and their notifications lost
+            replay(changeRepository.findVersionRange());
+        }
+    }
+
+    private void replay(long[] range) {
+        replays.increment();
+        if (range[0] > appliedVersion + 1) {
+            log.warn("Cache changes {} to {} are no longer logged, reloading all caches",
+                appliedVersion + 1, range[0] - 1);
+            reloads.increment();
+            clusterCaches.reloadAll();
+            appliedVersion = range[1];
+            return;
+        }
+        List<CacheChange> missed = changeRepository.findAfter(appliedVersion);
+        for (CacheChange change : missed) {
+            replayed.increment();
+            apply(change);
+        }
+    }
+
+    private void apply(CacheChange change) {
+        if (!nodeId.equals(change.getOrigin())) {
+            try {
+                clusterCaches.apply(change);
+                applied.increment();
+            } catch (RuntimeException e) {
+                applyFailures.increment();
+                log.warn("Cannot apply cache change {}: {}", change, e.getMessage());
+            }
+        }
+        appliedVersion = change.getVersion();
+    }
+}
@@ -0,0 +1,77 @@
+package com.abtm.cluster;
+
+import com.abtm.repository.UserRepository;
+import com.abtm.security.TokenDenyList;
+import com.abtm.service.LeaderboardService;
+import com.abtm.service.ProgressTracker;
+import com.abtm.service.UserAvailabilityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * The in-process caches, as seen by changes made on other nodes
+ *
+ * The node making a change updates its own caches directly; this applies
+ * the same change here once CacheInvalidationBus receives it. Every
+ * change is safe to apply twice.
+ */
+@Component
+public class ClusterCaches {
+
+    @Autowired
+    private ProgressTracker progressTracker;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private UserAvailabilityService availabilityService;
+
+    @Autowired
+    private TokenDenyList denyList;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public void apply(CacheChange change) {
+        switch (change.getTopic()) {
+            case CATALOG:
+                progressTracker.invalidateCatalog();
+                break;
+            case USER:
+                userRepository.findById(change.getKeyPart(0))
+                    .ifPresent(user -> availabilityService.recordUser(user.getUsername(), user.getEmail()));
+                break;
+            case USERS:
+                availabilityService.rebuild();
+                break;
+            case USER_DELETED:
+                progressTracker.evictUser(change.getKeyPart(0));
+                leaderboardService.removeUser(change.getKeyPart(0));
+                denyList.revokeUser(change.getKeyPart(0), change.getKeyPart(1));
+                break;
+            case TOKEN_REVOKED:
+                denyList.revoke(UUID.fromString(change.getKey().split(":")[0]), change.getKeyPart(1));
+                break;
+            case SCORE:
+                progressTracker.evictUser(change.getKeyPart(0));
+                leaderboardService.refresh(change.getKeyPart(0), change.getKeyPart(1));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown cache change topic " + change.getTopic());
+        }
+    }
+
+    /**
+     * Reload everything (changes were missed and are no longer logged)
+     *
+     * Revocations need no reload: the log is kept at least as long as a token lives.
+     */
+    public void reloadAll() {
+        progressTracker.invalidateCatalog();
+        leaderboardService.rebuild();
+        availabilityService.rebuild();
+    }
+}
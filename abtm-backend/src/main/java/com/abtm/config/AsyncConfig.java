@@ -0,0 +1,57 @@
+package com.abtm.config;
+
+import com.abtm.monitoring.ListenerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for the asynchronous scenario event listeners
+ *
+ * Bounded queue; when it is full the listener invocation is dropped and
+ * counted, never run on the publishing (request) thread, and
+ * ScenarioEventReconciler replays the submissions it missed. With
+ * abtm.threads.virtual=true (on Java 21+) the workers are virtual threads,
+ * still at most abtm.events.threads of them.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    public static final String SCENARIO_EVENT_EXECUTOR = "scenarioEventExecutor";
+
+    @Bean(name = SCENARIO_EVENT_EXECUTOR)
+    public ThreadPoolTaskExecutor scenarioEventExecutor(@Value("${abtm.events.threads:4}") int threads,
+                                                        @Value("${abtm.events.queue-capacity:1000}") int queueCapacity,
+                                                        @Value("${abtm.threads.virtual:false}") boolean virtualThreads,
+                                                        ListenerMetrics listenerMetrics) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("scenario-events-");
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            executor.setThreadFactory(VirtualThreads.factory("scenario-events-"));
+        }
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            listenerMetrics.recordRejected();
+            if (pool.isShutdown()) {
+                return;
+            }
+            long rejected = listenerMetrics.getRejected();
+            if (rejected == 1 || rejected % 1000 == 0) {
+                log.warn("Scenario event queue full, {} listener invocation(s) dropped so far; "
+                    + "they are replayed by the next reconciliation", rejected);
+            }
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
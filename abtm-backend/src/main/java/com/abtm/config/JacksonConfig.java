@@ -0,0 +1,25 @@
+package com.abtm.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JSON binding of request and response bodies
+ *
+ * Spring Boot registers every Module bean with the shared ObjectMapper.
+ * Blackbird replaces Jackson's reflective getter, setter and constructor
+ * calls with LambdaMetafactory-generated accessors, which the JIT inlines
+ * like hand-written code (abtm.json.blackbird=false turns it off).
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "abtm.json.blackbird", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
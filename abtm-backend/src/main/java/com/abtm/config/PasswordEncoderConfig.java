@@ -0,0 +1,49 @@
+package com.abtm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration for Password Encoding
+ * Uses BCrypt hashing algorithm for secure password storage
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    public static final String PASSWORD_HASHING_EXECUTOR = "passwordHashingExecutor";
+
+    /**
+     * BCrypt password encoder bean
+     * Strength: 10 (default) - good balance between security and performance;
+     * stored hashes with a lower cost are upgraded on the next login
+     */
+    @Bean
+    public BCryptPasswordEncoder passwordEncoder(@Value("${abtm.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * Pool that runs every hash and verification, isolated from the request
+     * threads: a login storm saturates these threads only, and once the
+     * queue is full further requests are rejected instead of waiting
+     */
+    @Bean(name = PASSWORD_HASHING_EXECUTOR)
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${abtm.password.threads:0}") int threads,
+                                                          @Value("${abtm.password.queue-capacity:32}") int queueCapacity) {
+        // 0: half the cores, leaving the rest to request processing
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,60 @@
+package com.abtm.config;
+
+import com.abtm.monitoring.ObservedDataSource;
+import com.abtm.monitoring.RequestTiming;
+import com.abtm.monitoring.TimedJacksonConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration for Server-Timing and sampled request timing logs
+ *
+ * Wraps the DataSource (statements from Hibernate and JdbcTemplate alike)
+ * and hooks JSON serialization so their durations are added to the timed
+ * request (see RequestTimingFilter).
+ * Enabled by abtm.timing.header=true or abtm.timing.sample-rate > 0.
+ */
+@Configuration
+@ConditionalOnExpression("${abtm.timing.header:false} or ${abtm.timing.sample-rate:0} > 0")
+public class RequestTimingConfig {
+
+    /**
+     * Time statement execution at the JDBC level (static: applies to the DataSource bean)
+     */
+    @Bean
+    public static BeanPostProcessor databaseTiming() {
+        ObservedDataSource.Listener timing = new ObservedDataSource.Listener() {
+            @Override
+            public void executionStarted() {
+                RequestTiming.statementStarted();
+            }
+
+            @Override
+            public void executionEnded() {
+                RequestTiming.statementEnded();
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? ObservedDataSource.wrap((DataSource) bean, timing) : bean;
+            }
+        };
+    }
+
+    /**
+     * Replaces Spring Boot's JSON converter, keeping its ObjectMapper
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter timedJacksonConverter(ObjectMapper objectMapper,
+                                                                     @Value("${abtm.timing.header:false}") boolean header) {
+        return new TimedJacksonConverter(objectMapper, header);
+    }
+}
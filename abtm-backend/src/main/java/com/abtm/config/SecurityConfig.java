@@ -0,0 +1,137 @@
+package com.abtm.config;
+
+import com.abtm.model.User;
+import com.abtm.security.JwtAuthenticationFilter;
+import com.abtm.security.JwtTokenService;
+import com.abtm.security.RateLimitFilter;
+import com.abtm.security.RateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+
+import java.util.Arrays;
+
+/**
+ * Security Configuration for Spring Security
+ * 
+ * Stateless JWT authentication (JwtAuthenticationFilter). With
+ * abtm.security.require-authentication=false (development default) every
+ * request is still permitted, but tokens that are sent are verified.
+ * Staff endpoints (cohort reports, user import) always require the INSTRUCTOR role.
+ */
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+    
+    @Autowired
+    private JwtTokenService tokenService;
+    
+    @Autowired
+    private RateLimiter rateLimiter;
+    
+    @Value("${abtm.security.require-authentication:false}")
+    private boolean requireAuthentication;
+    
+    @Value("${abtm.rate-limit.client-ip-header:}")
+    private String clientIpHeader;
+    
+    @Value("${abtm.rate-limit.trusted-proxies:1}")
+    private int trustedProxies;
+    
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        http
+            // Disable CSRF for stateless API
+            .csrf().disable()
+            
+            // Configure CORS
+            .cors().and()
+            
+            // Configure session management - stateless for REST API
+            .sessionManagement()
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                .and()
+            
+            // Verify bearer tokens; unauthenticated requests get 401, not a login redirect
+            .addFilterBefore(new JwtAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
+            
+            // Rate limits, per user when the token identifies one
+            .addFilterAfter(new RateLimitFilter(rateLimiter, clientIpHeader, trustedProxies), JwtAuthenticationFilter.class)
+            .exceptionHandling()
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                .and()
+            
+            // Configure authorization
+            .authorizeHttpRequests(authz -> {
+                // Staff endpoints, regardless of abtm.security.require-authentication
+                authz.antMatchers("/api/reports/**", "/api/users/import").hasRole(User.Role.INSTRUCTOR.name());
+                
+                // Public endpoints (no authentication required)
+                authz.antMatchers(HttpMethod.POST,
+                        "/api/scenarios/analyze",   // Quick scenario analysis
+                        "/api/scenarios/live/*",    // Live analysis input (session id from the stream)
+                        "/api/users/register",      // User registration
+                        "/api/users/login"          // User login
+                ).permitAll()
+                .antMatchers(HttpMethod.GET,
+                        "/api/modules/**",          // View modules and module details
+                        "/api/users/availability",  // Signup form availability checks
+                        "/api/scenarios/live"       // Live analysis stream
+                ).permitAll()
+                .antMatchers(HttpMethod.OPTIONS, "/**").permitAll();
+                
+                // All other endpoints require authentication
+                if (requireAuthentication) {
+                    authz.anyRequest().authenticated();
+                } else {
+                    authz.anyRequest().permitAll();
+                }
+            });
+        
+        return http.build();
+    }
+    
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        
+        // Allow requests from frontend (adjust for production)
+        configuration.setAllowedOrigins(Arrays.asList(
+            "http://localhost:3000",     // React development server
+            "http://localhost:4200",     // Angular development server
+            "http://localhost:8081"      // Alternative frontend port
+        ));
+        
+        // Allow all HTTP methods
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        
+        // Allow all headers
+        configuration.setAllowedHeaders(Arrays.asList("*"));
+        
+        // Allow credentials (cookies, authorization headers)
+        configuration.setAllowCredentials(true);
+        
+        // Expose authorization header
+        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        
+        // Max age for preflight requests (24 hours)
+        configuration.setMaxAge(86400L);
+        
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        
+        return source;
+    }
+}
@@ -0,0 +1,71 @@
+package com.abtm.config;
+
+import com.abtm.monitoring.ObservedDataSource;
+import com.abtm.monitoring.SqlStatistics;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * Configuration for per-request SQL statistics
+ *
+ * Wraps the DataSource so every statement executed, through Hibernate or
+ * JdbcTemplate, is counted against the current request, and hooks Hibernate
+ * to count entity loads and lazy collection fetches (see SqlStatistics).
+ * Enabled with abtm.sql-stats.enabled=true; no hooks are installed otherwise.
+ */
+@Configuration
+@ConditionalOnProperty(name = "abtm.sql-stats.enabled", havingValue = "true")
+public class SqlStatisticsConfig {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Count statement executions at the JDBC level (static: applies to the DataSource bean)
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatementCounter() {
+        ObservedDataSource.Listener counter = new ObservedDataSource.Listener() {
+            @Override
+            public void executionStarted() {
+                SqlStatistics.statementExecuted();
+            }
+
+            @Override
+            public void executionEnded() {
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? ObservedDataSource.wrap((DataSource) bean, counter) : bean;
+            }
+        };
+    }
+
+    /**
+     * Count entity loads and collection initializations
+     */
+    @PostConstruct
+    public void registerListeners() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_LOAD,
+            (PostLoadEventListener) event -> SqlStatistics.entityLoaded());
+        registry.appendListeners(EventType.INIT_COLLECTION,
+            (InitializeCollectionEventListener) event -> SqlStatistics.collectionFetched());
+    }
+}
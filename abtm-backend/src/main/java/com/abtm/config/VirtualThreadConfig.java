@@ -0,0 +1,40 @@
+package com.abtm.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in virtual-thread request execution (abtm.threads.virtual=true)
+ *
+ * Tomcat hands each request to a new virtual thread instead of its pool of
+ * server.tomcat.threads.max platform threads, so requests waiting on the
+ * database no longer cap concurrency; the connection pool becomes the
+ * limit on concurrent database work. The scenario event listeners run on
+ * virtual threads too (see AsyncConfig). Password hashing keeps its bounded
+ * platform pool: it is CPU work, and its queue limit is what turns a login
+ * storm into 429s. On a JVM older than 21 the setting is logged and ignored.
+ */
+@Configuration
+@ConditionalOnProperty(name = "abtm.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (!VirtualThreads.isSupported()) {
+                log.warn("abtm.threads.virtual=true but Java {} has no virtual threads; using the platform thread pool",
+                    System.getProperty("java.version"));
+                return;
+            }
+            protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("http-virtual-"));
+            log.info("Requests run on virtual threads");
+        };
+    }
+}
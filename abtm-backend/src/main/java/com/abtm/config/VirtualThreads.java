@@ -0,0 +1,66 @@
+package com.abtm.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual threads (Java 21+) for a build that targets Java 11
+ *
+ * The Thread.ofVirtual() builder is reached through reflection so the same
+ * JAR runs on both; isSupported() tells whether the current JVM has them.
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = method(Thread.class, "ofVirtual");
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Factory of virtual threads named prefix0, prefix1, ...
+     */
+    public static ThreadFactory factory(String prefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later, running "
+                + System.getProperty("java.version"));
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = ofVirtual.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual thread factory", e);
+        }
+    }
+
+    /**
+     * Executor starting one new virtual thread per task
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        Method newThreadPerTask = method(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+        if (newThreadPerTask == null) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later, running "
+                + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) newThreadPerTask.invoke(null, factory(prefix));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameters) {
+        try {
+            return type.getMethod(name, parameters);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.abtm.config;
+
+import com.abtm.service.AnalysisBulkhead;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Configuration for Spring MVC request handling
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AnalysisBulkhead analysisBulkhead;
+
+    /**
+     * Shed analysis requests while the analysis pool is overloaded, before
+     * their (possibly large) body is read and parsed
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                    throws Exception {
+                if (analysisBulkhead.isOverloaded()) {
+                    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                    response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Analysis is overloaded, retry shortly");
+                    return false;
+                }
+                return true;
+            }
+        }).addPathPatterns("/api/scenarios/analyze", "/api/scenarios/submit", "/api/scenarios/*/reanalyze");
+    }
+}
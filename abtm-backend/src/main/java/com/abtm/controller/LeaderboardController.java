@@ -0,0 +1,80 @@
+package com.abtm.controller;
+
+import com.abtm.monitoring.SqlBudget;
+import com.abtm.service.Leaderboard;
+import com.abtm.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/leaderboards")
+@CrossOrigin(origins = "*")
+public class LeaderboardController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    /**
+     * Top users of a module (sum of best SQS per exercise)
+     */
+    @GetMapping("/modules/{moduleId}")
+    @SqlBudget(0)
+    public ResponseEntity<?> getModuleLeaderboard(@PathVariable Long moduleId,
+                                                  @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(top(leaderboardService.getModuleBoard(moduleId), "moduleId", moduleId, limit));
+    }
+
+    /**
+     * A user's rank in a module
+     */
+    @GetMapping("/modules/{moduleId}/users/{userId}")
+    @SqlBudget(0)
+    public ResponseEntity<?> getModuleRank(@PathVariable Long moduleId, @PathVariable Long userId) {
+        return standing(leaderboardService.getModuleBoard(moduleId), userId);
+    }
+
+    /**
+     * Top users of an exercise (best SQS)
+     */
+    @GetMapping("/exercises/{exerciseId}")
+    @SqlBudget(0)
+    public ResponseEntity<?> getExerciseLeaderboard(@PathVariable Long exerciseId,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(top(leaderboardService.getExerciseBoard(exerciseId), "exerciseId", exerciseId, limit));
+    }
+
+    /**
+     * A user's rank on an exercise
+     */
+    @GetMapping("/exercises/{exerciseId}/users/{userId}")
+    @SqlBudget(0)
+    public ResponseEntity<?> getExerciseRank(@PathVariable Long exerciseId, @PathVariable Long userId) {
+        return standing(leaderboardService.getExerciseBoard(exerciseId), userId);
+    }
+
+    private Map<String, Object> top(Leaderboard board, String idName, Long id, int limit) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put(idName, id);
+        response.put("rankedUsers", board.size());
+        response.put("entries", board.top(Math.max(0, Math.min(limit, MAX_LIMIT))));
+        return response;
+    }
+
+    private ResponseEntity<?> standing(Leaderboard board, Long userId) {
+        Leaderboard.Standing standing = board.getStanding(userId);
+        if (standing == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("rank", standing.getRank());
+        response.put("score", standing.getScore());
+        response.put("rankedUsers", board.size());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,8 +1,11 @@
 package com.abtm.controller;
 
+import com.abtm.dto.ExerciseResponse;
+import com.abtm.dto.ModuleResponse;
 import com.abtm.model.Exercise;
 import com.abtm.model.Module;
 import com.abtm.model.User;
+import com.abtm.monitoring.SqlBudget;
 import com.abtm.service.ModuleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -10,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/modules")
@@ -23,10 +27,11 @@ public class ModuleController {
      * Get all modules
      */
     @GetMapping
-    public ResponseEntity<List<Module>> getAllModules() {
+    @SqlBudget(1)
+    public ResponseEntity<List<ModuleResponse>> getAllModules() {
         try {
             List<Module> modules = moduleService.getActiveModules();
-            return ResponseEntity.ok(modules);
+            return ResponseEntity.ok(modules.stream().map(ModuleResponse::from).collect(Collectors.toList()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -36,11 +41,12 @@ public class ModuleController {
      * Get module by ID
      */
     @GetMapping("/{id}")
+    @SqlBudget(1)
     public ResponseEntity<?> getModuleById(@PathVariable Long id) {
         try {
             Module module = moduleService.getModuleById(id);
             if (module != null) {
-                return ResponseEntity.ok(module);
+                return ResponseEntity.ok(ModuleResponse.from(module));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -54,11 +60,12 @@ public class ModuleController {
      * Get module by number
      */
     @GetMapping("/number/{moduleNumber}")
+    @SqlBudget(1)
     public ResponseEntity<?> getModuleByNumber(@PathVariable Integer moduleNumber) {
         try {
             Module module = moduleService.getModuleByNumber(moduleNumber);
             if (module != null) {
-                return ResponseEntity.ok(module);
+                return ResponseEntity.ok(ModuleResponse.from(module));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -72,6 +79,7 @@ public class ModuleController {
      * Get exercises for module (with optional role filter)
      */
     @GetMapping("/{id}/exercises")
+    @SqlBudget(2)
     public ResponseEntity<?> getModuleExercises(
             @PathVariable Long id,
             @RequestParam(required = false) String role) {
@@ -83,7 +91,7 @@ public class ModuleController {
             } else {
                 exercises = moduleService.getModuleExercises(id);
             }
-            return ResponseEntity.ok(exercises);
+            return ResponseEntity.ok(toResponses(exercises));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid role: " + role);
         } catch (Exception e) {
@@ -96,11 +104,12 @@ public class ModuleController {
      * Get exercise by ID
      */
     @GetMapping("/exercises/{exerciseId}")
+    @SqlBudget(2)
     public ResponseEntity<?> getExerciseById(@PathVariable Long exerciseId) {
         try {
             Exercise exercise = moduleService.getExerciseById(exerciseId);
             if (exercise != null) {
-                return ResponseEntity.ok(exercise);
+                return ResponseEntity.ok(ExerciseResponse.from(exercise));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -114,13 +123,14 @@ public class ModuleController {
      * Get exercises by difficulty
      */
     @GetMapping("/{id}/exercises/difficulty/{difficulty}")
+    @SqlBudget(2)
     public ResponseEntity<?> getExercisesByDifficulty(
             @PathVariable Long id,
             @PathVariable String difficulty) {
         try {
             Exercise.DifficultyLevel level = Exercise.DifficultyLevel.valueOf(difficulty.toUpperCase());
             List<Exercise> exercises = moduleService.getExercisesByDifficulty(id, level);
-            return ResponseEntity.ok(exercises);
+            return ResponseEntity.ok(toResponses(exercises));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid difficulty: " + difficulty);
         } catch (Exception e) {
@@ -133,6 +143,7 @@ public class ModuleController {
      * Create new module
      */
     @PostMapping
+    @SqlBudget(1)
     public ResponseEntity<?> createModule(
             @RequestParam String title,
             @RequestParam String description,
@@ -140,7 +151,7 @@ public class ModuleController {
             @RequestParam Integer moduleOrder) {
         try {
             Module module = moduleService.createModule(title, description, estimatedHours, moduleOrder);
-            return ResponseEntity.status(HttpStatus.CREATED).body(module);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ModuleResponse.from(module));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error: " + e.getMessage());
@@ -151,6 +162,7 @@ public class ModuleController {
      * Create new exercise
      */
     @PostMapping("/{moduleId}/exercises")
+    @SqlBudget(3)
     public ResponseEntity<?> createExercise(
             @PathVariable Long moduleId,
             @RequestParam String title,
@@ -164,7 +176,7 @@ public class ModuleController {
 
             Exercise exercise = moduleService.createExercise(
                 moduleId, title, description, userStory, difficultyLevel, role);
-            return ResponseEntity.status(HttpStatus.CREATED).body(exercise);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ExerciseResponse.from(exercise));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid difficulty or role");
         } catch (RuntimeException e) {
@@ -179,6 +191,7 @@ public class ModuleController {
      * Update module
      */
     @PutMapping("/{id}")
+    @SqlBudget(2)
     public ResponseEntity<?> updateModule(
             @PathVariable Long id,
             @RequestParam(required = false) String title,
@@ -188,7 +201,7 @@ public class ModuleController {
         try {
             Module module = moduleService.updateModule(id, title, description, estimatedHours, passingScore);
             if (module != null) {
-                return ResponseEntity.ok(module);
+                return ResponseEntity.ok(ModuleResponse.from(module));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -202,6 +215,7 @@ public class ModuleController {
      * Update exercise
      */
     @PutMapping("/exercises/{exerciseId}")
+    @SqlBudget(3)
     public ResponseEntity<?> updateExercise(
             @PathVariable Long exerciseId,
             @RequestParam(required = false) String title,
@@ -212,7 +226,7 @@ public class ModuleController {
             Exercise exercise = moduleService.updateExercise(
                 exerciseId, title, description, userStory, sampleSolution);
             if (exercise != null) {
-                return ResponseEntity.ok(exercise);
+                return ResponseEntity.ok(ExerciseResponse.from(exercise));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -226,11 +240,12 @@ public class ModuleController {
      * Activate module
      */
     @PutMapping("/{id}/activate")
+    @SqlBudget(2)
     public ResponseEntity<?> activateModule(@PathVariable Long id) {
         try {
             Module module = moduleService.activateModule(id);
             if (module != null) {
-                return ResponseEntity.ok(module);
+                return ResponseEntity.ok(ModuleResponse.from(module));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -244,11 +259,12 @@ public class ModuleController {
      * Deactivate module
      */
     @PutMapping("/{id}/deactivate")
+    @SqlBudget(2)
     public ResponseEntity<?> deactivateModule(@PathVariable Long id) {
         try {
             Module module = moduleService.deactivateModule(id);
             if (module != null) {
-                return ResponseEntity.ok(module);
+                return ResponseEntity.ok(ModuleResponse.from(module));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -262,6 +278,7 @@ public class ModuleController {
      * Delete module
      */
     @DeleteMapping("/{id}")
+    @SqlBudget(3)
     public ResponseEntity<?> deleteModule(@PathVariable Long id) {
         try {
             boolean deleted = moduleService.deleteModule(id);
@@ -280,6 +297,7 @@ public class ModuleController {
      * Delete exercise
      */
     @DeleteMapping("/exercises/{exerciseId}")
+    @SqlBudget(3)
     public ResponseEntity<?> deleteExercise(@PathVariable Long exerciseId) {
         try {
             boolean deleted = moduleService.deleteExercise(exerciseId);
@@ -293,4 +311,8 @@ public class ModuleController {
                 .body("Error: " + e.getMessage());
         }
     }
+
+    private static List<ExerciseResponse> toResponses(List<Exercise> exercises) {
+        return exercises.stream().map(ExerciseResponse::from).collect(Collectors.toList());
+    }
 }
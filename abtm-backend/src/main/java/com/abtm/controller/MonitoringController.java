@@ -0,0 +1,227 @@
+package com.abtm.controller;
+
+import com.abtm.cluster.CacheInvalidationBus;
+import com.abtm.config.AsyncConfig;
+import com.abtm.event.ScenarioEventReconciler;
+import com.abtm.monitoring.ListenerMetrics;
+import com.abtm.monitoring.SqlBudget;
+import com.abtm.monitoring.jfr.FlightRecordings;
+import com.abtm.security.JwtTokenService;
+import com.abtm.security.RateLimiter;
+import com.abtm.service.AnalysisBulkhead;
+import com.abtm.service.IdempotencyStore;
+import com.abtm.service.LiveAnalysisService;
+import com.abtm.service.PasswordHashingService;
+import com.abtm.service.ReviewQueueService;
+import com.abtm.service.UserAvailabilityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/monitoring")
+@CrossOrigin(origins = "*")
+public class MonitoringController {
+
+    @Autowired
+    private ListenerMetrics listenerMetrics;
+
+    @Autowired
+    @Qualifier(AsyncConfig.SCENARIO_EVENT_EXECUTOR)
+    private ThreadPoolTaskExecutor scenarioEventExecutor;
+
+    @Autowired
+    private ReviewQueueService reviewQueueService;
+
+    @Autowired
+    private JwtTokenService tokenService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private UserAvailabilityService availabilityService;
+
+    @Autowired
+    private LiveAnalysisService liveAnalysisService;
+
+    @Autowired
+    private FlightRecordings flightRecordings;
+
+    @Autowired
+    private AnalysisBulkhead analysisBulkhead;
+
+    @Autowired
+    private CacheInvalidationBus cacheBus;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ScenarioEventReconciler eventReconciler;
+
+    /**
+     * Per-listener metrics of the scenario event listeners and their executor backlog
+     */
+    @GetMapping("/event-listeners")
+    @SqlBudget(0)
+    public ResponseEntity<?> getEventListeners() {
+        Map<String, Object> executor = new LinkedHashMap<>();
+        executor.put("threads", scenarioEventExecutor.getPoolSize());
+        executor.put("active", scenarioEventExecutor.getActiveCount());
+        executor.put("queued", scenarioEventExecutor.getThreadPoolExecutor().getQueue().size());
+        executor.put("completed", scenarioEventExecutor.getThreadPoolExecutor().getCompletedTaskCount());
+        executor.put("rejected", listenerMetrics.getRejected());
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("executor", executor);
+        response.put("listeners", listenerMetrics.snapshot());
+        response.put("lastReconciliation", eventReconciler.getLastRun());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Summary of the last review queue batch run
+     */
+    @GetMapping("/review-queue")
+    @SqlBudget(0)
+    public ResponseEntity<?> getReviewQueueRun() {
+        Map<String, Object> lastRun = reviewQueueService.getLastRun();
+        if (lastRun == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(lastRun);
+    }
+
+    /**
+     * Validated-token cache hit rate and deny-list size
+     */
+    @GetMapping("/token-cache")
+    @SqlBudget(0)
+    public ResponseEntity<?> getTokenCache() {
+        return ResponseEntity.ok(tokenService.getCacheStats());
+    }
+
+    /**
+     * Password hashing pool: queue depth, rejections, hash and wait times
+     */
+    @GetMapping("/password-hashing")
+    @SqlBudget(0)
+    public ResponseEntity<?> getPasswordHashing() {
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
+
+    /**
+     * Allowed and limited requests per rate-limited endpoint
+     */
+    @GetMapping("/rate-limits")
+    @SqlBudget(0)
+    public ResponseEntity<?> getRateLimits() {
+        return ResponseEntity.ok(rateLimiter.getStats());
+    }
+
+    /**
+     * Availability checks answered by the Bloom filters vs. the database, and false positives
+     */
+    @GetMapping("/availability")
+    @SqlBudget(0)
+    public ResponseEntity<?> getAvailability() {
+        return ResponseEntity.ok(availabilityService.getStats());
+    }
+
+    /**
+     * Live analysis sessions: inputs, analyses run, and work skipped as superseded or unchanged
+     */
+    @GetMapping("/live-analysis")
+    @SqlBudget(0)
+    public ResponseEntity<?> getLiveAnalysis() {
+        return ResponseEntity.ok(liveAnalysisService.getStats());
+    }
+
+    /**
+     * Analysis pool: occupancy, requests shed by reason, analysis and queue times
+     */
+    @GetMapping("/analysis")
+    @SqlBudget(0)
+    public ResponseEntity<?> getAnalysis() {
+        return ResponseEntity.ok(analysisBulkhead.getStats());
+    }
+
+    /**
+     * Idempotency keys: kept results, repeats answered from them, waits and conflicts
+     */
+    @GetMapping("/idempotency")
+    @SqlBudget(0)
+    public ResponseEntity<?> getIdempotency() {
+        return ResponseEntity.ok(idempotencyStore.getStats());
+    }
+
+    /**
+     * Cache invalidation bus: connection, applied version, changes published, applied and replayed
+     */
+    @GetMapping("/cache-bus")
+    @SqlBudget(0)
+    public ResponseEntity<?> getCacheBus() {
+        return ResponseEntity.ok(cacheBus.getStats());
+    }
+
+    /**
+     * Flight recording state and the latest streamed events (404 unless abtm.jfr.endpoints.enabled)
+     */
+    @GetMapping("/jfr")
+    @SqlBudget(0)
+    public ResponseEntity<?> getFlightRecording(@RequestParam(required = false) String type,
+                                                @RequestParam(defaultValue = "100") int limit) {
+        if (!flightRecordings.isEndpointsEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> response = flightRecordings.getStatus();
+        response.put("events", flightRecordings.getRecentEvents(type, limit));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Start a bounded flight recording ("default" or "profile" settings)
+     */
+    @PostMapping("/jfr/start")
+    @SqlBudget(0)
+    public ResponseEntity<?> startFlightRecording(@RequestParam(required = false) String settings) {
+        if (!flightRecordings.isEndpointsEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(flightRecordings.start(settings));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IOException | ParseException e) {
+            return ResponseEntity.badRequest().body("Unknown or unreadable settings: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the flight recording and write it to its file
+     */
+    @PostMapping("/jfr/stop")
+    @SqlBudget(0)
+    public ResponseEntity<?> stopFlightRecording() {
+        if (!flightRecordings.isEndpointsEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(flightRecordings.stop());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.abtm.controller;
+
+import com.abtm.model.User;
+import com.abtm.monitoring.SqlBudget;
+import com.abtm.service.CohortReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    @Autowired
+    private CohortReportService cohortReportService;
+
+    /**
+     * Cohort progress per student and module, streamed as JSON
+     *
+     * The cohort is every user matching all given filters (all users when none is given);
+     * registeredFrom and registeredTo are inclusive dates.
+     */
+    @GetMapping("/cohort")
+    @SqlBudget(2)
+    public void getCohortReport(@RequestParam(required = false) List<Long> userIds,
+                                @RequestParam(required = false) String role,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredFrom,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredTo,
+                                HttpServletResponse response) throws IOException {
+        User.Role cohortRole = null;
+        if (role != null) {
+            try {
+                cohortRole = User.Role.valueOf(role.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown role: " + role);
+                return;
+            }
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        cohortReportService.writeReport(userIds, cohortRole,
+            registeredFrom != null ? registeredFrom.atStartOfDay() : null,
+            registeredTo != null ? registeredTo.plusDays(1).atStartOfDay() : null,
+            response.getOutputStream());
+    }
+}
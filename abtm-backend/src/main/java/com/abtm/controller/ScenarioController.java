@@ -0,0 +1,348 @@
+package com.abtm.controller;
+
+import com.abtm.analyzer.ScenarioAnalyzer;
+import com.abtm.dto.LiveAnalysisRequest;
+import com.abtm.dto.ScenarioAnalyzeRequest;
+import com.abtm.dto.ScenarioResponse;
+import com.abtm.dto.ScenarioStatisticsResponse;
+import com.abtm.dto.ScenarioSubmitRequest;
+import com.abtm.model.Scenario;
+import com.abtm.monitoring.SqlBudget;
+import com.abtm.security.AuthenticatedUser;
+import com.abtm.security.UserAccess;
+import com.abtm.service.AnalysisBulkhead;
+import com.abtm.service.AnalysisRejectedException;
+import com.abtm.service.IdempotencyConflictException;
+import com.abtm.service.IdempotencyStore;
+import com.abtm.service.LiveAnalysisService;
+import com.abtm.service.NotFoundException;
+import com.abtm.service.ScenarioService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/scenarios")
+@CrossOrigin(origins = "*")
+public class ScenarioController {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    @Autowired
+    private ScenarioService scenarioService;
+
+    @Autowired
+    private AnalysisBulkhead analysisBulkhead;
+
+    @Autowired
+    private LiveAnalysisService liveAnalysisService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    /**
+     * Submit a scenario for analysis
+     *
+     * With an Idempotency-Key header, a retry of the same submission gets the
+     * original response (marked Idempotent-Replayed: true) instead of being
+     * analyzed and saved again; a retry sent while the original is still
+     * running waits for it.
+     */
+    @PostMapping("/submit")
+    @SqlBudget(5)
+    public ResponseEntity<?> submitScenario(@Valid @RequestBody ScenarioSubmitRequest request, BindingResult errors,
+                                            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                String idempotencyKey,
+                                            @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (errors.hasErrors()) {
+            return ValidationErrors.badRequest(errors);
+        }
+        if (!UserAccess.allows(principal, request.getUserId())) {
+            return forbidden();
+        }
+        if (idempotencyKey == null) {
+            return submit(request, null);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                .body(IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        try {
+            // Keys are scoped to the acting user: the token's when there is one
+            Long actingUserId = principal != null ? principal.getUserId() : request.getUserId();
+            IdempotencyStore.Result<ResponseEntity<?>> result = idempotencyStore.execute(
+                "submit:" + actingUserId + ":" + idempotencyKey,
+                IdempotencyStore.fingerprint(request.getUserId(), request.getExerciseId(), request.getContent()),
+                () -> submit(request, idempotencyKey),
+                // Failures may be transient; the retry runs again
+                response -> !response.getStatusCode().is5xxServerError());
+            if (result.isReplayed()) {
+                return ResponseEntity.status(result.getValue().getStatusCode())
+                    .headers(result.getValue().getHeaders())
+                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                    .body(result.getValue().getBody());
+            }
+            return result.getValue();
+        } catch (IdempotencyConflictException e) {
+            return ResponseEntity.status(e.isInProgress() ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> submit(ScenarioSubmitRequest request, String idempotencyKey) {
+        try {
+            // Analyze the scenario
+            ScenarioAnalyzer.AnalysisResult analysisResult = analysisBulkhead.analyze(request.getContent());
+
+            // Save the scenario with analysis
+            Scenario scenario;
+            try {
+                scenario = scenarioService.saveScenario(request.getUserId(), request.getExerciseId(),
+                    request.getContent(), analysisResult, idempotencyKey);
+            } catch (DataIntegrityViolationException e) {
+                // The same key was saved concurrently (by another node)
+                scenario = idempotencyKey != null
+                    ? scenarioService.getScenarioByIdempotencyKey(request.getUserId(), idempotencyKey) : null;
+                if (scenario == null) {
+                    throw e;
+                }
+            }
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(ScenarioResponse.from(scenario));
+        } catch (AnalysisRejectedException e) {
+            return serviceUnavailable(e);
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            // 5xx: not kept by the idempotency store, so a retry runs again
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Analyze scenario without saving (preview mode)
+     */
+    @PostMapping("/analyze")
+    @SqlBudget(0)
+    public ResponseEntity<?> analyzeScenario(@Valid @RequestBody ScenarioAnalyzeRequest request, BindingResult errors) {
+        if (errors.hasErrors()) {
+            return ValidationErrors.badRequest(errors);
+        }
+        try {
+            ScenarioAnalyzer.AnalysisResult result = analysisBulkhead.analyze(request.getContent());
+            return ResponseEntity.ok(result);
+        } catch (AnalysisRejectedException e) {
+            return serviceUnavailable(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Open a live analysis stream (Server-Sent Events); the first event carries the session id
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @SqlBudget(0)
+    public ResponseEntity<SseEmitter> openLiveAnalysis() {
+        SseEmitter emitter = liveAnalysisService.open();
+        if (emitter == null) {
+            // Too many open sessions
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Send the current editor text to a live analysis session; results arrive on its stream
+     */
+    @PostMapping("/live/{sessionId}")
+    @SqlBudget(0)
+    public ResponseEntity<?> updateLiveAnalysis(@PathVariable String sessionId,
+                                                @Valid @RequestBody LiveAnalysisRequest request,
+                                                BindingResult errors) {
+        if (errors.hasErrors()) {
+            return ValidationErrors.badRequest(errors);
+        }
+        boolean accepted = liveAnalysisService.update(sessionId, request.getContent(), request.getVersion());
+        if (!accepted) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Live analysis session not found");
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Get all scenarios for a user
+     */
+    @GetMapping("/user/{userId}")
+    @SqlBudget(2)
+    public ResponseEntity<?> getUserScenarios(@PathVariable Long userId,
+                                              @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!UserAccess.allows(principal, userId)) {
+            return forbidden();
+        }
+        try {
+            List<Scenario> scenarios = scenarioService.getUserScenarios(userId);
+            return ResponseEntity.ok(toResponses(scenarios));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get user statistics
+     */
+    @GetMapping("/user/{userId}/statistics")
+    @SqlBudget(7)
+    public ResponseEntity<?> getUserStatistics(@PathVariable Long userId,
+                                               @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!UserAccess.allows(principal, userId)) {
+            return forbidden();
+        }
+        try {
+            ScenarioStatisticsResponse statistics = scenarioService.getUserStatistics(userId);
+            return ResponseEntity.ok(statistics);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get scenarios for a specific exercise (with a token, only the user's own)
+     */
+    @GetMapping("/exercise/{exerciseId}")
+    @SqlBudget(2)
+    public ResponseEntity<?> getExerciseScenarios(@PathVariable Long exerciseId,
+                                                  @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            List<Scenario> scenarios = scenarioService.getExerciseScenarios(exerciseId, UserAccess.ownerOf(principal));
+            return ResponseEntity.ok(toResponses(scenarios));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get user's scenarios for a specific exercise
+     */
+    @GetMapping("/user/{userId}/exercise/{exerciseId}")
+    @SqlBudget(3)
+    public ResponseEntity<?> getUserExerciseScenarios(
+            @PathVariable Long userId,
+            @PathVariable Long exerciseId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!UserAccess.allows(principal, userId)) {
+            return forbidden();
+        }
+        try {
+            List<Scenario> scenarios = scenarioService.getUserExerciseScenarios(userId, exerciseId);
+            return ResponseEntity.ok(toResponses(scenarios));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get scenario by ID (another user's is not found)
+     */
+    @GetMapping("/{id}")
+    @SqlBudget(1)
+    public ResponseEntity<?> getScenarioById(@PathVariable Long id,
+                                             @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            Scenario scenario = scenarioService.getScenarioById(id);
+            if (scenario != null && ScenarioService.isOwnedBy(scenario, UserAccess.ownerOf(principal))) {
+                return ResponseEntity.ok(ScenarioResponse.from(scenario));
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reanalyze an existing scenario (another user's is not found)
+     */
+    @PostMapping("/{id}/reanalyze")
+    @SqlBudget(2)
+    public ResponseEntity<?> reanalyzeScenario(@PathVariable Long id,
+                                               @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            Scenario scenario = scenarioService.reanalyzeScenario(id, UserAccess.ownerOf(principal));
+            return ResponseEntity.ok(ScenarioResponse.from(scenario));
+        } catch (AnalysisRejectedException e) {
+            return serviceUnavailable(e);
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete scenario (another user's is not found)
+     */
+    @DeleteMapping("/{id}")
+    @SqlBudget(4)
+    public ResponseEntity<?> deleteScenario(@PathVariable Long id,
+                                            @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            boolean deleted = scenarioService.deleteScenario(id, UserAccess.ownerOf(principal));
+            if (deleted) {
+                return ResponseEntity.ok("Scenario deleted successfully");
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    // A token acting on another user's data
+    private static ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access to another user's data is not allowed");
+    }
+
+    // Analysis pool saturated: shed the request fast instead of letting it queue past its deadline
+    private static ResponseEntity<?> serviceUnavailable(AnalysisRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(e.getMessage());
+    }
+
+    private static List<ScenarioResponse> toResponses(List<Scenario> scenarios) {
+        return scenarios.stream().map(ScenarioResponse::from).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,329 @@
+package com.abtm.controller;
+
+import com.abtm.cluster.CacheChange;
+import com.abtm.cluster.CacheInvalidationBus;
+import com.abtm.dto.AvailabilityResponse;
+import com.abtm.dto.LoginRequest;
+import com.abtm.dto.LoginResponse;
+import com.abtm.dto.RegisterRequest;
+import com.abtm.dto.UserResponse;
+import com.abtm.dto.UserStatisticsResponse;
+import com.abtm.dto.UserUpdateRequest;
+import com.abtm.model.User;
+import com.abtm.monitoring.SqlBudget;
+import com.abtm.security.AuthenticatedUser;
+import com.abtm.security.JwtTokenService;
+import com.abtm.security.TokenDenyList;
+import com.abtm.security.UserAccess;
+import com.abtm.service.PasswordHashingRejectedException;
+import com.abtm.service.ReviewQueueService;
+import com.abtm.service.SkillProfileService;
+import com.abtm.service.UserAvailabilityService;
+import com.abtm.service.UserImportService;
+import com.abtm.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "*")
+public class UserController {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SkillProfileService skillProfileService;
+
+    @Autowired
+    private ReviewQueueService reviewQueueService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserAvailabilityService availabilityService;
+
+    @Autowired
+    private JwtTokenService tokenService;
+
+    @Autowired
+    private TokenDenyList denyList;
+
+    @Autowired
+    private CacheInvalidationBus cacheBus;
+
+    /**
+     * User registration
+     */
+    @PostMapping("/register")
+    @SqlBudget(3)
+    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request, BindingResult errors) {
+        if (errors.hasErrors()) {
+            return ValidationErrors.badRequest(errors);
+        }
+        User.Role role;
+        try {
+            role = User.Role.valueOf(request.getRole().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unknown role");
+        }
+        if (!role.isLearner()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Instructor accounts cannot be self-registered");
+        }
+        try {
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setPassword(request.getPassword()); // Hashed by UserService
+            user.setEmail(request.getEmail());
+            user.setFullName(request.getFullName());
+            user.setRole(role);
+
+            User savedUser = userService.registerUser(user);
+            return ResponseEntity.ok(UserResponse.from(savedUser));
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Registration failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Whether a username and/or email can still be registered (for live signup form checks)
+     */
+    @GetMapping("/availability")
+    @SqlBudget(2)
+    public ResponseEntity<?> checkAvailability(@RequestParam(required = false) String username,
+                                               @RequestParam(required = false) String email) {
+        if (username == null && email == null) {
+            return ResponseEntity.badRequest().body("username or email is required");
+        }
+        Boolean usernameAvailable = username != null ? !availabilityService.isUsernameTaken(username) : null;
+        Boolean emailAvailable = email != null ? !availabilityService.isEmailTaken(email) : null;
+        return ResponseEntity.ok(new AvailabilityResponse(username, usernameAvailable, email, emailAvailable));
+    }
+
+    /**
+     * Bulk user import (CSV with a header row, or NDJSON), streamed as it is read;
+     * the JSON response lists each rejected row and the totals
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "application/json"})
+    @SqlBudget(3) // A single batch (abtm.import.batch-size rows); each further batch adds three statements
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            userImportService.importUsers(request.getContentType(), request.getInputStream(), response.getOutputStream());
+        } catch (IllegalStateException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage());
+        }
+    }
+
+    /**
+     * User login
+     */
+    @PostMapping("/login")
+    @SqlBudget(2)
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest credentials, BindingResult errors) {
+        if (errors.hasErrors()) {
+            return ValidationErrors.badRequest(errors);
+        }
+        try {
+            User user = userService.authenticate(credentials.getUsername(), credentials.getPassword());
+
+            if (user != null) {
+                return ResponseEntity.ok(LoginResponse.from(user, tokenService.issueToken(user),
+                    tokenService.getExpirationMillis() / 1000));
+            } else {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+            }
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Login failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Logout: revoke the bearer token of the request
+     */
+    @PostMapping("/logout")
+    @SqlBudget(0)
+    public ResponseEntity<?> logout(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No bearer token");
+        }
+        denyList.revoke(principal);
+        cacheBus.publish(CacheChange.Topic.TOKEN_REVOKED, principal.getTokenId() + ":" + principal.getExpiresAtMillis());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Get user by ID
+     */
+    @GetMapping("/{id}")
+    @SqlBudget(1)
+    public ResponseEntity<?> getUserById(@PathVariable Long id,
+                                         @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!UserAccess.allows(principal, id)) {
+            return forbidden();
+        }
+        try {
+            User user = userService.getUserById(id);
+            if (user != null) {
+                return ResponseEntity.ok(UserResponse.from(user));
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get user statistics
+     */
+    @GetMapping("/{id}/statistics")
+    @SqlBudget(5)
+    public ResponseEntity<?> getUserStatistics(@PathVariable Long id,
+                                               @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!UserAccess.allows(principal, id)) {
+            return forbidden();
+        }
+        try {
+            UserStatisticsResponse stats = userService.getUserStatistics(id);
+            if (stats == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get skill vector and exercises targeting the user's weakest dimensions
+     */
+    @GetMapping("/{id}/recommendations")
+    @SqlBudget(6)
+    public ResponseEntity<?> getRecommendations(@PathVariable Long id,
+                                                @RequestParam(defaultValue = "5") int limit,
+                                                @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!UserAccess.allows(principal, id)) {
+            return forbidden();
+        }
+        try {
+            User user = userService.getUserById(id);
+            if (user == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(skillProfileService.recommendExercises(user, limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get exercises due for review now (precomputed spaced-repetition queue)
+     */
+    @GetMapping("/{id}/review-queue")
+    @SqlBudget(2)
+    public ResponseEntity<?> getReviewQueue(@PathVariable Long id,
+                                            @RequestParam(defaultValue = "5") int limit,
+                                            @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!UserAccess.allows(principal, id)) {
+            return forbidden();
+        }
+        try {
+            User user = userService.getUserById(id);
+            if (user == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(reviewQueueService.getReviewQueue(user, limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Update user
+     */
+    @PutMapping("/{id}")
+    @SqlBudget(3)
+    public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody UserUpdateRequest request,
+                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!UserAccess.allows(principal, id)) {
+            return forbidden();
+        }
+        try {
+            User user = userService.updateUser(id, request.getFullName(), request.getEmail());
+            if (user != null) {
+                return ResponseEntity.ok(UserResponse.from(user));
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Update failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete user
+     */
+    @DeleteMapping("/{id}")
+    @SqlBudget(4)
+    public ResponseEntity<?> deleteUser(@PathVariable Long id,
+                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!UserAccess.allows(principal, id)) {
+            return forbidden();
+        }
+        try {
+            boolean deleted = userService.deleteUser(id);
+            if (deleted) {
+                return ResponseEntity.ok("User deleted successfully");
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Delete failed: " + e.getMessage());
+        }
+    }
+
+    // A token acting on another user's data
+    private static ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access to another user's data is not allowed");
+    }
+
+    // Password hashing pool saturated: ask the client to retry instead of queueing the request
+    private static ResponseEntity<?> tooManyRequests(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(e.getMessage());
+    }
+}
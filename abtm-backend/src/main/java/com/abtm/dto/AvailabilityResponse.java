@@ -0,0 +1,17 @@
+package com.abtm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+/**
+ * Result of GET /api/users/availability; only the values asked about are present
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponse {
+
+    String username;
+    Boolean usernameAvailable;
+    String email;
+    Boolean emailAvailable;
+}
@@ -0,0 +1,30 @@
+package com.abtm.dto;
+
+import com.abtm.model.Exercise;
+import com.abtm.model.User;
+import lombok.Value;
+
+/**
+ * An exercise with its module, as shown to learners (never the sample solution)
+ */
+@Value
+public class ExerciseResponse {
+
+    Long id;
+    ModuleResponse module;
+    String title;
+    String description;
+    String userStory;
+    Integer exerciseOrder;
+    Boolean isActive;
+    Exercise.DifficultyLevel difficulty;
+    User.Role targetRole;
+    Integer expectedScenarios;
+
+    public static ExerciseResponse from(Exercise exercise) {
+        return new ExerciseResponse(exercise.getId(), ModuleResponse.from(exercise.getModule()),
+            exercise.getTitle(), exercise.getDescription(), exercise.getUserStory(), exercise.getExerciseOrder(),
+            exercise.getIsActive(), exercise.getDifficulty(), exercise.getTargetRole(),
+            exercise.getExpectedScenarios());
+    }
+}
@@ -0,0 +1,18 @@
+package com.abtm.dto;
+
+import lombok.Value;
+
+import javax.validation.constraints.Size;
+
+/**
+ * Body of POST /api/scenarios/live/{sessionId}: the current editor text and an optional client revision
+ */
+@Value
+public class LiveAnalysisRequest {
+
+    // Well beyond any feature file; every input is held by its session until analyzed
+    @Size(max = 65536, message = "Content is limited to 65536 characters")
+    String content;
+
+    Long version;
+}
@@ -0,0 +1,20 @@
+package com.abtm.dto;
+
+import lombok.ToString;
+import lombok.Value;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Body of POST /api/users/login
+ */
+@Value
+public class LoginRequest {
+
+    @NotNull(message = "Username and password required")
+    String username;
+
+    @NotNull(message = "Username and password required")
+    @ToString.Exclude
+    String password;
+}
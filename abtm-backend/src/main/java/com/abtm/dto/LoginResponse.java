@@ -0,0 +1,25 @@
+package com.abtm.dto;
+
+import com.abtm.model.User;
+import lombok.Value;
+
+/**
+ * Successful login: the user and a bearer token valid for expiresIn seconds
+ */
+@Value
+public class LoginResponse {
+
+    Long id;
+    String username;
+    String email;
+    String fullName;
+    User.Role role;
+    String token;
+    String tokenType;
+    long expiresIn;
+
+    public static LoginResponse from(User user, String token, long expiresInSeconds) {
+        return new LoginResponse(user.getId(), user.getUsername(), user.getEmail(), user.getFullName(),
+            user.getRole(), token, "Bearer", expiresInSeconds);
+    }
+}
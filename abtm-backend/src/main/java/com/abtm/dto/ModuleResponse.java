@@ -0,0 +1,26 @@
+package com.abtm.dto;
+
+import com.abtm.model.Module;
+import lombok.Value;
+
+/**
+ * A learning module of the catalog
+ */
+@Value
+public class ModuleResponse {
+
+    Long id;
+    String title;
+    String description;
+    Integer moduleOrder;
+    Integer estimatedHours;
+    Double passingScore;
+    String difficulty;
+    Boolean isActive;
+
+    public static ModuleResponse from(Module module) {
+        return new ModuleResponse(module.getId(), module.getTitle(), module.getDescription(),
+            module.getModuleOrder(), module.getEstimatedHours(), module.getPassingScore(), module.getDifficulty(),
+            module.getIsActive());
+    }
+}
@@ -0,0 +1,31 @@
+package com.abtm.dto;
+
+import com.abtm.model.Exercise;
+import com.abtm.model.UserSkill;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Skill vector of a user and the exercises recommended for their weakest dimensions
+ */
+@Value
+public class RecommendationsResponse {
+
+    Long userId;
+    int sampleCount;
+    Map<UserSkill.Dimension, Double> skills;
+    List<UserSkill.Dimension> focusDimensions;
+    List<RecommendedExercise> exercises;
+
+    @Value
+    public static class RecommendedExercise {
+        Long id;
+        String title;
+        Long moduleId;
+        Exercise.DifficultyLevel difficulty;
+        /** Dimension this exercise was picked to train */
+        UserSkill.Dimension trains;
+    }
+}
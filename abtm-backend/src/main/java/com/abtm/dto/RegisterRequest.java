@@ -0,0 +1,29 @@
+package com.abtm.dto;
+
+import lombok.ToString;
+import lombok.Value;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * Body of POST /api/users/register
+ */
+@Value
+public class RegisterRequest {
+
+    @NotBlank(message = "Missing required fields")
+    String username;
+
+    @NotBlank(message = "Missing required fields")
+    @ToString.Exclude
+    String password;
+
+    @NotBlank(message = "Missing required fields")
+    String email;
+
+    String fullName;
+
+    /** User.Role name, case-insensitive */
+    @NotBlank(message = "Missing required fields")
+    String role;
+}
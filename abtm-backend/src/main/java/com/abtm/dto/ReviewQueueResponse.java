@@ -0,0 +1,29 @@
+package com.abtm.dto;
+
+import com.abtm.model.Exercise;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Exercises due for review now, in review order, and when the next one falls due
+ */
+@Value
+public class ReviewQueueResponse {
+
+    Long userId;
+    LocalDateTime computedAt;
+    List<DueExercise> due;
+    LocalDateTime nextDueDate;
+
+    @Value
+    public static class DueExercise {
+        Long exerciseId;
+        String title;
+        Exercise.DifficultyLevel difficulty;
+        Double performanceScore;
+        LocalDateTime lastAttemptDate;
+        LocalDateTime dueDate;
+    }
+}
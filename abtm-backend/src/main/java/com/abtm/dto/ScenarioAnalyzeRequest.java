@@ -0,0 +1,15 @@
+package com.abtm.dto;
+
+import lombok.Value;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * Body of POST /api/scenarios/analyze
+ */
+@Value
+public class ScenarioAnalyzeRequest {
+
+    @NotBlank(message = "Content cannot be empty")
+    String content;
+}
@@ -0,0 +1,67 @@
+package com.abtm.dto;
+
+import com.abtm.model.Exercise;
+import com.abtm.model.Module;
+import com.abtm.model.Scenario;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * A submitted scenario with its scores, the author and a summary of the exercise
+ */
+@Value
+public class ScenarioResponse {
+
+    Long id;
+    UserResponse user;
+    ExerciseSummary exercise;
+    String content;
+    Integer submissionNumber;
+    LocalDateTime submittedAt;
+    Double clarityScore;
+    Double businessValueScore;
+    Double gherkinScore;
+    Double testabilityScore;
+    Double specificityScore;
+    Double duplicationScore;
+    Double overallSqs;
+    String feedback;
+    String detectedAntipatterns;
+    Boolean isAutomationReady;
+    Scenario.ScenarioStatus status;
+
+    public static ScenarioResponse from(Scenario scenario) {
+        return new ScenarioResponse(scenario.getId(), UserResponse.from(scenario.getUser()),
+            ExerciseSummary.from(scenario.getExercise()), scenario.getContent(), scenario.getSubmissionNumber(),
+            scenario.getSubmittedAt(), scenario.getClarityScore(), scenario.getBusinessValueScore(),
+            scenario.getGherkinScore(), scenario.getTestabilityScore(), scenario.getSpecificityScore(),
+            scenario.getDuplicationScore(), scenario.getOverallSqs(), scenario.getFeedback(),
+            scenario.getDetectedAntipatterns(), scenario.getIsAutomationReady(), scenario.getStatus());
+    }
+
+    @Value
+    public static class ExerciseSummary {
+        Long id;
+        String title;
+        Integer exerciseOrder;
+        Exercise.DifficultyLevel difficulty;
+        ModuleSummary module;
+
+        static ExerciseSummary from(Exercise exercise) {
+            return new ExerciseSummary(exercise.getId(), exercise.getTitle(), exercise.getExerciseOrder(),
+                exercise.getDifficulty(), ModuleSummary.from(exercise.getModule()));
+        }
+    }
+
+    @Value
+    public static class ModuleSummary {
+        Long id;
+        String title;
+        Integer moduleOrder;
+
+        static ModuleSummary from(Module module) {
+            return new ModuleSummary(module.getId(), module.getTitle(), module.getModuleOrder());
+        }
+    }
+}
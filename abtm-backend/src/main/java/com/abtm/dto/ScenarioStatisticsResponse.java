@@ -0,0 +1,17 @@
+package com.abtm.dto;
+
+import lombok.Value;
+
+/**
+ * Submission counts by outcome and average SQS of a user
+ */
+@Value
+public class ScenarioStatisticsResponse {
+
+    long totalScenarios;
+    long passedScenarios;
+    long failedScenarios;
+    long needsImprovement;
+    double averageScore;
+    long completedModules;
+}
@@ -0,0 +1,22 @@
+package com.abtm.dto;
+
+import lombok.Value;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Body of POST /api/scenarios/submit
+ */
+@Value
+public class ScenarioSubmitRequest {
+
+    @NotNull(message = "userId is required")
+    Long userId;
+
+    @NotNull(message = "exerciseId is required")
+    Long exerciseId;
+
+    @NotBlank(message = "Content cannot be empty")
+    String content;
+}
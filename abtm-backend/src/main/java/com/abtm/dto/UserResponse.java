@@ -0,0 +1,25 @@
+package com.abtm.dto;
+
+import com.abtm.model.User;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Public view of a user (never the password hash)
+ */
+@Value
+public class UserResponse {
+
+    Long id;
+    String username;
+    String email;
+    String fullName;
+    User.Role role;
+    LocalDateTime createdAt;
+
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getFullName(),
+            user.getRole(), user.getCreatedAt());
+    }
+}
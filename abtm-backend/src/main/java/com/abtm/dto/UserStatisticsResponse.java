@@ -0,0 +1,15 @@
+package com.abtm.dto;
+
+import lombok.Value;
+
+/**
+ * Learning progress of a user across modules and exercises
+ */
+@Value
+public class UserStatisticsResponse {
+
+    long completedModules;
+    long exercisesAttempted;
+    double averageScore;
+    long scenariosSubmitted;
+}
@@ -0,0 +1,14 @@
+package com.abtm.dto;
+
+import lombok.Value;
+
+/**
+ * Body of PUT /api/users/{id}; null fields are left unchanged
+ */
+@Value
+public class UserUpdateRequest {
+
+    String fullName;
+
+    String email;
+}
@@ -0,0 +1,61 @@
+package com.abtm.event;
+
+import com.abtm.monitoring.ListenerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a listener body with retries and records its metrics
+ *
+ * Listeners must be idempotent on scenario id: a retry may follow an
+ * attempt that failed halfway.
+ */
+@Component
+public class ListenerInvoker {
+
+    private static final Logger log = LoggerFactory.getLogger(ListenerInvoker.class);
+
+    @Autowired
+    private ListenerMetrics metrics;
+
+    @Value("${abtm.events.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${abtm.events.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    public void invoke(String listener, ScenarioEvent event, Runnable body) {
+        ListenerMetrics.Stats stats = metrics.of(listener);
+        long start = System.nanoTime();
+        stats.recordLag(start - event.getPublishedNanos());
+
+        long backoff = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                body.run();
+                stats.recordCompletion(System.nanoTime() - start, true);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    stats.recordCompletion(System.nanoTime() - start, false);
+                    log.error("Listener {} gave up on {} after {} attempts", listener, event, attempt, e);
+                    return;
+                }
+                stats.recordRetry();
+                log.warn("Listener {} failed on {} (attempt {}): {}", listener, event, attempt, e.toString());
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stats.recordCompletion(System.nanoTime() - start, false);
+                return;
+            }
+            backoff *= 2;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.abtm.event;
+
+import com.abtm.model.Scenario;
+
+/**
+ * Snapshot of an analyzed scenario, published after the scenario is committed
+ *
+ * Carries ids and scores only, so listeners on other threads never touch
+ * the entities of the request's persistence context.
+ */
+public abstract class ScenarioEvent {
+
+    private final Long scenarioId;
+    private final Long userId;
+    private final String username;
+    private final Long exerciseId;
+    private final Long moduleId;
+    private final Double overallSqs;
+    private final Double clarityScore;
+    private final Double businessValueScore;
+    private final Double gherkinScore;
+    private final Double testabilityScore;
+    private final Double specificityScore;
+    private final Double duplicationScore;
+    private final long publishedNanos = System.nanoTime();
+
+    protected ScenarioEvent(Scenario scenario) {
+        this.scenarioId = scenario.getId();
+        this.userId = scenario.getUser().getId();
+        this.username = scenario.getUser().getUsername();
+        this.exerciseId = scenario.getExercise().getId();
+        this.moduleId = scenario.getExercise().getModule().getId();
+        this.overallSqs = scenario.getOverallSqs();
+        this.clarityScore = scenario.getClarityScore();
+        this.businessValueScore = scenario.getBusinessValueScore();
+        this.gherkinScore = scenario.getGherkinScore();
+        this.testabilityScore = scenario.getTestabilityScore();
+        this.specificityScore = scenario.getSpecificityScore();
+        this.duplicationScore = scenario.getDuplicationScore();
+    }
+
+    public Long getScenarioId() { return scenarioId; }
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public Long getExerciseId() { return exerciseId; }
+    public Long getModuleId() { return moduleId; }
+    public Double getOverallSqs() { return overallSqs; }
+    public Double getClarityScore() { return clarityScore; }
+    public Double getBusinessValueScore() { return businessValueScore; }
+    public Double getGherkinScore() { return gherkinScore; }
+    public Double getTestabilityScore() { return testabilityScore; }
+    public Double getSpecificityScore() { return specificityScore; }
+    public Double getDuplicationScore() { return duplicationScore; }
+
+    /**
+     * System.nanoTime() at publication, for listener lag
+     */
+    public long getPublishedNanos() { return publishedNanos; }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[scenario=" + scenarioId + ", user=" + userId
+            + ", exercise=" + exerciseId + ", sqs=" + overallSqs + "]";
+    }
+}
@@ -0,0 +1,78 @@
+package com.abtm.event;
+
+import com.abtm.config.AsyncConfig;
+import com.abtm.service.LeaderboardService;
+import com.abtm.service.ReviewQueueService;
+import com.abtm.service.ScenarioService;
+import com.abtm.service.SkillProfileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Derived state maintained off the request thread
+ *
+ * Each listener runs after the scenario's transaction commits, on the
+ * bounded scenario event executor, with retries (ListenerInvoker). Every
+ * listener is idempotent on scenario id so a retry or a duplicate delivery
+ * never counts a submission twice.
+ */
+@Component
+public class ScenarioEventListeners {
+
+    @Autowired
+    private ListenerInvoker invoker;
+
+    @Autowired
+    private ScenarioService scenarioService;
+
+    @Autowired
+    private SkillProfileService skillProfileService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private ReviewQueueService reviewQueueService;
+
+    /**
+     * user_performance row and AdaptiveEngine progress
+     */
+    @Async(AsyncConfig.SCENARIO_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void updatePerformance(ScenarioSubmittedEvent event) {
+        invoker.invoke("performance", event, () -> scenarioService.updateUserPerformance(event));
+    }
+
+    /**
+     * Skill vector and exercise dimension profile
+     */
+    @Async(AsyncConfig.SCENARIO_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void updateSkills(ScenarioSubmittedEvent event) {
+        invoker.invoke("skills", event, () -> skillProfileService.recordSubmission(event));
+    }
+
+    /**
+     * Review queue entry of the exercise, rescheduled by the next batch run
+     */
+    @Async(AsyncConfig.SCENARIO_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void updateReviewQueue(ScenarioSubmittedEvent event) {
+        invoker.invoke("reviewQueue", event,
+            () -> reviewQueueService.exerciseAttempted(event.getUserId(), event.getExerciseId()));
+    }
+
+    @Async(AsyncConfig.SCENARIO_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void updateLeaderboards(ScenarioSubmittedEvent event) {
+        invoker.invoke("leaderboards", event, () -> leaderboardService.recordScenario(event, null));
+    }
+
+    @Async(AsyncConfig.SCENARIO_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void updateLeaderboards(ScenarioReanalyzedEvent event) {
+        invoker.invoke("leaderboards", event, () -> leaderboardService.recordScenario(event, event.getPreviousSqs()));
+    }
+}
@@ -0,0 +1,149 @@
+package com.abtm.event;
+
+import com.abtm.model.Scenario;
+import com.abtm.monitoring.ListenerMetrics;
+import com.abtm.repository.ScenarioRepository;
+import com.abtm.service.LeaderboardService;
+import com.abtm.service.ReviewQueueService;
+import com.abtm.service.ScenarioService;
+import com.abtm.service.SkillProfileService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays scenario submissions whose listeners never completed
+ *
+ * A listener invocation is lost when the event executor's queue is full,
+ * when it fails after every retry, or when the node stops with events in
+ * flight. Submissions carry per-listener "applied" flags (performance,
+ * skills), so once at startup, and after losses on this node, submissions
+ * still unapplied are run through those listeners again; the flags make the
+ * replay a no-op for whatever was applied meanwhile. After a loss,
+ * leaderboards are rebuilt from the scenarios table, and review queues are
+ * recomputed by their next batch run anyway.
+ */
+@Component
+public class ScenarioEventReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(ScenarioEventReconciler.class);
+
+    @Autowired
+    private ListenerMetrics metrics;
+
+    @Autowired
+    private ScenarioRepository scenarioRepository;
+
+    @Autowired
+    private ScenarioService scenarioService;
+
+    @Autowired
+    private SkillProfileService skillProfileService;
+
+    @Autowired
+    private ReviewQueueService reviewQueueService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Value("${abtm.events.reconcile-batch-size:500}")
+    private int batchSize;
+
+    // Losses counted by the previous run and when it ran; guarded by this
+    private long previousLosses;
+    private LocalDateTime previousRunAt;
+    private long reconciledLosses;
+
+    private volatile Map<String, Object> lastRun;
+
+    /**
+     * Apply every submission left unapplied, e.g. by a node that stopped with events queued
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconcileOnStartup() {
+        previousRunAt = LocalDateTime.now();
+        previousLosses = metrics.getLosses();
+        reconciledLosses = previousLosses;
+        replay(previousRunAt, "startup");
+    }
+
+    /**
+     * Replay what losses counted by the previous run may have missed
+     *
+     * A submission precedes its loss, so the losses seen by the previous run
+     * concern submissions made before it; scanning only those leaves events
+     * that are still queued to their listeners.
+     */
+    @Scheduled(fixedDelayString = "${abtm.events.reconcile-ms:60000}",
+               initialDelayString = "${abtm.events.reconcile-ms:60000}")
+    public synchronized void reconcileAfterLosses() {
+        LocalDateTime now = LocalDateTime.now();
+        long losses = metrics.getLosses();
+        if (previousRunAt != null && previousLosses > reconciledLosses) {
+            replay(previousRunAt, "losses");
+            leaderboardService.rebuild();
+            reconciledLosses = previousLosses;
+        }
+        previousRunAt = now;
+        previousLosses = losses;
+    }
+
+    /**
+     * Summary of the last run that replayed anything, or null
+     */
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+
+    // Listener bodies are called directly: a replay that fails again is not a new loss
+    private void replay(LocalDateTime submittedBefore, String reason) {
+        long start = System.nanoTime();
+        int replayed = 0;
+        int failed = 0;
+        long afterId = 0;
+        List<Scenario> batch;
+        do {
+            batch = scenarioRepository.findUnapplied(afterId, submittedBefore, PageRequest.of(0, batchSize));
+            for (Scenario scenario : batch) {
+                afterId = scenario.getId();
+                ScenarioSubmittedEvent event = new ScenarioSubmittedEvent(scenario);
+                try {
+                    scenarioService.updateUserPerformance(event);
+                    skillProfileService.recordSubmission(event);
+                    reviewQueueService.exerciseAttempted(event.getUserId(), event.getExerciseId());
+                    replayed++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.warn("Reconciliation failed on {}: {}", event, e.toString());
+                }
+            }
+        } while (batch.size() == batchSize);
+
+        if (replayed > 0 && "startup".equals(reason)) {
+            leaderboardService.rebuild();
+        }
+        if (replayed > 0 || failed > 0 || !"startup".equals(reason)) {
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("reason", reason);
+            run.put("ranAt", LocalDateTime.now());
+            run.put("submittedBefore", submittedBefore);
+            run.put("replayed", replayed);
+            run.put("failed", failed);
+            run.put("durationMillis", Duration.ofNanos(System.nanoTime() - start).toMillis());
+            lastRun = run;
+            log.info("Scenario events reconciled: {}", run);
+        }
+    }
+}
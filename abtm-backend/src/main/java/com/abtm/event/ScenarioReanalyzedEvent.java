@@ -0,0 +1,18 @@
+package com.abtm.event;
+
+import com.abtm.model.Scenario;
+
+/**
+ * An existing scenario was analyzed again and its scores replaced
+ */
+public class ScenarioReanalyzedEvent extends ScenarioEvent {
+
+    private final Double previousSqs;
+
+    public ScenarioReanalyzedEvent(Scenario scenario, Double previousSqs) {
+        super(scenario);
+        this.previousSqs = previousSqs;
+    }
+
+    public Double getPreviousSqs() { return previousSqs; }
+}
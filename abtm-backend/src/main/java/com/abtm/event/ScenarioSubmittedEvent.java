@@ -0,0 +1,13 @@
+package com.abtm.event;
+
+import com.abtm.model.Scenario;
+
+/**
+ * A new scenario was submitted and analyzed
+ */
+public class ScenarioSubmittedEvent extends ScenarioEvent {
+
+    public ScenarioSubmittedEvent(Scenario scenario) {
+        super(scenario);
+    }
+}
@@ -0,0 +1,43 @@
+package com.abtm.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a user's spaced-repetition review queue, computed by the
+ * review batch job; position 0 is the exercise to revisit first
+ */
+@Data
+@Entity
+@Table(name = "review_queue", indexes = @Index(name = "idx_review_queue_user", columnList = "user_id, position"))
+public class ReviewItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "exercise_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private Exercise exercise;
+
+    @Column(name = "position", nullable = false)
+    private Integer position;
+
+    @Column(name = "performance_score")
+    private Double performanceScore;
+
+    @Column(name = "last_attempt_date")
+    private LocalDateTime lastAttemptDate;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDateTime dueDate;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
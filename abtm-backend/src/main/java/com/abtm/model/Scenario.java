@@ -3,11 +3,13 @@ package com.abtm.model;
 import lombok.Data;
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Data
 @Entity
-@Table(name = "scenarios")
+@Table(name = "scenarios", uniqueConstraints =
+    @UniqueConstraint(name = "uk_scenarios_user_idempotency_key", columnNames = {"user_id", "idempotency_key"}))
 public class Scenario {
     
     @Id
@@ -67,6 +69,20 @@ public class Scenario {
     @Enumerated(EnumType.STRING)
     private ScenarioStatus status;
     
+    // Idempotency-Key of the submission, if the client sent one
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+    
+    // Set once the listeners have applied the submission (see ScenarioRepository.claimForPerformance);
+    // rows from before these columns existed are null and count as applied
+    @JsonIgnore
+    @Column(name = "performance_applied", updatable = false)
+    private Boolean performanceApplied = false;
+    
+    @JsonIgnore
+    @Column(name = "skills_applied", updatable = false)
+    private Boolean skillsApplied = false;
+    
     @PrePersist
     protected void onCreate() {
         if (submittedAt == null) {
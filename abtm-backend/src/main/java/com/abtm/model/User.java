@@ -40,6 +40,12 @@ public class User {
         DEVELOPER,
         QA_ENGINEER,
         PRODUCT_OWNER,
-        BUSINESS_ANALYST
+        BUSINESS_ANALYST,
+        // Staff: cohort reports and user imports; not a learner role and not open to self-registration
+        INSTRUCTOR;
+
+        public boolean isLearner() {
+            return this != INSTRUCTOR;
+        }
     }
 }
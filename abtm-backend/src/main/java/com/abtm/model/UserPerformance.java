@@ -7,9 +7,14 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Data
 @Entity
-@Table(name = "user_performance")
+// One row per user and exercise; attempts are recorded with an upsert (UserPerformanceUpsertRepository)
+@Table(name = "user_performance",
+       uniqueConstraints = @UniqueConstraint(name = "uk_user_performance_user_exercise", columnNames = {"user_id", "exercise_id"}))
 public class UserPerformance {
     
+    // Score (0-100) at which an exercise counts as completed
+    public static final double PASS_SCORE = 70;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -40,7 +45,7 @@ public class UserPerformance {
     @PreUpdate
     protected void onUpdate() {
         lastAttemptDate = LocalDateTime.now();
-        if (performanceScore != null && performanceScore >= 70 && completedDate == null) {
+        if (performanceScore != null && performanceScore >= PASS_SCORE && completedDate == null) {
             completedDate = LocalDateTime.now();
         }
     }
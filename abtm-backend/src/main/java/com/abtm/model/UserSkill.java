@@ -0,0 +1,66 @@
+package com.abtm.model;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per-user skill vector: exponentially weighted averages of the six
+ * scenario scoring dimensions (0-10), one row per user
+ */
+@Data
+@Entity
+@Table(name = "user_skills")
+public class UserSkill {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "clarity")
+    private Double clarity;
+
+    @Column(name = "business_value")
+    private Double businessValue;
+
+    @Column(name = "gherkin")
+    private Double gherkin;
+
+    @Column(name = "testability")
+    private Double testability;
+
+    @Column(name = "specificity")
+    private Double specificity;
+
+    @Column(name = "duplication")
+    private Double duplication;
+
+    @Column(name = "sample_count")
+    private Integer sampleCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Current value of a dimension
+     */
+    public Double get(Dimension dimension) {
+        switch (dimension) {
+            case CLARITY: return clarity;
+            case BUSINESS_VALUE: return businessValue;
+            case GHERKIN: return gherkin;
+            case TESTABILITY: return testability;
+            case SPECIFICITY: return specificity;
+            default: return duplication;
+        }
+    }
+
+    public enum Dimension {
+        CLARITY,
+        BUSINESS_VALUE,
+        GHERKIN,
+        TESTABILITY,
+        SPECIFICITY,
+        DUPLICATION
+    }
+}
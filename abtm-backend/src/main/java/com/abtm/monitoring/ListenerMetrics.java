@@ -0,0 +1,104 @@
+package com.abtm.monitoring;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timings of the asynchronous event listeners, per listener
+ */
+@Component
+public class ListenerMetrics {
+
+    private final Map<String, Stats> listeners = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+
+    public Stats of(String listener) {
+        return listeners.computeIfAbsent(listener, name -> new Stats());
+    }
+
+    /**
+     * A listener invocation dropped because the executor queue was full
+     */
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Deliveries whose derived state may be missing: rejected, or failed after every retry
+     */
+    public long getLosses() {
+        long losses = rejected.sum();
+        for (Stats stats : listeners.values()) {
+            losses += stats.failed.sum();
+        }
+        return losses;
+    }
+
+    /**
+     * Snapshot of every listener, by name
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        listeners.forEach((name, stats) -> result.put(name, stats.snapshot()));
+        return result;
+    }
+
+    public static class Stats {
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder totalLagNanos = new LongAdder();
+        private final LongAccumulator maxLagNanos = new LongAccumulator(Math::max, 0);
+
+        /**
+         * Time between publication and the first attempt
+         */
+        public void recordLag(long nanos) {
+            totalLagNanos.add(nanos);
+            maxLagNanos.accumulate(nanos);
+        }
+
+        public void recordRetry() {
+            retries.increment();
+        }
+
+        /**
+         * Outcome of one delivery, including all its attempts
+         */
+        public void recordCompletion(long nanos, boolean success) {
+            (success ? succeeded : failed).increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        Map<String, Object> snapshot() {
+            long deliveries = succeeded.sum() + failed.sum();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("succeeded", succeeded.sum());
+            result.put("failed", failed.sum());
+            result.put("retries", retries.sum());
+            result.put("averageMillis", deliveries > 0 ? toMillis(totalNanos.sum() / deliveries) : 0.0);
+            result.put("maxMillis", toMillis(maxNanos.get()));
+            result.put("averageLagMillis", deliveries > 0 ? toMillis(totalLagNanos.sum() / deliveries) : 0.0);
+            result.put("maxLagMillis", toMillis(maxLagNanos.get()));
+            return result;
+        }
+
+        private static double toMillis(long nanos) {
+            return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 100.0) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.abtm.monitoring;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * DataSource wrapper reporting every statement execution to a listener
+ *
+ * Sits below Hibernate and JdbcTemplate alike, so statements issued through
+ * either are seen. Connections and statements are JDK proxies that pass every
+ * call through and bracket execute, executeQuery, executeUpdate and
+ * executeBatch (one execution each) with the listener.
+ */
+public final class ObservedDataSource {
+
+    public interface Listener {
+        void executionStarted();
+
+        void executionEnded();
+    }
+
+    private ObservedDataSource() {
+    }
+
+    /**
+     * Wrap a DataSource; it stays closeable (and unwrappable) as the target was
+     */
+    public static DataSource wrap(DataSource target, Listener listener) {
+        Class<?>[] interfaces = target instanceof AutoCloseable
+            ? new Class<?>[]{DataSource.class, AutoCloseable.class}
+            : new Class<?>[]{DataSource.class};
+        return (DataSource) Proxy.newProxyInstance(ObservedDataSource.class.getClassLoader(), interfaces,
+            new Handler(target, listener));
+    }
+
+    private static Object proxy(Class<?> type, Object target, Listener listener) {
+        return Proxy.newProxyInstance(ObservedDataSource.class.getClassLoader(), new Class<?>[]{type},
+            new Handler(target, listener));
+    }
+
+    private static final class Handler implements InvocationHandler {
+        private final Object target;
+        private final Listener listener;
+
+        Handler(Object target, Listener listener) {
+            this.target = target;
+            this.listener = listener;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+
+            boolean execution = target instanceof Statement && name.startsWith("execute");
+            if (execution) {
+                listener.executionStarted();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (execution) {
+                    listener.executionEnded();
+                }
+            }
+
+            Class<?> type = method.getReturnType();
+            if (result == null || name.equals("unwrap")) {
+                return result;
+            }
+            if (type == Connection.class || type == Statement.class
+                    || type == PreparedStatement.class || type == CallableStatement.class) {
+                return proxy(type, result, listener);
+            }
+            return result;
+        }
+    }
+}
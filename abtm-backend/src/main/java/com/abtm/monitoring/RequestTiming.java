@@ -0,0 +1,154 @@
+package com.abtm.monitoring;
+
+import java.util.Locale;
+
+/**
+ * Per-request phase durations (database, analyzer, serialization)
+ *
+ * Bound to the request thread by RequestTimingFilter for requests that get a
+ * Server-Timing header or are sampled for logging. Code elsewhere brackets a
+ * phase with mark() and lap(); both are a single ThreadLocal read when the
+ * current request is not being timed. Phases may overlap (a lazy load during
+ * serialization counts as database time too).
+ */
+public class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private static final int MAX_PHASES = 16;
+
+    private final long startNanos = System.nanoTime();
+    private final String[] names = new String[MAX_PHASES];
+    private final long[] nanos = new long[MAX_PHASES];
+    private int phases;
+
+    private long databaseNanos;
+    private int statements;
+    private int databaseDepth;
+    private long databaseStart;
+
+    /**
+     * Start timing the current thread's request
+     */
+    public static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Stop timing the current thread's request
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Continue timing a request on a worker thread while the request thread waits for it (null unbinds)
+     */
+    public static void bind(RequestTiming timing) {
+        if (timing != null) {
+            CURRENT.set(timing);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Timing of the current thread's request, or null when it is not being timed
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Start of a phase: now, or 0 when the current request is not being timed
+     */
+    public static long mark() {
+        return CURRENT.get() != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Add the time since a mark() to a phase; returns now, to chain consecutive phases
+     */
+    public static long lap(String phase, long since) {
+        if (since == 0) {
+            return 0;
+        }
+        RequestTiming timing = CURRENT.get();
+        long now = System.nanoTime();
+        if (timing != null) {
+            timing.add(phase, now - since);
+        }
+        return now;
+    }
+
+    public static void statementStarted() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.databaseDepth++ == 0) {
+            timing.databaseStart = System.nanoTime();
+        }
+    }
+
+    public static void statementEnded() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.databaseDepth > 0 && --timing.databaseDepth == 0) {
+            timing.databaseNanos += System.nanoTime() - timing.databaseStart;
+            timing.statements++;
+        }
+    }
+
+    public void add(String phase, long durationNanos) {
+        for (int i = 0; i < phases; i++) {
+            if (names[i].equals(phase)) {
+                nanos[i] += durationNanos;
+                return;
+            }
+        }
+        if (phases < MAX_PHASES) {
+            names[phases] = phase;
+            nanos[phases++] = durationNanos;
+        }
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long getDatabaseNanos() {
+        return databaseNanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Server-Timing header value, e.g. db;dur=2.1;desc="3 statements", analyzer;dur=0.8, total;dur=5.2
+     */
+    public String toHeader() {
+        StringBuilder header = new StringBuilder(128);
+        header.append("db;dur=").append(millis(databaseNanos))
+            .append(";desc=\"").append(statements).append(statements == 1 ? " statement\"" : " statements\"");
+        for (int i = 0; i < phases; i++) {
+            header.append(", ").append(names[i]).append(";dur=").append(millis(nanos[i]));
+        }
+        return header.append(", total;dur=").append(millis(getElapsedNanos())).toString();
+    }
+
+    /**
+     * Logfmt fields for the sampled log line, e.g. db_ms=2.1 statements=3 analyzer_ms=0.8 total_ms=5.2
+     */
+    public String toLogFields() {
+        StringBuilder fields = new StringBuilder(128);
+        fields.append("db_ms=").append(millis(databaseNanos)).append(" statements=").append(statements);
+        for (int i = 0; i < phases; i++) {
+            fields.append(' ').append(names[i].replace('-', '_')).append("_ms=").append(millis(nanos[i]));
+        }
+        return fields.append(" total_ms=").append(millis(getElapsedNanos())).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.abtm.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times the phases of a request (see RequestTiming)
+ *
+ * With abtm.timing.header=true every response carries a Server-Timing header
+ * (shown by browser dev tools); abtm.timing.sample-rate is the fraction of
+ * requests also logged as one logfmt line. Other requests are not timed.
+ * JSON bodies get the header from TimedJacksonConverter, which knows the
+ * serialization time; bodiless responses get it here, other bodies only
+ * when the response is still buffered (e.g. by SqlStatisticsFilter).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnExpression("${abtm.timing.header:false} or ${abtm.timing.sample-rate:0} > 0")
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTimingFilter.class);
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Value("${abtm.timing.header:false}")
+    private boolean header;
+
+    @Value("${abtm.timing.sample-rate:0}")
+    private double sampleRate;
+
+    // Event streams stay open for minutes; there is nothing useful to time
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!header && !sampled) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RequestTiming timing = RequestTiming.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTiming.end();
+        }
+
+        if (header && !response.isCommitted()) {
+            response.setHeader(SERVER_TIMING_HEADER, timing.toHeader());
+        }
+        if (sampled) {
+            log.info("timing endpoint=\"{}\" status={} {}", SqlStatisticsFilter.endpointOf(request),
+                response.getStatus(), timing.toLogFields());
+        }
+    }
+}
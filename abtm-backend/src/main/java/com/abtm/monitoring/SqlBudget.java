@@ -0,0 +1,25 @@
+package com.abtm.monitoring;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a controller endpoint may issue per request
+ *
+ * Checked by SqlStatisticsFilter when abtm.sql-stats.enabled=true. A request
+ * over budget is logged and flagged with the X-SQL-Budget-Exceeded header,
+ * which fails the load profile build (see LoadGenerator).
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * Maximum statements, including lazy loads during JSON serialization
+     */
+    int value();
+}
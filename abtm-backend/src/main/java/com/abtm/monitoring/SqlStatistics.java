@@ -0,0 +1,78 @@
+package com.abtm.monitoring;
+
+/**
+ * Per-request SQL counters
+ *
+ * Bound to the request thread by SqlStatisticsFilter and incremented by the
+ * DataSource wrapper and Hibernate load/collection listeners registered in
+ * SqlStatisticsConfig. Work done outside a tracked request is not counted.
+ */
+public class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int entityLoads;
+    private int collectionFetches;
+
+    /**
+     * Start counting for the current thread
+     */
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stop counting for the current thread
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Counters of the current thread, or null when nothing is being tracked
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void statementExecuted() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    public static void entityLoaded() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    public static void collectionFetched() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionFetches++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", entities=" + entityLoads + ", collections=" + collectionFetches;
+    }
+}
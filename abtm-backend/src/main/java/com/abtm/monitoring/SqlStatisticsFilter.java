@@ -0,0 +1,110 @@
+package com.abtm.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reports the SQL issued by each request and checks it against @SqlBudget
+ *
+ * The response is buffered so the X-SQL-Statistics header can still be added
+ * after the body (and any lazy loads during JSON serialization) is written.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "abtm.sql-stats.enabled", havingValue = "true")
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+    public static final String STATISTICS_HEADER = "X-SQL-Statistics";
+    public static final String BUDGET_EXCEEDED_HEADER = "X-SQL-Budget-Exceeded";
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    /**
+     * Every controller endpoint should declare a budget; list the ones that don't
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyBudgets() {
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            HandlerMethod method = entry.getValue();
+            if (method.getBeanType().getPackageName().startsWith("com.abtm")
+                    && !method.hasMethodAnnotation(SqlBudget.class)) {
+                log.warn("No @SqlBudget on {} ({})", entry.getKey(), method);
+            }
+        }
+    }
+
+    // Event streams stay open and must not be buffered; they don't query the database
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        SqlStatistics statistics = SqlStatistics.begin();
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            SqlStatistics.end();
+        }
+
+        String endpoint = endpointOf(request);
+        wrapper.setHeader(STATISTICS_HEADER, statistics.toString());
+
+        SqlBudget budget = budgetOf(request);
+        if (budget != null && statistics.getStatements() > budget.value()) {
+            wrapper.setHeader(BUDGET_EXCEEDED_HEADER, statistics.getStatements() + ">" + budget.value());
+            log.warn("SQL budget exceeded by {}: {} (budget {} statements)", endpoint, statistics, budget.value());
+        } else if (log.isDebugEnabled()) {
+            log.debug("SQL for {}: {}", endpoint, statistics);
+        }
+
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * "METHOD /matched/{pattern}" so path variables don't create separate entries
+     */
+    static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static SqlBudget budgetOf(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod) {
+            return ((HandlerMethod) handler).getMethodAnnotation(SqlBudget.class);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.abtm.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter that times serialization of timed requests
+ *
+ * A timed body is serialized into a buffer first, so the Server-Timing
+ * header (including the serialization itself and any lazy loads it
+ * triggered) can still be set before the body is sent. Other requests are
+ * written straight to the response as usual.
+ */
+public class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    private final boolean header;
+
+    public TimedJacksonConverter(ObjectMapper objectMapper, boolean header) {
+        super(objectMapper);
+        this.header = header;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        long start = System.nanoTime();
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        timing.add("serialization", System.nanoTime() - start);
+
+        if (header) {
+            outputMessage.getHeaders().set(RequestTimingFilter.SERVER_TIMING_HEADER, timing.toHeader());
+        }
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
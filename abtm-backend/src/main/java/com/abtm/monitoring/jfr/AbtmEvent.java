@@ -0,0 +1,66 @@
+package com.abtm.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Base of the application's Flight Recorder events
+ *
+ * Besides its duration, each event records how many bytes its thread
+ * allocated meanwhile, so allocation and GC spikes can be tied to a
+ * submission. When no recording enables the event, measuring costs an
+ * isEnabled() check.
+ */
+@Category("ABTM")
+@StackTrace(false)
+public abstract class AbtmEvent extends Event {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the thread during the event")
+    @DataAmount
+    protected long allocatedBytes; // JFR leaves out private fields of superclasses
+
+    private transient long allocationStart;
+
+    /**
+     * begin() and start counting allocations
+     */
+    public void startMeasuring() {
+        begin();
+        if (isEnabled() && THREADS != null) {
+            allocationStart = THREADS.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    /**
+     * end() and whether to set the fields and commit (false when disabled or below the threshold)
+     */
+    public boolean stopMeasuring() {
+        end();
+        if (!shouldCommit()) {
+            return false;
+        }
+        if (THREADS != null) {
+            allocatedBytes = THREADS.getCurrentThreadAllocatedBytes() - allocationStart;
+        }
+        return true;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            return (com.sun.management.ThreadMXBean) bean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.abtm.monitoring.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("com.abtm.AdaptiveEngine")
+@Label("Adaptive Engine")
+@Description("An AdaptiveEngine decision: the operation, its inputs and result")
+@Setter
+public class AdaptiveEngineEvent extends AbtmEvent {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("User Id")
+    private long userId;
+
+    @Label("Module Id")
+    private long moduleId;
+
+    @Label("Result Size")
+    @Description("Exercises returned or completed, or 1/0 for a module or yes/no answer")
+    private int resultSize;
+
+    @Label("Value")
+    @Description("Progress percentage, or the module average for canProgressToNextModule")
+    private double value;
+}
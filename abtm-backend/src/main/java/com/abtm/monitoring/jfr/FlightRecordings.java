@@ -0,0 +1,314 @@
+package com.abtm.monitoring.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * One bounded Flight Recorder recording, started and stopped at runtime
+ *
+ * The recording uses a JDK settings file ("default" keeps the overhead
+ * around 1%, "profile" adds sampling and allocation detail), is capped in
+ * age, size and duration, and is written to abtm.jfr.directory when it
+ * stops. While it runs, the application events and the JVM's GC events are
+ * also streamed in-process (JDK 14+) into a buffer of the latest events, so
+ * allocation and GC spikes can be matched to submissions without opening
+ * the file.
+ */
+@Component
+public class FlightRecordings {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordings.class);
+
+    static final String[] APPLICATION_EVENTS = {
+        "com.abtm.ScenarioAnalysis", "com.abtm.ScenarioSave", "com.abtm.PerformanceUpdate", "com.abtm.AdaptiveEngine"
+    };
+
+    // JVM events streamed next to the application's, to correlate with them
+    static final String[] JVM_EVENTS = {"jdk.GarbageCollection", "jdk.GCHeapSummary"};
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${abtm.jfr.endpoints.enabled:false}")
+    private boolean endpointsEnabled;
+
+    @Value("${abtm.jfr.start-on-startup:false}")
+    private boolean startOnStartup;
+
+    @Value("${abtm.jfr.settings:default}")
+    private String defaultSettings;
+
+    @Value("${abtm.jfr.max-age-seconds:900}")
+    private long maxAgeSeconds;
+
+    @Value("${abtm.jfr.max-size-mb:100}")
+    private long maxSizeMb;
+
+    @Value("${abtm.jfr.max-duration-seconds:3600}")
+    private long maxDurationSeconds;
+
+    @Value("${abtm.jfr.directory:${java.io.tmpdir}}")
+    private String directory;
+
+    @Value("${abtm.jfr.recent-events:500}")
+    private int recentEventLimit;
+
+    private Recording recording;
+    private AutoCloseable stream;
+    private Path destination;
+    private LocalDateTime startedAt;
+
+    private final Deque<Map<String, Object>> recentEvents = new ArrayDeque<>();
+    private long streamedEvents;
+
+    /**
+     * Continuous recording from startup (abtm.jfr.start-on-startup=true)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnStartup() {
+        if (startOnStartup) {
+            try {
+                start(null);
+            } catch (IOException | ParseException e) {
+                log.warn("Cannot start the flight recording: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (isRunning()) {
+            stop();
+        }
+    }
+
+    public boolean isEndpointsEnabled() {
+        return endpointsEnabled;
+    }
+
+    public synchronized boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Start a recording with a JDK settings name ("default", "profile"), or abtm.jfr.settings when null
+     *
+     * @throws IllegalStateException when a recording is already running
+     */
+    public synchronized Map<String, Object> start(String settings) throws IOException, ParseException {
+        if (isRunning()) {
+            throw new IllegalStateException("A flight recording is already running");
+        }
+        release();
+
+        String settingsName = settings != null ? settings : defaultSettings;
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        Path file = dir.resolve("abtm-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+
+        Recording next = new Recording(Configuration.getConfiguration(settingsName));
+        next.setName("abtm");
+        for (String event : APPLICATION_EVENTS) {
+            next.enable(event);
+        }
+        next.setToDisk(true);
+        next.setMaxAge(Duration.ofSeconds(maxAgeSeconds));
+        next.setMaxSize(maxSizeMb * 1024 * 1024);
+        next.setDuration(Duration.ofSeconds(maxDurationSeconds));
+        next.setDestination(file);
+        next.start();
+
+        recording = next;
+        destination = file;
+        startedAt = LocalDateTime.now();
+        synchronized (recentEvents) {
+            recentEvents.clear();
+            streamedEvents = 0;
+        }
+        stream = openStream();
+        log.info("Flight recording started ({} settings, up to {} s), written to {} when stopped",
+            settingsName, maxDurationSeconds, file);
+        return getStatus();
+    }
+
+    /**
+     * Stop the recording and write it to its file
+     *
+     * @throws IllegalStateException when no recording is running
+     */
+    public synchronized Map<String, Object> stop() {
+        if (!isRunning()) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        recording.stop();
+        release();
+
+        Map<String, Object> status = getStatus();
+        status.put("startedAt", startedAt);
+        status.put("file", destination.toString());
+        try {
+            status.put("sizeBytes", Files.size(destination));
+        } catch (IOException e) {
+            log.warn("Flight recording not written to {}: {}", destination, e.getMessage());
+        }
+        log.info("Flight recording written to {}", destination);
+        return status;
+    }
+
+    /**
+     * State of the current (or last) recording
+     */
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning());
+        status.put("streaming", stream != null);
+        if (recording != null) {
+            status.put("state", recording.getState());
+            status.put("startedAt", startedAt);
+            status.put("maxAgeSeconds", maxAgeSeconds);
+            status.put("maxSizeBytes", recording.getMaxSize());
+            status.put("maxDurationSeconds", maxDurationSeconds);
+            status.put("sizeBytes", recording.getSize());
+            status.put("file", destination.toString());
+        }
+        synchronized (recentEvents) {
+            status.put("streamedEvents", streamedEvents);
+        }
+        return status;
+    }
+
+    /**
+     * Latest streamed events, oldest first, optionally of one type (e.g. "com.abtm.ScenarioAnalysis")
+     */
+    public List<Map<String, Object>> getRecentEvents(String type, int limit) {
+        List<Map<String, Object>> events = new ArrayList<>();
+        synchronized (recentEvents) {
+            Iterator<Map<String, Object>> newestFirst = recentEvents.descendingIterator();
+            while (newestFirst.hasNext() && events.size() < limit) {
+                Map<String, Object> event = newestFirst.next();
+                if (type == null || type.equals(event.get("type"))) {
+                    events.add(0, event);
+                }
+            }
+        }
+        return events;
+    }
+
+    // Close the stream and the recording of the last run (a recording past its duration has stopped by itself)
+    private void release() {
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (Exception e) {
+                log.debug("Closing the event stream failed: {}", e.getMessage());
+            }
+            stream = null;
+        }
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * RecordingStream (JDK 14+) through reflection, as the build targets Java 11; null when unavailable
+     */
+    private AutoCloseable openStream() {
+        Class<?> type;
+        try {
+            type = Class.forName("jdk.jfr.consumer.RecordingStream");
+        } catch (ClassNotFoundException e) {
+            log.info("Java {} cannot stream flight recorder events; only the recording file is written",
+                System.getProperty("java.version"));
+            return null;
+        }
+        try {
+            Object recordingStream = type.getConstructor().newInstance();
+            Method enable = type.getMethod("enable", String.class);
+            // Subscribe by name: the stream also sees every event the recording itself enables
+            Method onEvent = type.getMethod("onEvent", String.class, Consumer.class);
+            Consumer<RecordedEvent> consumer = this::keep;
+            List<String> events = new ArrayList<>(Arrays.asList(APPLICATION_EVENTS));
+            events.addAll(Arrays.asList(JVM_EVENTS));
+            for (String event : events) {
+                enable.invoke(recordingStream, event);
+                onEvent.invoke(recordingStream, event, consumer);
+            }
+            type.getMethod("setMaxAge", Duration.class).invoke(recordingStream, Duration.ofSeconds(30));
+            type.getMethod("startAsync").invoke(recordingStream);
+            return (AutoCloseable) recordingStream;
+        } catch (ReflectiveOperationException e) {
+            log.warn("Cannot stream flight recorder events", e);
+            return null;
+        }
+    }
+
+    private void keep(RecordedEvent event) {
+        Map<String, Object> entry = describe(event);
+        synchronized (recentEvents) {
+            streamedEvents++;
+            recentEvents.addLast(entry);
+            while (recentEvents.size() > recentEventLimit) {
+                recentEvents.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Type, timing, thread and the scalar fields of an event
+     */
+    private static Map<String, Object> describe(RecordedEvent event) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("type", event.getEventType().getName());
+        entry.put("startTime", event.getStartTime().toString());
+        entry.put("durationMillis", event.getDuration().toNanos() / 1_000_000.0);
+        if (event.hasField("eventThread")) {
+            RecordedThread thread = event.getThread();
+            if (thread != null) {
+                entry.put("thread", thread.getJavaName());
+            }
+        }
+        for (ValueDescriptor field : event.getFields()) {
+            String name = field.getName();
+            if (name.equals("startTime") || name.equals("duration") || name.equals("eventThread")) {
+                continue;
+            }
+            Object value = event.getValue(name);
+            if (value instanceof Number || value instanceof String || value instanceof Boolean) {
+                entry.put(name, value);
+            } else if (value instanceof Duration) {
+                entry.put(name + "Millis", ((Duration) value).toNanos() / 1_000_000.0);
+            }
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,35 @@
+package com.abtm.monitoring.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("com.abtm.PerformanceUpdate")
+@Label("Performance Update")
+@Description("ScenarioService.updateUserPerformance: a submission applied to the user's exercise performance")
+@Setter
+public class PerformanceUpdateEvent extends AbtmEvent {
+
+    @Label("User Id")
+    private long userId;
+
+    @Label("Exercise Id")
+    private long exerciseId;
+
+    @Label("Scenario Id")
+    private long scenarioId;
+
+    @Label("Overall SQS")
+    private double overallSqs;
+
+    @Label("Performance Score")
+    private double performanceScore;
+
+    @Label("Attempts")
+    private int attemptCount;
+
+    @Label("Skipped")
+    @Description("The submission was already applied")
+    private boolean skipped;
+}
@@ -0,0 +1,49 @@
+package com.abtm.monitoring.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("com.abtm.ScenarioAnalysis")
+@Label("Scenario Analysis")
+@Description("ScenarioAnalysisService.analyze: input size and the resulting scores")
+@Setter
+public class ScenarioAnalysisEvent extends AbtmEvent {
+
+    @Label("Content Length")
+    private int contentLength;
+
+    @Label("Language")
+    private String language;
+
+    @Label("Lines")
+    private int lineCount;
+
+    @Label("Table Rows")
+    private int tableRows;
+
+    @Label("Clarity")
+    private double clarityScore;
+
+    @Label("Business Value")
+    private double businessValueScore;
+
+    @Label("Gherkin")
+    private double gherkinScore;
+
+    @Label("Testability")
+    private double testabilityScore;
+
+    @Label("Specificity")
+    private double specificityScore;
+
+    @Label("Duplication")
+    private double duplicationScore;
+
+    @Label("Overall")
+    private double overallScore;
+
+    @Label("Anti-patterns")
+    private int antipatternCount;
+}
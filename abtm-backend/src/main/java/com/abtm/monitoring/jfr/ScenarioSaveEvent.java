@@ -0,0 +1,34 @@
+package com.abtm.monitoring.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("com.abtm.ScenarioSave")
+@Label("Scenario Save")
+@Description("ScenarioService.saveScenario: the stored submission")
+@Setter
+public class ScenarioSaveEvent extends AbtmEvent {
+
+    @Label("User Id")
+    private long userId;
+
+    @Label("Exercise Id")
+    private long exerciseId;
+
+    @Label("Scenario Id")
+    private long scenarioId;
+
+    @Label("Submission Number")
+    private int submissionNumber;
+
+    @Label("Content Length")
+    private int contentLength;
+
+    @Label("Overall SQS")
+    private double overallSqs;
+
+    @Label("Status")
+    private String status;
+}
@@ -0,0 +1,101 @@
+package com.abtm.repository;
+
+import com.abtm.cluster.CacheChange;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * The cache_change log behind CacheInvalidationBus (PostgreSQL only)
+ *
+ * Appending takes a transaction-scoped advisory lock before the version is
+ * drawn, so versions are committed in order: a node that sees version n+2
+ * after n knows n+1 exists and can read it here. The NOTIFY is sent by the
+ * same statement and, like the row, only when the transaction commits.
+ * CacheInvalidationBus appends in a transaction of its own, after the
+ * caller's has committed, so the lock is held for the append alone.
+ */
+@Repository
+public class CacheChangeRepository {
+
+    public static final String CHANNEL = "abtm_cache_change";
+
+    // Arbitrary key of the advisory lock serializing appends
+    private static final long APPEND_LOCK = 0x41425443L;
+
+    private static final String APPEND =
+        "WITH lock AS (SELECT pg_advisory_xact_lock(" + APPEND_LOCK + ")), "
+            + "change AS (INSERT INTO cache_change (topic, cache_key, origin) "
+            + "SELECT CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS VARCHAR) FROM lock "
+            + "RETURNING version, topic, cache_key, origin) "
+            + "SELECT version, pg_notify('" + CHANNEL + "', version || ' ' || topic || ' ' || origin || ' ' || cache_key) "
+            + "FROM change";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CacheChangeRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void createTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS cache_change ("
+            + "version BIGSERIAL PRIMARY KEY, "
+            + "topic VARCHAR(32) NOT NULL, "
+            + "cache_key VARCHAR(128) NOT NULL, "
+            + "origin VARCHAR(64) NOT NULL, "
+            + "created_at TIMESTAMP NOT NULL DEFAULT now())");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_cache_change_created_at ON cache_change (created_at)");
+    }
+
+    /**
+     * Log a change and notify listeners when the current transaction (or this statement) commits; returns its version
+     */
+    public long append(CacheChange.Topic topic, String key, String origin) {
+        List<Long> versions = jdbcTemplate.query(APPEND, (rs, row) -> rs.getLong(1), topic.name(), key, origin);
+        return versions.get(0);
+    }
+
+    /**
+     * Changes after a version, oldest first
+     */
+    public List<CacheChange> findAfter(long version) {
+        return jdbcTemplate.query(
+            "SELECT version, topic, cache_key, origin FROM cache_change WHERE version > ? ORDER BY version",
+            (rs, row) -> new CacheChange(rs.getLong(1), CacheChange.Topic.valueOf(rs.getString(2)),
+                rs.getString(3), rs.getString(4)),
+            version);
+    }
+
+    /**
+     * Token revocations (logout, user deleted) up to a version, oldest first
+     */
+    public List<CacheChange> findRevocations(long upToVersion) {
+        return jdbcTemplate.query(
+            "SELECT version, topic, cache_key, origin FROM cache_change WHERE version <= ? AND topic IN (?, ?) "
+                + "ORDER BY version",
+            (rs, row) -> new CacheChange(rs.getLong(1), CacheChange.Topic.valueOf(rs.getString(2)),
+                rs.getString(3), rs.getString(4)),
+            upToVersion, CacheChange.Topic.TOKEN_REVOKED.name(), CacheChange.Topic.USER_DELETED.name());
+    }
+
+    /**
+     * Oldest and newest logged versions, {0, 0} when the log is empty
+     */
+    public long[] findVersionRange() {
+        return jdbcTemplate.queryForObject(
+            "SELECT COALESCE(MIN(version), 0), COALESCE(MAX(version), 0) FROM cache_change",
+            (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * Drop changes older than the retention, except the newest (it carries the current version); returns how many
+     */
+    public int purgeOlderThan(long retentionMillis) {
+        return jdbcTemplate.update(
+            "DELETE FROM cache_change WHERE created_at < now() - CAST(? AS INTEGER) * INTERVAL '1 millisecond' "
+                + "AND version < (SELECT MAX(version) FROM cache_change)",
+            (int) Math.min(retentionMillis, Integer.MAX_VALUE));
+    }
+}
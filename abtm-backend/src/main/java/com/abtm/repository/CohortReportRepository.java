@@ -0,0 +1,106 @@
+package com.abtm.repository;
+
+import com.abtm.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Set-based aggregate queries for cohort reports
+ *
+ * Plain JDBC so rows can be streamed to the caller instead of materializing
+ * entities; the cohort is every learner (instructors excluded) matching the filter.
+ */
+@Repository
+public class CohortReportRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String MODULES_SQL =
+        "SELECT m.id, m.title, m.module_order, m.passing_score, COUNT(e.id) AS exercise_count " +
+        "FROM modules m LEFT JOIN exercises e ON e.module_id = m.id " +
+        "WHERE m.is_active = TRUE " +
+        "GROUP BY m.id, m.title, m.module_order, m.passing_score " +
+        "ORDER BY m.module_order, m.id";
+
+    // One row per (cohort user, active module); {cohort:x} is the filter applied to users alias x
+    private static final String PROGRESS_SQL =
+        "SELECT u.id AS user_id, u.username, u.role, m.id AS module_id, " +
+        "       COALESCE(p.attempted, 0) AS attempted, COALESCE(p.completed, 0) AS completed, p.average_score, " +
+        "       COALESCE(s.submissions, 0) AS submissions, COALESCE(s.scored, 0) AS scored, s.sqs_sum " +
+        "FROM users u CROSS JOIN modules m " +
+        "LEFT JOIN (" +
+        "    SELECT up.user_id, e.module_id, COUNT(*) AS attempted, " +
+        "           SUM(CASE WHEN up.performance_score >= 70 THEN 1 ELSE 0 END) AS completed, " +
+        "           AVG(up.performance_score) AS average_score " +
+        "    FROM user_performance up " +
+        "    JOIN exercises e ON e.id = up.exercise_id " +
+        "    JOIN users cu ON cu.id = up.user_id " +
+        "    WHERE {cohort:cu} " +
+        "    GROUP BY up.user_id, e.module_id" +
+        ") p ON p.user_id = u.id AND p.module_id = m.id " +
+        "LEFT JOIN (" +
+        "    SELECT sc.user_id, e.module_id, COUNT(*) AS submissions, COUNT(sc.overall_sqs) AS scored, " +
+        "           SUM(sc.overall_sqs) AS sqs_sum " +
+        "    FROM scenarios sc " +
+        "    JOIN exercises e ON e.id = sc.exercise_id " +
+        "    JOIN users cu ON cu.id = sc.user_id " +
+        "    WHERE {cohort:cu} " +
+        "    GROUP BY sc.user_id, e.module_id" +
+        ") s ON s.user_id = u.id AND s.module_id = m.id " +
+        "WHERE m.is_active = TRUE AND {cohort:u} " +
+        "ORDER BY u.id, m.module_order, m.id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CohortReportRepository(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Active modules with their exercise counts (active or not), in module order
+     */
+    public void streamModules(RowCallbackHandler handler) {
+        jdbcTemplate.query(MODULES_SQL, handler);
+    }
+
+    /**
+     * Per-user, per-module progress of the cohort, ordered by user then module order
+     */
+    public void streamProgress(List<Long> userIds, User.Role role,
+                               LocalDateTime registeredFrom, LocalDateTime registeredTo,
+                               RowCallbackHandler handler) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder condition = new StringBuilder("{alias}.role <> '" + User.Role.INSTRUCTOR.name() + "'");
+        if (userIds != null && !userIds.isEmpty()) {
+            condition.append(" AND {alias}.id IN (:userIds)");
+            params.addValue("userIds", userIds);
+        }
+        if (role != null) {
+            condition.append(" AND {alias}.role = :role");
+            params.addValue("role", role.name());
+        }
+        if (registeredFrom != null) {
+            condition.append(" AND {alias}.created_at >= :registeredFrom");
+            params.addValue("registeredFrom", Timestamp.valueOf(registeredFrom));
+        }
+        if (registeredTo != null) {
+            condition.append(" AND {alias}.created_at < :registeredTo");
+            params.addValue("registeredTo", Timestamp.valueOf(registeredTo));
+        }
+
+        String sql = PROGRESS_SQL
+            .replace("{cohort:cu}", condition.toString().replace("{alias}", "cu"))
+            .replace("{cohort:u}", condition.toString().replace("{alias}", "u"));
+        jdbcTemplate.query(sql, params, handler);
+    }
+}
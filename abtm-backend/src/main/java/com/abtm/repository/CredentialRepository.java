@@ -0,0 +1,62 @@
+package com.abtm.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Password lookups for login
+ *
+ * Plain JDBC outside any transaction: the connection goes back to the pool
+ * as soon as the statement completes. Through JPA the request's
+ * (open-in-view) EntityManager would keep its connection while the password
+ * is verified, and a login storm would drain the connection pool.
+ */
+@Repository
+public class CredentialRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CredentialRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Id and stored password of a user, or null when the username is unknown
+     */
+    public Credentials findByUsername(String username) {
+        List<Credentials> rows = jdbcTemplate.query(
+            "SELECT id, password FROM users WHERE username = ?",
+            (rs, rowNum) -> new Credentials(rs.getLong("id"), rs.getString("password")),
+            username);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Replace the stored password, unless it changed since it was read
+     */
+    public boolean updatePassword(Long userId, String expected, String password) {
+        return jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ? AND password = ?",
+            password, userId, expected) > 0;
+    }
+
+    public static class Credentials {
+        private final Long userId;
+        private final String password;
+
+        Credentials(Long userId, String password) {
+            this.userId = userId;
+            this.password = password;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+    }
+}
@@ -34,6 +34,10 @@ public interface ExerciseRepository extends JpaRepository<Exercise, Long> {
     // Find exercises by difficulty
     List<Exercise> findByDifficulty(Exercise.DifficultyLevel difficulty);
     
+    // Find all exercises with their module (progress catalog)
+    @Query("SELECT e FROM Exercise e JOIN FETCH e.module")
+    List<Exercise> findAllWithModule();
+    
     // Count exercises in a module
     long countByModule(Module module);
 }
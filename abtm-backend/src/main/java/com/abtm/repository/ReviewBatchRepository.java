@@ -0,0 +1,96 @@
+package com.abtm.repository;
+
+import com.abtm.model.ReviewItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Streaming reads and batch writes of the review queue job
+ *
+ * Plain JDBC: performance rows are streamed ordered by user, and each chunk
+ * of queues is replaced with one delete and one batched insert.
+ */
+@Repository
+public class ReviewBatchRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    // Performance rows on active exercises of active modules, grouped by user
+    private static final String PERFORMANCE_SQL =
+        "SELECT up.user_id, up.exercise_id, up.performance_score, up.last_attempt_date " +
+        "FROM user_performance up " +
+        "JOIN exercises e ON e.id = up.exercise_id " +
+        "JOIN modules m ON m.id = e.module_id " +
+        "WHERE e.is_active = TRUE AND m.is_active = TRUE " +
+        "ORDER BY up.user_id";
+
+    private static final String DELETE_USERS_SQL =
+        "DELETE FROM review_queue WHERE user_id IN (:userIds)";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO review_queue (user_id, exercise_id, position, performance_score, last_attempt_date, " +
+        "due_date, computed_at) VALUES (:userId, :exerciseId, :position, :performanceScore, :lastAttemptDate, " +
+        ":dueDate, :computedAt)";
+
+    private static final String DELETE_STALE_SQL =
+        "DELETE FROM review_queue WHERE computed_at < :computedAt";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ReviewBatchRepository(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Every performance row to schedule, ordered by user (run inside a transaction so the driver streams)
+     */
+    public void streamPerformance(RowCallbackHandler handler) {
+        jdbcTemplate.query(PERFORMANCE_SQL, handler);
+    }
+
+    /**
+     * Replace the queues of the given users with the given items
+     */
+    public void replaceQueues(Collection<Long> userIds, List<ReviewItem> items) {
+        jdbcTemplate.update(DELETE_USERS_SQL, new MapSqlParameterSource("userIds", userIds));
+        if (items.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = new SqlParameterSource[items.size()];
+        for (int i = 0; i < batch.length; i++) {
+            ReviewItem item = items.get(i);
+            batch[i] = new MapSqlParameterSource()
+                .addValue("userId", item.getUserId())
+                .addValue("exerciseId", item.getExercise().getId())
+                .addValue("position", item.getPosition())
+                .addValue("performanceScore", item.getPerformanceScore())
+                .addValue("lastAttemptDate", toTimestamp(item.getLastAttemptDate()))
+                .addValue("dueDate", toTimestamp(item.getDueDate()))
+                .addValue("computedAt", toTimestamp(item.getComputedAt()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    /**
+     * Remove queues not rewritten by the run started at computedAt (users with nothing left to review)
+     */
+    public int deleteComputedBefore(LocalDateTime computedAt) {
+        return jdbcTemplate.update(DELETE_STALE_SQL, new MapSqlParameterSource("computedAt", toTimestamp(computedAt)));
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.abtm.repository;
+
+import com.abtm.model.ReviewItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ReviewItemRepository extends JpaRepository<ReviewItem, Long> {
+
+    // Queue of a user in review order, with the exercises
+    @Query("SELECT r FROM ReviewItem r JOIN FETCH r.exercise WHERE r.userId = :userId ORDER BY r.position")
+    List<ReviewItem> findQueueByUserId(@Param("userId") Long userId);
+
+    // Drop an exercise from a queue once it has been practiced again
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReviewItem r WHERE r.userId = :userId AND r.exercise.id = :exerciseId")
+    int deleteByUserIdAndExerciseId(@Param("userId") Long userId, @Param("exerciseId") Long exerciseId);
+}
@@ -0,0 +1,99 @@
+package com.abtm.repository;
+
+import com.abtm.model.Exercise;
+import com.abtm.model.Scenario;
+import com.abtm.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScenarioRepository extends JpaRepository<Scenario, Long> {
+    
+    // Find scenario by ID with the associations serialized in responses
+    @Override
+    @EntityGraph(attributePaths = {"user", "exercise", "exercise.module"})
+    Optional<Scenario> findById(Long id);
+    
+    // Find scenarios by user (associations fetched to avoid N+1 during serialization)
+    @EntityGraph(attributePaths = {"user", "exercise", "exercise.module"})
+    List<Scenario> findByUser(User user);
+    
+    // Submission of a user with an Idempotency-Key (associations fetched for the response)
+    @EntityGraph(attributePaths = {"user", "exercise", "exercise.module"})
+    Optional<Scenario> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+    
+    // Find scenarios by exercise (associations fetched to avoid N+1 during serialization)
+    @EntityGraph(attributePaths = {"user", "exercise", "exercise.module"})
+    List<Scenario> findByExercise(Exercise exercise);
+    
+    // Find scenarios by user and exercise
+    @EntityGraph(attributePaths = {"user", "exercise", "exercise.module"})
+    List<Scenario> findByUserAndExercise(User user, Exercise exercise);
+    
+    // Find scenarios by user ID
+    List<Scenario> findByUserId(Long userId);
+    
+    // Find scenarios by exercise ID
+    List<Scenario> findByExerciseId(Long exerciseId);
+    
+    // Find scenarios by status
+    List<Scenario> findByStatus(Scenario.ScenarioStatus status);
+    
+    // Find scenarios by user and status
+    List<Scenario> findByUserAndStatus(User user, Scenario.ScenarioStatus status);
+    
+    // Count scenarios by user
+    long countByUser(User user);
+    
+    // Count scenarios by user and status
+    long countByUserAndStatus(User user, Scenario.ScenarioStatus status);
+    
+    // Per exercise: scored submissions and the sum of each dimension score (skill profile load)
+    @Query("SELECT s.exercise.id, COUNT(s), SUM(s.clarityScore), SUM(s.businessValueScore), SUM(s.gherkinScore), " +
+           "SUM(s.testabilityScore), SUM(s.specificityScore), SUM(s.duplicationScore) " +
+           "FROM Scenario s WHERE s.overallSqs IS NOT NULL GROUP BY s.exercise.id")
+    List<Object[]> sumDimensionScoresByExercise();
+    
+    // Best overall SQS of a user on an exercise (null when no scored submission is left)
+    @Query("SELECT MAX(s.overallSqs) FROM Scenario s WHERE s.user.id = :userId AND s.exercise.id = :exerciseId")
+    Double findBestSqs(@Param("userId") Long userId, @Param("exerciseId") Long exerciseId);
+
+    // Username, module id and best overall SQS (null when none) of a user on an exercise; no row if either is gone
+    @Query("SELECT u.username, e.module.id, " +
+           "(SELECT MAX(s.overallSqs) FROM Scenario s WHERE s.user = u AND s.exercise = e) " +
+           "FROM User u, Exercise e WHERE u.id = :userId AND e.id = :exerciseId")
+    List<Object[]> findBestSqsWithUser(@Param("userId") Long userId, @Param("exerciseId") Long exerciseId);
+    
+    // Per user and exercise: username, module and best overall SQS (leaderboard rebuild)
+    @Query("SELECT s.user.id, s.user.username, s.exercise.id, s.exercise.module.id, MAX(s.overallSqs) " +
+           "FROM Scenario s WHERE s.overallSqs IS NOT NULL " +
+           "GROUP BY s.user.id, s.user.username, s.exercise.id, s.exercise.module.id")
+    List<Object[]> findBestSqsPerUserAndExercise();
+    
+    // Marks a submission as applied to user_performance; 0 when it already was (or the scenario is gone).
+    // Run in the transaction that applies it: the row lock makes a concurrent duplicate wait and then see 1 row less
+    @Modifying
+    @Query("UPDATE Scenario s SET s.performanceApplied = true WHERE s.id = :id AND s.performanceApplied = false")
+    int claimForPerformance(@Param("id") Long id);
+    
+    // Same for the skill vector (user_skills)
+    @Modifying
+    @Query("UPDATE Scenario s SET s.skillsApplied = true WHERE s.id = :id AND s.skillsApplied = false")
+    int claimForSkills(@Param("id") Long id);
+    
+    // Submissions after an id, older than a time, not yet applied by every listener (reconciliation)
+    @EntityGraph(attributePaths = {"user", "exercise", "exercise.module"})
+    @Query("SELECT s FROM Scenario s WHERE s.id > :afterId AND s.submittedAt < :before " +
+           "AND (s.performanceApplied = false OR s.skillsApplied = false) ORDER BY s.id")
+    List<Scenario> findUnapplied(@Param("afterId") Long afterId, @Param("before") LocalDateTime before,
+                                 Pageable page);
+}
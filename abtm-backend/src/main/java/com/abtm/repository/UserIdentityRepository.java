@@ -0,0 +1,37 @@
+package com.abtm.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.function.BiConsumer;
+
+/**
+ * Full scans of usernames and emails, streamed with plain JDBC
+ */
+@Repository
+public class UserIdentityRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserIdentityRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public long countUsers() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Username and email of every user (run inside a transaction so the driver streams)
+     */
+    public void forEachIdentity(BiConsumer<String, String> consumer) {
+        jdbcTemplate.query("SELECT username, email FROM users",
+            (RowCallbackHandler) rs -> consumer.accept(rs.getString(1), rs.getString(2)));
+    }
+}
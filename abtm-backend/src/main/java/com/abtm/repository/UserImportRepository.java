@@ -0,0 +1,84 @@
+package com.abtm.repository;
+
+import com.abtm.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Set-based uniqueness checks and multi-row inserts for bulk user import
+ */
+@Repository
+public class UserImportRepository {
+
+    private static final String INSERT_PREFIX =
+        "INSERT INTO users (username, password, email, full_name, role, created_at) VALUES ";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public UserImportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Which of the given usernames are taken
+     */
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        return findExisting("SELECT username FROM users WHERE username IN (:values)", usernames);
+    }
+
+    /**
+     * Which of the given emails are taken
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return findExisting("SELECT email FROM users WHERE email IN (:values)", emails);
+    }
+
+    /**
+     * Insert users with one multi-row INSERT; all or none are inserted
+     */
+    public void insertAll(List<User> users, LocalDateTime createdAt) {
+        if (users.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + users.size() * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(users.size() * 6);
+        Timestamp created = Timestamp.valueOf(createdAt);
+        for (int i = 0; i < users.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            User user = users.get(i);
+            args.add(user.getUsername());
+            args.add(user.getPassword());
+            args.add(user.getEmail());
+            args.add(user.getFullName());
+            args.add(user.getRole().name());
+            args.add(created);
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private Set<String> findExisting(String sql, Collection<String> values) {
+        if (values.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(sql, new MapSqlParameterSource("values", values), String.class));
+    }
+}
@@ -48,6 +48,10 @@ public interface UserPerformanceRepository extends JpaRepository<UserPerformance
     @Query("SELECT AVG(up.performanceScore) FROM UserPerformance up WHERE up.user.id = :userId")
     Double getAverageScoreByUserId(@Param("userId") Long userId);
     
+    // Exercise ID and score of every performance row of a user (progress cache load)
+    @Query("SELECT up.exercise.id, up.performanceScore FROM UserPerformance up WHERE up.user.id = :userId")
+    List<Object[]> findScoresByUserId(@Param("userId") Long userId);
+    
     // Count scenarios by user ID
     @Query("SELECT COUNT(up) FROM UserPerformance up WHERE up.user.id = :userId")
     Long countScenariosByUserId(@Param("userId") Long userId);
@@ -0,0 +1,66 @@
+package com.abtm.repository;
+
+import com.abtm.model.UserPerformance;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/**
+ * Single-statement attempt recording for user_performance
+ *
+ * The unique (user_id, exercise_id) constraint and the database make
+ * concurrent attempts safe on any node: an UPDATE for the common case, an
+ * INSERT that yields to a row inserted concurrently, and the UPDATE again
+ * in that case. Each statement keeps the best score and counts the attempt.
+ */
+@Repository
+public class UserPerformanceUpsertRepository {
+
+    // :score is cast so a null score binds on PostgreSQL; the best score wins
+    private static final String UPDATE_SQL =
+        "UPDATE user_performance SET " +
+        "attempt_count = COALESCE(attempt_count, 0) + 1, " +
+        "performance_score = CASE WHEN performance_score IS NULL OR CAST(:score AS DOUBLE PRECISION) > performance_score " +
+        "    THEN COALESCE(CAST(:score AS DOUBLE PRECISION), performance_score) ELSE performance_score END, " +
+        "last_attempt_date = :now, " +
+        "completed_date = CASE WHEN completed_date IS NULL AND CAST(:score AS DOUBLE PRECISION) >= :passScore " +
+        "    THEN :now ELSE completed_date END " +
+        "WHERE user_id = :userId AND exercise_id = :exerciseId";
+
+    // DO NOTHING rather than DO UPDATE: the only form H2 (bench profile) supports; the caller then updates
+    private static final String INSERT_SQL =
+        "INSERT INTO user_performance " +
+        "(user_id, exercise_id, performance_score, attempt_count, last_attempt_date, completed_date) " +
+        "VALUES (:userId, :exerciseId, :score, 1, :now, " +
+        "    CASE WHEN CAST(:score AS DOUBLE PRECISION) >= :passScore THEN :now END) " +
+        "ON CONFLICT DO NOTHING";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UserPerformanceUpsertRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Count an attempt of userId at exerciseId, keeping the best score (0-100, null when unscored);
+     * the row is created by the first attempt
+     */
+    public void recordAttempt(Long userId, Long exerciseId, Double score, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("userId", userId)
+            .addValue("exerciseId", exerciseId)
+            .addValue("score", score, Types.DOUBLE)
+            .addValue("passScore", UserPerformance.PASS_SCORE)
+            .addValue("now", Timestamp.valueOf(now));
+        if (jdbcTemplate.update(UPDATE_SQL, params) == 0
+                && jdbcTemplate.update(INSERT_SQL, params) == 0) {
+            // Another transaction inserted the first attempt meanwhile; its row is visible now
+            jdbcTemplate.update(UPDATE_SQL, params);
+        }
+    }
+}
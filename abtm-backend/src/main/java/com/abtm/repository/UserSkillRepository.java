@@ -0,0 +1,52 @@
+package com.abtm.repository;
+
+import com.abtm.model.UserSkill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface UserSkillRepository extends JpaRepository<UserSkill, Long> {
+
+    // Fold one submission into the EWMAs in place; returns 0 when the user has no row yet
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserSkill s SET " +
+           "s.clarity = s.clarity + :alpha * (:clarity - s.clarity), " +
+           "s.businessValue = s.businessValue + :alpha * (:businessValue - s.businessValue), " +
+           "s.gherkin = s.gherkin + :alpha * (:gherkin - s.gherkin), " +
+           "s.testability = s.testability + :alpha * (:testability - s.testability), " +
+           "s.specificity = s.specificity + :alpha * (:specificity - s.specificity), " +
+           "s.duplication = s.duplication + :alpha * (:duplication - s.duplication), " +
+           "s.sampleCount = s.sampleCount + 1, s.updatedAt = :now " +
+           "WHERE s.userId = :userId")
+    int applySample(@Param("userId") Long userId, @Param("alpha") double alpha,
+                    @Param("clarity") double clarity, @Param("businessValue") double businessValue,
+                    @Param("gherkin") double gherkin, @Param("testability") double testability,
+                    @Param("specificity") double specificity, @Param("duplication") double duplication,
+                    @Param("now") LocalDateTime now);
+
+    // First sample of a user (plain INSERT, no select-before-insert of save())
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_skills (user_id, clarity, business_value, gherkin, testability, " +
+                   "specificity, duplication, sample_count, updated_at) " +
+                   "VALUES (:userId, :clarity, :businessValue, :gherkin, :testability, :specificity, :duplication, " +
+                   "1, :now)",
+           nativeQuery = true)
+    int insertFirstSample(@Param("userId") Long userId,
+                          @Param("clarity") double clarity, @Param("businessValue") double businessValue,
+                          @Param("gherkin") double gherkin, @Param("testability") double testability,
+                          @Param("specificity") double specificity, @Param("duplication") double duplication,
+                          @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserSkill s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
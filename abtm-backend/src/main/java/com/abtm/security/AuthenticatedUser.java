@@ -0,0 +1,58 @@
+package com.abtm.security;
+
+import com.abtm.model.User;
+
+import java.util.UUID;
+
+/**
+ * Principal of a request authenticated by a JWT, built from the token's
+ * claims alone (no database lookup)
+ */
+public class AuthenticatedUser {
+
+    private final Long userId;
+    private final String username;
+    private final User.Role role;
+    private final UUID tokenId;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+
+    public AuthenticatedUser(Long userId, String username, User.Role role, UUID tokenId,
+                             long issuedAtMillis, long expiresAtMillis) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.tokenId = tokenId;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public User.Role getRole() {
+        return role;
+    }
+
+    public UUID getTokenId() {
+        return tokenId;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return username + " (" + userId + ")";
+    }
+}
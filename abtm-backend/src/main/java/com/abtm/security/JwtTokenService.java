@@ -0,0 +1,180 @@
+package com.abtm.security;
+
+import com.abtm.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Issues and verifies the API's JWTs
+ *
+ * Tokens are self-contained (user id, username and role are claims), so a
+ * request is authenticated without touching the database. Verified tokens
+ * are cached by the SHA-256 of the token until they expire, so the
+ * signature of a token is checked once rather than on every request; the
+ * cache is LRU-bounded and keeps only claims, never the token itself.
+ * Revocation is checked on every request, cached or not.
+ */
+@Service
+public class JwtTokenService {
+
+    private static final String USERNAME_CLAIM = "username";
+    private static final String ROLE_CLAIM = "role";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Autowired
+    private TokenDenyList denyList;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Value("${jwt.expiration}")
+    private long expirationMillis;
+
+    @Value("${abtm.security.token-cache-size:10000}")
+    private int cacheSize;
+
+    private byte[] signingKey;
+
+    // Access-ordered: the least recently used token is evicted first
+    private LinkedHashMap<UUID, AuthenticatedUser> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        signingKey = secret.getBytes(StandardCharsets.UTF_8);
+        cache = new LinkedHashMap<UUID, AuthenticatedUser>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, AuthenticatedUser> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Signed token for a user who just logged in
+     */
+    public String issueToken(User user) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+            .setId(UUID.randomUUID().toString())
+            .setSubject(String.valueOf(user.getId()))
+            .claim(USERNAME_CLAIM, user.getUsername())
+            .claim(ROLE_CLAIM, user.getRole().name())
+            .setIssuedAt(new Date(now))
+            .setExpiration(new Date(now + expirationMillis))
+            .signWith(SignatureAlgorithm.HS256, signingKey)
+            .compact();
+    }
+
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    /**
+     * Principal of a valid, unexpired, unrevoked token, or null
+     */
+    public AuthenticatedUser authenticate(String token) {
+        UUID key = hash(token);
+        long now = System.currentTimeMillis();
+
+        AuthenticatedUser principal;
+        synchronized (cache) {
+            principal = cache.get(key);
+            if (principal != null && principal.getExpiresAtMillis() <= now) {
+                cache.remove(key);
+                principal = null;
+            }
+        }
+
+        if (principal != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            principal = verify(token, now);
+            if (principal == null) {
+                rejected.increment();
+                return null;
+            }
+            synchronized (cache) {
+                cache.put(key, principal);
+            }
+        }
+
+        if (denyList.isRevoked(principal)) {
+            rejected.increment();
+            return null;
+        }
+        return principal;
+    }
+
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (cache) {
+            stats.put("size", cache.size());
+        }
+        stats.put("maxSize", cacheSize);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("denyListSize", denyList.size());
+        return stats;
+    }
+
+    // Signature and expiry check; claims must describe a known role
+    private AuthenticatedUser verify(String token, long now) {
+        try {
+            Claims claims = Jwts.parser().setSigningKey(signingKey).parseClaimsJws(token).getBody();
+            String role = claims.get(ROLE_CLAIM, String.class);
+            if (claims.getId() == null || claims.getSubject() == null || role == null
+                    || claims.getIssuedAt() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            long expiresAt = claims.getExpiration().getTime();
+            if (expiresAt <= now) {
+                return null;
+            }
+            return new AuthenticatedUser(
+                Long.valueOf(claims.getSubject()),
+                claims.get(USERNAME_CLAIM, String.class),
+                User.Role.valueOf(role),
+                UUID.fromString(claims.getId()),
+                claims.getIssuedAt().getTime(),
+                expiresAt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // First 128 bits of the token's SHA-256
+    private static UUID hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new UUID(hash.getLong(), hash.getLong());
+    }
+}
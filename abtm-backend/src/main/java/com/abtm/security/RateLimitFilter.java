@@ -0,0 +1,82 @@
+package com.abtm.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Applies RateLimiter to the limited endpoints
+ *
+ * Requests authenticated by a token are limited per user, others per client
+ * IP (taken from clientIpHeader when the application runs behind a proxy
+ * that sets it). Clients can send their own X-Forwarded-For entries, so the
+ * address is the entry trustedProxies positions from the right: the one the
+ * outermost trusted proxy appended. Every limited response carries X-RateLimit-Limit,
+ * X-RateLimit-Remaining and X-RateLimit-Reset (seconds until the bucket is
+ * full); denied requests get 429 with Retry-After.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final String clientIpHeader;
+    private final int trustedProxies;
+
+    public RateLimitFilter(RateLimiter rateLimiter, String clientIpHeader, int trustedProxies) {
+        if (trustedProxies < 1) {
+            throw new IllegalArgumentException("trustedProxies must be at least 1: " + trustedProxies);
+        }
+        this.rateLimiter = rateLimiter;
+        this.clientIpHeader = clientIpHeader == null || clientIpHeader.isEmpty() ? null : clientIpHeader;
+        this.trustedProxies = trustedProxies;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.Limit limit = rateLimiter.limitFor(request.getMethod(), request.getServletPath());
+        if (limit == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RateLimiter.Decision decision = limit.acquire(clientKey(request));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(limit.getBurst()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(decision.getResetSeconds()));
+        if (!decision.isAllowed()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    // User ids and IPs hashed into disjoint key spaces (even / odd)
+    private long clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) authentication.getPrincipal()).getUserId() << 1;
+        }
+        return ((long) clientIp(request).hashCode() << 1) | 1;
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (clientIpHeader != null) {
+            String forwarded = request.getHeader(clientIpHeader);
+            if (forwarded != null && !forwarded.isEmpty()) {
+                // Entries left of the trusted ones are client-supplied; a shorter list starts at the client
+                String[] entries = forwarded.split(",");
+                return entries[Math.max(0, entries.length - trustedProxies)].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
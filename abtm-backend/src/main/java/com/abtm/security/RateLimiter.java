@@ -0,0 +1,240 @@
+package com.abtm.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket rate limits of the CPU-heavy endpoints, per user or client IP
+ *
+ * Each limit is a generic cell rate algorithm (equivalent to a token bucket
+ * of "burst" tokens refilled at "per-minute"): the whole bucket state is
+ * one long, the time at which it would be full again, kept in a fixed-size
+ * AtomicLongArray and updated with a single compare-and-set. Clients are
+ * hashed to a slot, so memory is bounded regardless of the number of
+ * clients; two clients sharing a slot share a bucket, which only ever makes
+ * the limit stricter. Idle slots need no cleanup: a bucket whose full-time
+ * is in the past is simply full.
+ */
+@Component
+public class RateLimiter {
+
+    @Value("${abtm.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${abtm.rate-limit.slots:65536}")
+    private int slots;
+
+    @Value("${abtm.rate-limit.analyze.per-minute:30}")
+    private int analyzePerMinute;
+
+    @Value("${abtm.rate-limit.analyze.burst:10}")
+    private int analyzeBurst;
+
+    @Value("${abtm.rate-limit.submit.per-minute:20}")
+    private int submitPerMinute;
+
+    @Value("${abtm.rate-limit.submit.burst:5}")
+    private int submitBurst;
+
+    @Value("${abtm.rate-limit.reanalyze.per-minute:20}")
+    private int reanalyzePerMinute;
+
+    @Value("${abtm.rate-limit.reanalyze.burst:5}")
+    private int reanalyzeBurst;
+
+    @Value("${abtm.rate-limit.live-open.per-minute:10}")
+    private int liveOpenPerMinute;
+
+    @Value("${abtm.rate-limit.live-open.burst:5}")
+    private int liveOpenBurst;
+
+    @Value("${abtm.rate-limit.live-input.per-minute:300}")
+    private int liveInputPerMinute;
+
+    @Value("${abtm.rate-limit.live-input.burst:30}")
+    private int liveInputBurst;
+
+    private final long origin = System.nanoTime();
+
+    private List<Limit> limits = Collections.emptyList();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        // Power of two so a slot is a mask of the hash
+        int size = Integer.highestOneBit(Math.max(slots, 1) * 2 - 1);
+        List<Limit> configured = new ArrayList<>();
+        configured.add(new Limit("analyze", "POST", "/api/scenarios/analyze", analyzePerMinute, analyzeBurst, size));
+        configured.add(new Limit("submit", "POST", "/api/scenarios/submit", submitPerMinute, submitBurst, size));
+        configured.add(new Limit("reanalyze", "POST", "/api/scenarios/*/reanalyze",
+            reanalyzePerMinute, reanalyzeBurst, size));
+        configured.add(new Limit("live-open", "GET", "/api/scenarios/live", liveOpenPerMinute, liveOpenBurst, size));
+        configured.add(new Limit("live-input", "POST", "/api/scenarios/live/*",
+            liveInputPerMinute, liveInputBurst, size));
+        limits = configured;
+    }
+
+    /**
+     * Limit applying to a request, or null when the endpoint is not limited
+     */
+    public Limit limitFor(String method, String path) {
+        for (Limit limit : limits) {
+            if (limit.method.equals(method) && limit.matches(path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counters per limited endpoint
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Limit limit : limits) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("endpoint", limit.method + " " + limit.path);
+            entry.put("perMinute", limit.perMinute);
+            entry.put("burst", limit.burst);
+            entry.put("allowed", limit.allowed.sum());
+            entry.put("limited", limit.limited.sum());
+            stats.put(limit.name, entry);
+        }
+        return stats;
+    }
+
+    // Strictly positive, so an untouched slot (0) reads as a full bucket
+    private long now() {
+        return System.nanoTime() - origin + 1;
+    }
+
+    public class Limit {
+        private final String name;
+        private final String method;
+        private final String path;
+        private final int perMinute;
+        private final int burst;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final AtomicLongArray fullAt;
+        private final int mask;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder limited = new LongAdder();
+
+        Limit(String name, String method, String path, int perMinute, int burst, int slots) {
+            this.name = name;
+            this.method = method;
+            this.path = path;
+            this.perMinute = perMinute;
+            this.burst = burst;
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(perMinute, 1);
+            this.toleranceNanos = intervalNanos * Math.max(burst, 1);
+            this.fullAt = new AtomicLongArray(slots);
+            this.mask = slots - 1;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        // Exact path, where a "*" segment matches one non-empty segment
+        private boolean matches(String requestPath) {
+            int r = 0;
+            for (int p = 0; p < path.length(); p++) {
+                char c = path.charAt(p);
+                if (c == '*') {
+                    int end = requestPath.indexOf('/', r);
+                    end = end < 0 ? requestPath.length() : end;
+                    if (end == r) {
+                        return false;
+                    }
+                    r = end;
+                } else if (r < requestPath.length() && requestPath.charAt(r) == c) {
+                    r++;
+                } else {
+                    return false;
+                }
+            }
+            return r == requestPath.length();
+        }
+
+        /**
+         * Take one token for a client key (64-bit hash of user id or IP)
+         */
+        public Decision acquire(long key) {
+            int slot = (int) (mix(key) & mask);
+            long now = now();
+            while (true) {
+                long current = fullAt.get(slot);
+                long next = Math.max(current, now) + intervalNanos;
+                long debt = next - now;
+                if (debt > toleranceNanos) {
+                    limited.increment();
+                    return new Decision(false, 0, debt - intervalNanos, debt - toleranceNanos);
+                }
+                if (fullAt.compareAndSet(slot, current, next)) {
+                    allowed.increment();
+                    return new Decision(true, (int) ((toleranceNanos - debt) / intervalNanos), debt, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Outcome of a token request: remaining tokens, time until the bucket is
+     * full again and, when denied, time until the next token
+     */
+    public static class Decision {
+        private final boolean allowed;
+        private final int remaining;
+        private final long resetNanos;
+        private final long retryAfterNanos;
+
+        Decision(boolean allowed, int remaining, long resetNanos, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.resetNanos = resetNanos;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public int getRemaining() {
+            return remaining;
+        }
+
+        public long getResetSeconds() {
+            return toSecondsCeil(resetNanos);
+        }
+
+        public long getRetryAfterSeconds() {
+            return Math.max(1, toSecondsCeil(retryAfterNanos));
+        }
+
+        private static long toSecondsCeil(long nanos) {
+            long second = TimeUnit.SECONDS.toNanos(1);
+            return (nanos + second - 1) / second;
+        }
+    }
+
+    // Finalizer of SplitMix64: spreads similar keys (sequential user ids, neighbouring IPs) over the slots
+    static long mix(long key) {
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+}
@@ -0,0 +1,79 @@
+package com.abtm.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked tokens
+ *
+ * Holds only what is needed to reject a token before it expires: the ids of
+ * individually revoked tokens (until their expiry) and, per user, the time
+ * before which all of the user's tokens are revoked (for one token
+ * lifetime). Expired entries are purged, so the list never outgrows the
+ * revocations of the last jwt.expiration milliseconds.
+ */
+@Component
+public class TokenDenyList {
+
+    // Token id -> expiry (epoch millis)
+    private final Map<UUID, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // User id -> tokens issued at or before this time are revoked (epoch millis)
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    @Value("${jwt.expiration}")
+    private long expirationMillis;
+
+    /**
+     * Revoke one token (logout)
+     */
+    public void revoke(AuthenticatedUser principal) {
+        revoke(principal.getTokenId(), principal.getExpiresAtMillis());
+    }
+
+    /**
+     * Revoke one token by id (a logout on another node)
+     */
+    public void revoke(UUID tokenId, long expiresAtMillis) {
+        revokedTokens.put(tokenId, expiresAtMillis);
+    }
+
+    /**
+     * Revoke every token issued to a user so far (account deleted or credentials changed)
+     */
+    public void revokeUser(Long userId) {
+        revokeUser(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Revoke every token issued to a user up to a time (epoch millis)
+     */
+    public void revokeUser(Long userId, long revokedAtMillis) {
+        revokedUsers.merge(userId, revokedAtMillis, Math::max);
+    }
+
+    public boolean isRevoked(AuthenticatedUser principal) {
+        if (revokedTokens.containsKey(principal.getTokenId())) {
+            return true;
+        }
+        Long revokedBefore = revokedUsers.get(principal.getUserId());
+        // iat has second precision: a token issued in the same second as the revocation is rejected too
+        return revokedBefore != null && principal.getIssuedAtMillis() <= revokedBefore;
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${abtm.security.deny-list-purge-ms:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(revokedAt -> revokedAt + expirationMillis <= now);
+    }
+}
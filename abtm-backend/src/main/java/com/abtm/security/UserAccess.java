@@ -0,0 +1,29 @@
+package com.abtm.security;
+
+/**
+ * Which user's data a request may act on
+ *
+ * A request authenticated by a token acts as its own user only. Requests
+ * without a token reach per-user endpoints only when
+ * abtm.security.require-authentication=false (development), and are not
+ * restricted.
+ */
+public final class UserAccess {
+
+    private UserAccess() {
+    }
+
+    /**
+     * Whether the principal (null without a token) may act on the given user's data
+     */
+    public static boolean allows(AuthenticatedUser principal, Long userId) {
+        return principal == null || principal.getUserId().equals(userId);
+    }
+
+    /**
+     * User whose data is restricted to, or null when any user's is accessible
+     */
+    public static Long ownerOf(AuthenticatedUser principal) {
+        return principal != null ? principal.getUserId() : null;
+    }
+}
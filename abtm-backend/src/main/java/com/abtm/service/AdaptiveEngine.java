@@ -0,0 +1,129 @@
+package com.abtm.service;
+
+import com.abtm.model.Exercise;
+import com.abtm.model.Module;
+import com.abtm.model.User;
+import com.abtm.monitoring.jfr.AdaptiveEngineEvent;
+import com.abtm.repository.ExerciseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class AdaptiveEngine {
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private ProgressTracker progressTracker;
+
+    /**
+     * Get recommended next module for user
+     */
+    public Module getNextModule(User user) {
+        AdaptiveEngineEvent event = startEvent();
+        ProgressTracker.Catalog catalog = progressTracker.getCatalog();
+        ProgressTracker.UserProgress progress = progressTracker.getProgress(user.getId());
+
+        // Find first active module without a completed exercise
+        for (Module module : catalog.getActiveModules()) {
+            if (!progress.hasCompletedAny(catalog.moduleSlot(module))) {
+                commitEvent(event, "getNextModule", user, module, 1, 0);
+                return module;
+            }
+        }
+
+        // All modules completed (or none active), return null
+        commitEvent(event, "getNextModule", user, null, 0, 0);
+        return null;
+    }
+
+    /**
+     * Get recommended exercises for user in a module
+     */
+    public List<Exercise> getRecommendedExercises(User user, Module module) {
+        AdaptiveEngineEvent event = startEvent();
+        // Get all exercises for module filtered by role
+        List<Exercise> exercises = exerciseRepository.findByModuleAndRole(module, user.getRole());
+        commitEvent(event, "getRecommendedExercises", user, module, exercises.size(), 0);
+        return exercises;
+    }
+
+    /**
+     * Check if user can progress to next module
+     */
+    public boolean canProgressToNextModule(User user, Module currentModule) {
+        AdaptiveEngineEvent event = startEvent();
+        int slot = progressTracker.getCatalog().moduleSlot(currentModule);
+        ProgressTracker.UserProgress progress = progressTracker.getProgress(user.getId());
+
+        if (!progress.hasAttempted(slot)) {
+            commitEvent(event, "canProgressToNextModule", user, currentModule, 0, 0);
+            return false;
+        }
+
+        // User can progress if average score >= passing score (default 70)
+        Double passingScore = currentModule.getPassingScore();
+        if (passingScore == null) {
+            passingScore = 70.0;
+        }
+
+        double averageScore = progress.averageScore(slot);
+        boolean canProgress = averageScore >= passingScore;
+        commitEvent(event, "canProgressToNextModule", user, currentModule, canProgress ? 1 : 0, averageScore);
+        return canProgress;
+    }
+
+    /**
+     * Get user's weak areas (exercises with low scores)
+     */
+    public List<Exercise> getWeakAreas(User user, Module module) {
+        AdaptiveEngineEvent event = startEvent();
+        int slot = progressTracker.getCatalog().moduleSlot(module);
+        List<Exercise> weakExercises = progressTracker.getProgress(user.getId()).weakExercises(slot);
+        commitEvent(event, "getWeakAreas", user, module, weakExercises.size(), 0);
+        return weakExercises;
+    }
+
+    /**
+     * Get user's progress percentage in a module
+     */
+    public double getModuleProgress(User user, Module module) {
+        AdaptiveEngineEvent event = startEvent();
+        ProgressTracker.Catalog catalog = progressTracker.getCatalog();
+        int slot = catalog.moduleSlot(module);
+
+        int exerciseCount = catalog.exerciseCount(slot);
+        if (exerciseCount == 0) {
+            commitEvent(event, "getModuleProgress", user, module, 0, 0.0);
+            return 0.0;
+        }
+
+        // Completed exercises (score >= 70)
+        int completedCount = progressTracker.getProgress(user.getId()).completedCount(slot);
+        double percentage = (double) completedCount / exerciseCount * 100.0;
+        commitEvent(event, "getModuleProgress", user, module, completedCount, percentage);
+        return percentage;
+    }
+
+    // Flight Recorder event per decision; a no-op unless a recording enables it
+    private static AdaptiveEngineEvent startEvent() {
+        AdaptiveEngineEvent event = new AdaptiveEngineEvent();
+        event.startMeasuring();
+        return event;
+    }
+
+    private static void commitEvent(AdaptiveEngineEvent event, String operation, User user, Module module,
+                                    int resultSize, double value) {
+        if (event.stopMeasuring()) {
+            event.setOperation(operation);
+            event.setUserId(user.getId());
+            event.setModuleId(module != null ? module.getId() : 0);
+            event.setResultSize(resultSize);
+            event.setValue(value);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.abtm.service;
+
+import com.abtm.analyzer.ScenarioAnalyzer;
+import com.abtm.monitoring.RequestTiming;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scenario analysis for request threads and live sessions, run on a core-sized pool
+ *
+ * Analysis is CPU work; running it on at most one thread per core keeps a
+ * burst of submissions from starving the request threads that serve
+ * catalog reads and logins. A request is admitted only if it can start
+ * within its deadline (abtm.analysis.deadline-ms from the call): when the
+ * queue is full, or the expected completion time (tasks ahead x average
+ * analysis time / threads) already exceeds the deadline, it is rejected at once
+ * with AnalysisRejectedException. WebConfig runs the same check before the
+ * request body is read, so shed requests are not even parsed. A task whose
+ * deadline passes while it waits in the queue is dropped without being
+ * analyzed.
+ */
+@Service
+public class AnalysisBulkhead {
+
+    // Weight of the newest analysis in the running average used for admission
+    private static final double AVERAGE_WEIGHT = 0.05;
+
+    @Autowired
+    private ScenarioAnalysisService scenarioAnalysisService;
+
+    @Value("${abtm.analysis.threads:0}")
+    private int threads;
+
+    @Value("${abtm.analysis.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${abtm.analysis.deadline-ms:2000}")
+    private long deadlineMillis;
+
+    private ThreadPoolExecutor executor;
+
+    // Running average of the analysis time, in nanoseconds
+    private final AtomicLong averageNanos = new AtomicLong();
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejectedEarly = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedDeadline = new LongAdder();
+    private final LongAdder expiredInQueue = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "analysis-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Analyze on the pool and wait for the result, within the deadline
+     *
+     * @throws AnalysisRejectedException when shed (queue full, deadline unreachable or passed)
+     */
+    public ScenarioAnalyzer.AnalysisResult analyze(String content) {
+        long submitted = System.nanoTime();
+        long deadline = submitted + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+
+        if (!canMeetDeadline()) {
+            rejectedDeadline.increment();
+            throw new AnalysisRejectedException("Analysis is overloaded, retry shortly");
+        }
+
+        RequestTiming timing = RequestTiming.current();
+        Future<ScenarioAnalyzer.AnalysisResult> future;
+        try {
+            future = executor.submit(() -> run(content, submitted, deadline, timing));
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            throw new AnalysisRejectedException("Analysis is overloaded, retry shortly");
+        }
+
+        try {
+            return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Still queued: frees its slot; already running: it finishes unobserved
+            future.cancel(false);
+            executor.remove((Runnable) future);
+            timedOut.increment();
+            throw new AnalysisRejectedException("Analysis timed out, retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while analyzing scenario", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AnalysisRejectedException) {
+                throw (AnalysisRejectedException) e.getCause();
+            }
+            throw new RuntimeException("Scenario analysis failed", e.getCause());
+        }
+    }
+
+    /**
+     * Analyze on the pool without waiting (live analysis sessions), under the same admission rules
+     *
+     * The future fails with AnalysisRejectedException when the analysis is shed.
+     */
+    public CompletableFuture<ScenarioAnalyzer.AnalysisResult> analyzeAsync(String content) {
+        long submitted = System.nanoTime();
+        long deadline = submitted + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+
+        if (!canMeetDeadline()) {
+            rejectedDeadline.increment();
+            return CompletableFuture.failedFuture(new AnalysisRejectedException("Analysis is overloaded"));
+        }
+        CompletableFuture<ScenarioAnalyzer.AnalysisResult> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(run(content, submitted, deadline, null));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            return CompletableFuture.failedFuture(new AnalysisRejectedException("Analysis is overloaded"));
+        }
+        return result;
+    }
+
+    /**
+     * Whether a new request would be shed; checked before the request body is even read
+     */
+    public boolean isOverloaded() {
+        if (executor.getQueue().remainingCapacity() == 0 || !canMeetDeadline()) {
+            rejectedEarly.increment();
+            return true;
+        }
+        return false;
+    }
+
+    // Expected time until a new task completes ((running + queued + itself) x average analysis time / threads)
+    private boolean canMeetDeadline() {
+        long tasksAhead = executor.getActiveCount() + executor.getQueue().size() + 1;
+        long expectedWaitNanos = tasksAhead * averageNanos.get() / executor.getMaximumPoolSize();
+        return expectedWaitNanos <= TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+    }
+
+    /**
+     * Pool occupancy, requests shed by reason, and analysis and queue times
+     */
+    public Map<String, Object> getStats() {
+        long done = completed.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", executor.getPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("deadlineMillis", deadlineMillis);
+        stats.put("completed", done);
+        stats.put("rejectedBeforeBody", rejectedEarly.sum());
+        stats.put("rejectedQueueFull", rejectedQueueFull.sum());
+        stats.put("rejectedDeadline", rejectedDeadline.sum());
+        stats.put("expiredInQueue", expiredInQueue.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("averageAnalysisMillis", toMillis(averageNanos.get()));
+        stats.put("averageWaitMillis", done > 0 ? toMillis(totalWaitNanos.sum() / done) : 0.0);
+        return stats;
+    }
+
+    // On a pool thread; a task that waited past its deadline is dropped unanalyzed
+    private ScenarioAnalyzer.AnalysisResult run(String content, long submitted, long deadline, RequestTiming timing) {
+        long start = System.nanoTime();
+        if (start > deadline) {
+            expiredInQueue.increment();
+            throw new AnalysisRejectedException("Analysis deadline passed while queued, retry shortly");
+        }
+        totalWaitNanos.add(start - submitted);
+        if (timing != null) {
+            timing.add("analysis-queue", start - submitted);
+        }
+        RequestTiming.bind(timing);
+        try {
+            return scenarioAnalysisService.analyze(content);
+        } finally {
+            RequestTiming.bind(null);
+            recordAnalysis(System.nanoTime() - start);
+        }
+    }
+
+    private void recordAnalysis(long nanos) {
+        completed.increment();
+        averageNanos.updateAndGet(average -> average == 0 ? nanos
+            : Math.round(average + AVERAGE_WEIGHT * (nanos - average)));
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.abtm.service;
+
+/**
+ * Thrown when the analysis pool sheds a request (queue full, or its deadline
+ * cannot be met); callers should answer 503 and let the client retry
+ */
+public class AnalysisRejectedException extends RuntimeException {
+
+    public AnalysisRejectedException(String message) {
+        super(message);
+    }
+}
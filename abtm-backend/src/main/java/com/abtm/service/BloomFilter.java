@@ -0,0 +1,101 @@
+package com.abtm.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Set membership with no false negatives and a bounded false positive rate
+ *
+ * Bits are kept in an AtomicLongArray and set with compare-and-set, so
+ * concurrent adds never lose each other and lookups take no lock. The k
+ * probe positions are derived from one 64-bit hash by double hashing.
+ * Values cannot be removed: a deleted entry keeps answering "maybe".
+ */
+public class BloomFilter {
+
+    private static final long MAX_BITS = 1L << 36;
+
+    private final AtomicLongArray words;
+    private final long mask;
+    private final int hashes;
+
+    private BloomFilter(long bits, int hashes) {
+        this.words = new AtomicLongArray((int) (bits >>> 6));
+        this.mask = bits - 1;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Filter sized for the expected number of values at the given false positive rate
+     */
+    public static BloomFilter create(long expectedValues, double falsePositiveRate) {
+        long n = Math.max(expectedValues, 1);
+        double optimalBits = -n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        // Power of two so a probe is a mask of the hash
+        long bits = Math.min(MAX_BITS, Math.max(64, Long.highestOneBit((long) Math.ceil(optimalBits) * 2 - 1)));
+        int hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / n * Math.log(2))));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashes; i++, hash += step) {
+            long bit = hash & mask;
+            int word = (int) (bit >>> 6);
+            long flag = 1L << bit;
+            long current = words.get(word);
+            while ((current & flag) == 0 && !words.compareAndSet(word, current, current | flag)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * False: the value was never added; true: it probably was
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashes; i++, hash += step) {
+            long bit = hash & mask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBits() {
+        return mask + 1;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    /**
+     * False positive rate at the current fill (scans the bit array)
+     */
+    public double estimatedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / getBits(), hashes);
+    }
+
+    // FNV-1a over the characters, then a SplitMix64 finalizer to spread the bits
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+}
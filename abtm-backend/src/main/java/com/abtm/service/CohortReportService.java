@@ -0,0 +1,206 @@
+package com.abtm.service;
+
+import com.abtm.model.User;
+import com.abtm.repository.CohortReportRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cohort progress report for instructors
+ *
+ * Two aggregate queries cover the whole cohort (module catalog, then one row
+ * per student and module), whatever its size. Student rows are written to
+ * the output as they are read; only the per-module totals are kept in memory.
+ *
+ * Progress, pass and completion follow AdaptiveEngine: an exercise counts as
+ * completed at a performance score of 70, a module is passed when the average
+ * score reaches its passing score (70 when unset).
+ */
+@Service
+public class CohortReportService {
+
+    @Autowired
+    private CohortReportRepository reportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Write the report for the users matching the filter (all users when empty) as JSON
+     */
+    @Transactional(readOnly = true)
+    public void writeReport(List<Long> userIds, User.Role role,
+                            LocalDateTime registeredFrom, LocalDateTime registeredTo,
+                            OutputStream out) throws IOException {
+        Map<Long, ModuleTotals> modules = new LinkedHashMap<>();
+        reportRepository.streamModules(rs -> {
+            ModuleTotals totals = new ModuleTotals(rs);
+            modules.put(totals.moduleId, totals);
+        });
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("generatedAt", LocalDateTime.now().toString());
+            json.writeArrayFieldStart("students");
+
+            StudentWriter students = new StudentWriter(json, modules);
+            try {
+                reportRepository.streamProgress(userIds, role, registeredFrom, registeredTo, students::row);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            students.finish();
+
+            json.writeEndArray();
+            json.writeNumberField("studentCount", students.count);
+            json.writeArrayFieldStart("modules");
+            for (ModuleTotals totals : modules.values()) {
+                totals.write(json, students.count);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Groups the ordered (user, module) rows into one JSON object per student
+     */
+    private static class StudentWriter {
+        private final JsonGenerator json;
+        private final Map<Long, ModuleTotals> modules;
+        private Long currentUser;
+        private int count;
+
+        StudentWriter(JsonGenerator json, Map<Long, ModuleTotals> modules) {
+            this.json = json;
+            this.modules = modules;
+        }
+
+        void row(ResultSet rs) throws SQLException {
+            try {
+                long userId = rs.getLong("user_id");
+                if (currentUser == null || currentUser != userId) {
+                    finish();
+                    currentUser = userId;
+                    count++;
+                    json.writeStartObject();
+                    json.writeNumberField("userId", userId);
+                    json.writeStringField("username", rs.getString("username"));
+                    json.writeStringField("role", rs.getString("role"));
+                    json.writeArrayFieldStart("modules");
+                }
+
+                ModuleTotals totals = modules.get(rs.getLong("module_id"));
+                int attempted = rs.getInt("attempted");
+                int completed = rs.getInt("completed");
+                double averageScore = rs.getDouble("average_score");
+                int submissions = rs.getInt("submissions");
+                int scored = rs.getInt("scored");
+                double sqsSum = rs.getDouble("sqs_sum");
+
+                double progress = totals.exerciseCount > 0 ? (double) completed / totals.exerciseCount * 100.0 : 0.0;
+                boolean passed = attempted > 0 && averageScore >= totals.passingScore;
+                totals.add(attempted, completed, progress, passed, scored, sqsSum);
+
+                json.writeStartObject();
+                json.writeNumberField("moduleId", totals.moduleId);
+                json.writeNumberField("attempted", attempted);
+                json.writeNumberField("completed", completed);
+                json.writeNumberField("progress", round(progress));
+                json.writeNumberField("averageScore", round(averageScore));
+                json.writeBooleanField("passed", passed);
+                json.writeNumberField("submissions", submissions);
+                json.writeNumberField("averageSqs", scored > 0 ? round(sqsSum / scored) : 0.0);
+                json.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (currentUser != null) {
+                json.writeEndArray();
+                json.writeEndObject();
+                currentUser = null;
+            }
+        }
+    }
+
+    /**
+     * Running totals of one module across the cohort
+     */
+    private static class ModuleTotals {
+        private final long moduleId;
+        private final String title;
+        private final int moduleOrder;
+        private final double passingScore;
+        private final int exerciseCount;
+        private int started;
+        private int passed;
+        private int completedAll;
+        private double progressSum;
+        private long scored;
+        private double sqsSum;
+
+        ModuleTotals(ResultSet rs) throws SQLException {
+            this.moduleId = rs.getLong("id");
+            this.title = rs.getString("title");
+            this.moduleOrder = rs.getInt("module_order");
+            double passing = rs.getDouble("passing_score");
+            this.passingScore = rs.wasNull() ? 70.0 : passing;
+            this.exerciseCount = rs.getInt("exercise_count");
+        }
+
+        void add(int attempted, int completed, double progress, boolean modulePassed, int scoredSubmissions,
+                 double submissionSqsSum) {
+            if (attempted > 0) {
+                started++;
+            }
+            if (modulePassed) {
+                passed++;
+            }
+            if (exerciseCount > 0 && completed >= exerciseCount) {
+                completedAll++;
+            }
+            progressSum += progress;
+            scored += scoredSubmissions;
+            sqsSum += submissionSqsSum;
+        }
+
+        void write(JsonGenerator json, int students) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("moduleId", moduleId);
+            json.writeStringField("title", title);
+            json.writeNumberField("moduleOrder", moduleOrder);
+            json.writeNumberField("exerciseCount", exerciseCount);
+            json.writeNumberField("studentsStarted", started);
+            json.writeNumberField("studentsPassed", passed);
+            json.writeNumberField("passRate", students > 0 ? round((double) passed / students * 100.0) : 0.0);
+            json.writeNumberField("studentsCompleted", completedAll);
+            json.writeNumberField("completionRate",
+                students > 0 ? round((double) completedAll / students * 100.0) : 0.0);
+            json.writeNumberField("averageProgress", students > 0 ? round(progressSum / students) : 0.0);
+            json.writeNumberField("averageSqs", scored > 0 ? round(sqsSum / scored) : 0.0);
+            json.writeEndObject();
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.abtm.service;
+
+/**
+ * Thrown when an idempotency key cannot be honoured: it was used for a
+ * different request (callers should answer 422), or the original request is
+ * still running after the wait (409, the client retries later)
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final boolean inProgress;
+
+    public IdempotencyConflictException(String message, boolean inProgress) {
+        super(message);
+        this.inProgress = inProgress;
+    }
+
+    public boolean isInProgress() {
+        return inProgress;
+    }
+}
@@ -0,0 +1,218 @@
+package com.abtm.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Results of recent requests by idempotency key, so a retried request is answered without being redone
+ *
+ * The first request with a key runs; its result is kept for
+ * abtm.idempotency.ttl-ms (at most abtm.idempotency.max-keys keys, least
+ * recently used evicted first) and returned to every repeat. A repeat that
+ * arrives while the first is still running waits for it (up to
+ * abtm.idempotency.wait-ms). Results the caller does not keep (e.g. an
+ * overloaded server) and failures are forgotten, so the next repeat, or a
+ * waiting one, runs again. A key reused for a different request, told apart
+ * by its fingerprint, is rejected. Keys live in this node's memory only.
+ */
+@Service
+public class IdempotencyStore {
+
+    // Outcome of a run that was not kept: waiters run the request themselves
+    private static final Object NOT_KEPT = new Object();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Value("${abtm.idempotency.max-keys:10000}")
+    private int maxKeys;
+
+    @Value("${abtm.idempotency.ttl-ms:86400000}")
+    private long ttlMillis;
+
+    @Value("${abtm.idempotency.wait-ms:10000}")
+    private long waitMillis;
+
+    // Access-ordered for LRU eviction; guarded by itself
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxKeys;
+        }
+    };
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Run an action once per key, or return the kept result of the run with the same key
+     *
+     * @param fingerprint identifies the request (see fingerprint()); a repeat must match it
+     * @param keep        whether a result is kept for repeats
+     * @throws IdempotencyConflictException when the key belongs to another request, or its run outlasts the wait
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String key, String fingerprint, Supplier<T> action, Predicate<T> keep) {
+        while (true) {
+            Entry entry = new Entry(fingerprint);
+            Entry existing;
+            synchronized (entries) {
+                existing = entries.get(key);
+                if (existing != null && existing.expiresAt <= System.currentTimeMillis()) {
+                    entries.remove(key);
+                    existing = null;
+                }
+                if (existing == null) {
+                    entries.put(key, entry);
+                }
+            }
+            if (existing == null) {
+                return new Result<>(run(key, entry, action, keep), false);
+            }
+
+            if (!existing.fingerprint.equals(fingerprint)) {
+                mismatches.increment();
+                throw new IdempotencyConflictException("Idempotency-Key was already used for a different request", false);
+            }
+            if (!existing.outcome.isDone()) {
+                waits.increment();
+            }
+            Object outcome;
+            try {
+                outcome = existing.outcome.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                timeouts.increment();
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress", true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the original request", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Idempotent run failed", e.getCause());
+            }
+            if (outcome != NOT_KEPT) {
+                replays.increment();
+                return new Result<>((T) outcome, true);
+            }
+            // The first run failed or was not kept: this repeat takes its place
+        }
+    }
+
+    /**
+     * SHA-256 of the parts of a request that a repeat must send unchanged
+     */
+    public static String fingerprint(Object... parts) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        for (Object part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("keys", entries.size());
+        }
+        stats.put("maxKeys", maxKeys);
+        stats.put("ttlMillis", ttlMillis);
+        stats.put("executions", executions.sum());
+        stats.put("replays", replays.sum());
+        stats.put("waitedForInFlight", waits.sum());
+        stats.put("keyReusedForOtherRequest", mismatches.sum());
+        stats.put("waitTimeouts", timeouts.sum());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${abtm.idempotency.purge-ms:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.expiresAt <= now);
+        }
+    }
+
+    private <T> T run(String key, Entry entry, Supplier<T> action, Predicate<T> keep) {
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            forget(key, entry);
+            throw e;
+        }
+        executions.increment();
+        if (keep.test(result)) {
+            entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+            entry.outcome.complete(result);
+        } else {
+            forget(key, entry);
+        }
+        return result;
+    }
+
+    private void forget(String key, Entry entry) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+        entry.outcome.complete(NOT_KEPT);
+    }
+
+    private static class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<Object> outcome = new CompletableFuture<>();
+        // In flight until completed
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * A result, and whether it was kept from an earlier run rather than produced now
+     */
+    public static class Result<T> {
+        private final T value;
+        private final boolean replayed;
+
+        Result(T value, boolean replayed) {
+            this.value = value;
+            this.replayed = replayed;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
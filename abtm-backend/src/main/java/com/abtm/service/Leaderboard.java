@@ -0,0 +1,257 @@
+package com.abtm.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranking of users by score, highest first
+ *
+ * Backed by an order-statistic treap (each node knows its subtree size), so
+ * updates, "my rank" and the start of a top-K listing are O(log n). Equal
+ * scores share a rank (1, 2, 2, 4) and are listed by user id.
+ * Reads run concurrently; updates take the write lock.
+ */
+public class Leaderboard {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> byUser = new HashMap<>();
+    private Node root;
+
+    /**
+     * Set a user's score, replacing the previous one
+     */
+    public void put(Long userId, String username, double score) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = byUser.get(userId);
+            if (previous != null) {
+                if (previous.score == score && Objects.equals(previous.username, username)) {
+                    return;
+                }
+                root = delete(root, previous);
+            }
+            Entry entry = new Entry(userId, username, score);
+            byUser.put(userId, entry);
+            Node[] parts = split(root, entry);
+            root = merge(merge(parts[0], new Node(entry)), parts[1]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = byUser.remove(userId);
+            if (previous != null) {
+                root = delete(root, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Score of a user, or null when not ranked
+     */
+    public Double getScore(Long userId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byUser.get(userId);
+            return entry != null ? entry.score : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank and score of a user, or null when not ranked
+     */
+    public Standing getStanding(Long userId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byUser.get(userId);
+            if (entry == null) {
+                return null;
+            }
+            // Everyone with a strictly higher score ranks ahead
+            int ahead = countBefore(root, new Entry(Long.MIN_VALUE, null, entry.score));
+            return new Standing(ahead + 1, entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The first k users in rank order
+     */
+    public List<Standing> top(int k) {
+        lock.readLock().lock();
+        try {
+            List<Standing> result = new ArrayList<>(Math.min(k, size(root)));
+            Deque<Node> stack = new ArrayDeque<>();
+            Node node = root;
+            int position = 0;
+            int rank = 0;
+            double previousScore = Double.NaN;
+            while ((node != null || !stack.isEmpty()) && result.size() < k) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+                node = stack.pop();
+                position++;
+                if (node.entry.score != previousScore) {
+                    rank = position;
+                    previousScore = node.entry.score;
+                }
+                result.add(new Standing(rank, node.entry));
+                node = node.right;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Order: score descending, then user id ascending
+    private static int compare(Entry a, Entry b) {
+        int byScore = Double.compare(b.score, a.score);
+        return byScore != 0 ? byScore : Long.compare(a.userId, b.userId);
+    }
+
+    // Number of entries ordered before key
+    private static int countBefore(Node node, Entry key) {
+        int count = 0;
+        while (node != null) {
+            if (compare(node.entry, key) < 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    // [entries before key, entries from key on]
+    private static Node[] split(Node node, Entry key) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (compare(node.entry, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            node.update();
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        node.update();
+        return new Node[] {parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node delete(Node node, Entry key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(key, node.entry);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, key);
+        } else {
+            node.right = delete(node.right, key);
+        }
+        node.update();
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static class Node {
+        final Entry entry;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(Entry entry) {
+            this.entry = entry;
+        }
+
+        void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+
+    private static class Entry {
+        final long userId;
+        final String username;
+        final double score;
+
+        Entry(long userId, String username, double score) {
+            this.userId = userId;
+            this.username = username;
+            this.score = score;
+        }
+    }
+
+    /**
+     * A user's position on the board
+     */
+    public static class Standing {
+        private final int rank;
+        private final long userId;
+        private final String username;
+        private final double score;
+
+        Standing(int rank, Entry entry) {
+            this.rank = rank;
+            this.userId = entry.userId;
+            this.username = entry.username;
+            this.score = entry.score;
+        }
+
+        public int getRank() { return rank; }
+        public long getUserId() { return userId; }
+        public String getUsername() { return username; }
+        public double getScore() { return Math.round(score * 100.0) / 100.0; }
+    }
+}
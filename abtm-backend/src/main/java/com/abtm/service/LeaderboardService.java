@@ -0,0 +1,202 @@
+package com.abtm.service;
+
+import com.abtm.event.ScenarioEvent;
+import com.abtm.model.Scenario;
+import com.abtm.repository.ScenarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-exercise and per-module leaderboards kept in memory
+ *
+ * An exercise board ranks users by their best overall SQS on the exercise;
+ * a module board ranks them by the sum of their bests over the module's
+ * exercises. Boards are rebuilt from scenarios once the application is
+ * ready and then updated on every submission, reanalysis and deletion
+ * (on another node: refresh() from CacheInvalidationBus).
+ * Moving an exercise to another module takes effect at the next rebuild.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    @Autowired
+    private ScenarioRepository scenarioRepository;
+
+    private volatile Map<Long, Leaderboard> exerciseBoards = new ConcurrentHashMap<>();
+    private volatile Map<Long, Leaderboard> moduleBoards = new ConcurrentHashMap<>();
+    private volatile Map<Long, Long> exerciseModules = new ConcurrentHashMap<>();
+
+    /**
+     * Load all boards from the best score of every user on every exercise
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, Leaderboard> exercises = new ConcurrentHashMap<>();
+        Map<Long, Leaderboard> modules = new ConcurrentHashMap<>();
+        Map<Long, Long> mapping = new ConcurrentHashMap<>();
+        Map<Long, Map<Long, Double>> moduleTotals = new HashMap<>();
+        Map<Long, String> usernames = new HashMap<>();
+
+        List<Object[]> rows = scenarioRepository.findBestSqsPerUserAndExercise();
+        for (Object[] row : rows) {
+            Long userId = (Long) row[0];
+            String username = (String) row[1];
+            Long exerciseId = (Long) row[2];
+            Long moduleId = (Long) row[3];
+            double best = (Double) row[4];
+
+            exercises.computeIfAbsent(exerciseId, id -> new Leaderboard()).put(userId, username, best);
+            mapping.put(exerciseId, moduleId);
+            moduleTotals.computeIfAbsent(moduleId, id -> new HashMap<>()).merge(userId, best, Double::sum);
+            usernames.put(userId, username);
+        }
+        moduleTotals.forEach((moduleId, totals) -> {
+            Leaderboard board = modules.computeIfAbsent(moduleId, id -> new Leaderboard());
+            totals.forEach((userId, total) -> board.put(userId, usernames.get(userId), round(total)));
+        });
+
+        exerciseBoards = exercises;
+        moduleBoards = modules;
+        exerciseModules = mapping;
+        log.info("Leaderboards rebuilt: {} exercises, {} modules from {} user scores in {} ms",
+            exercises.size(), modules.size(), rows.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Apply a saved submission or reanalysis
+     *
+     * @param previousSqs score of the scenario before reanalysis, null for a new submission
+     */
+    public void recordScenario(ScenarioEvent event, Double previousSqs) {
+        Double sqs = event.getOverallSqs();
+        Long userId = event.getUserId();
+        Long exerciseId = event.getExerciseId();
+
+        Double best;
+        synchronized (this) {
+            best = exerciseBoard(exerciseId).getScore(userId);
+            if (sqs != null && (best == null || sqs > best)) {
+                setBest(userId, event.getUsername(), exerciseId, event.getModuleId(), sqs);
+                return;
+            }
+            if (best == null || previousSqs == null || !previousSqs.equals(best) || (sqs != null && sqs >= best)) {
+                return;
+            }
+        }
+        // The best submission was marked down; another one may be the best now
+        replaceBest(userId, event.getUsername(), exerciseId, event.getModuleId(), best);
+    }
+
+    /**
+     * Apply a deleted scenario
+     */
+    public void scenarioDeleted(Scenario scenario) {
+        Long userId = scenario.getUser().getId();
+        Long exerciseId = scenario.getExercise().getId();
+
+        Double best;
+        synchronized (this) {
+            best = exerciseBoard(exerciseId).getScore(userId);
+        }
+        if (best != null && best.equals(scenario.getOverallSqs())) {
+            replaceBest(userId, scenario.getUser().getUsername(), exerciseId,
+                scenario.getExercise().getModule().getId(), best);
+        }
+    }
+
+    // Reload the best score without holding the lock (no monitor across JDBC); a change meanwhile wins
+    private void replaceBest(Long userId, String username, Long exerciseId, Long moduleId, Double previousBest) {
+        Double reloaded = scenarioRepository.findBestSqs(userId, exerciseId);
+        synchronized (this) {
+            if (previousBest.equals(exerciseBoard(exerciseId).getScore(userId))) {
+                setBest(userId, username, exerciseId, moduleId, reloaded);
+            }
+        }
+    }
+
+    /**
+     * Reload a user's best on an exercise from the scenarios table
+     */
+    public void refresh(Long userId, Long exerciseId) {
+        List<Object[]> rows = scenarioRepository.findBestSqsWithUser(userId, exerciseId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        Object[] row = rows.get(0);
+        synchronized (this) {
+            setBest(userId, (String) row[0], exerciseId, (Long) row[1], (Double) row[2]);
+        }
+    }
+
+    /**
+     * Drop a user from every board
+     */
+    public synchronized void removeUser(Long userId) {
+        exerciseBoards.values().forEach(board -> board.remove(userId));
+        moduleBoards.values().forEach(board -> board.remove(userId));
+    }
+
+    public Leaderboard getExerciseBoard(Long exerciseId) {
+        Leaderboard board = exerciseBoards.get(exerciseId);
+        return board != null ? board : new Leaderboard();
+    }
+
+    public Leaderboard getModuleBoard(Long moduleId) {
+        Leaderboard board = moduleBoards.get(moduleId);
+        return board != null ? board : new Leaderboard();
+    }
+
+    // Replace the user's best on the scenario's exercise (null removes it) and adjust the module total
+    private void setBest(Long userId, String username, Long exerciseId, Long exerciseModuleId, Double newBest) {
+        Long moduleId = exerciseModules.computeIfAbsent(exerciseId, id -> exerciseModuleId);
+
+        Leaderboard exerciseBoard = exerciseBoard(exerciseId);
+        Double oldBest = exerciseBoard.getScore(userId);
+        if (newBest != null) {
+            exerciseBoard.put(userId, username, newBest);
+        } else {
+            exerciseBoard.remove(userId);
+        }
+
+        Leaderboard moduleBoard = moduleBoards.computeIfAbsent(moduleId, id -> new Leaderboard());
+        Double total = moduleBoard.getScore(userId);
+        double updated = (total != null ? total : 0.0) - (oldBest != null ? oldBest : 0.0)
+            + (newBest != null ? newBest : 0.0);
+        if (newBest == null && !hasScoreInModule(userId, moduleId)) {
+            moduleBoard.remove(userId);
+        } else {
+            moduleBoard.put(userId, username, round(updated));
+        }
+    }
+
+    private boolean hasScoreInModule(Long userId, Long moduleId) {
+        for (Map.Entry<Long, Long> entry : exerciseModules.entrySet()) {
+            Leaderboard board = exerciseBoards.get(entry.getKey());
+            if (entry.getValue().equals(moduleId) && board != null && board.getScore(userId) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Leaderboard exerciseBoard(Long exerciseId) {
+        return exerciseBoards.computeIfAbsent(exerciseId, id -> new Leaderboard());
+    }
+
+    // Keep sums of doubles stable so equal totals tie exactly
+    private static double round(double value) {
+        return Math.round(value * 10000.0) / 10000.0;
+    }
+}
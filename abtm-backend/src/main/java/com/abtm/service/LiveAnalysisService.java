@@ -0,0 +1,272 @@
+package com.abtm.service;
+
+import com.abtm.analyzer.ScenarioAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live analysis sessions for the scenario editor, streamed as Server-Sent Events
+ *
+ * The editor opens one event stream and posts the text as it changes. Each
+ * session analyzes only its latest text, once the input has been quiet for
+ * the debounce delay, and runs at most one analysis at a time: text
+ * replaced before its analysis started is never analyzed, and a result
+ * that is already stale when it completes is dropped (the newer text is
+ * analyzed after the next quiet period). Unchanged text is not reanalyzed.
+ *
+ * Analyses run on the shared AnalysisBulkhead pool, under its admission
+ * rules; one the bulkhead sheds is retried a second later unless newer text
+ * arrived meanwhile. This service's own thread only runs the debounce timers
+ * and heartbeats.
+ */
+@Service
+public class LiveAnalysisService {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveAnalysisService.class);
+
+    // Delay before an analysis shed by the bulkhead is retried
+    private static final long RETRY_MILLIS = 1000;
+
+    @Autowired
+    private AnalysisBulkhead analysisBulkhead;
+
+    @Value("${abtm.live.debounce-ms:300}")
+    private long debounceMillis;
+
+    @Value("${abtm.live.session-timeout-ms:1800000}")
+    private long sessionTimeoutMillis;
+
+    @Value("${abtm.live.heartbeat-ms:15000}")
+    private long heartbeatMillis;
+
+    @Value("${abtm.live.max-sessions:1000}")
+    private int maxSessions;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder inputs = new LongAdder();
+    private final LongAdder analyses = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "live-analysis-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Debounce timers are cancelled on every keystroke; don't let them pile up in the queue
+        executor.setRemoveOnCancelPolicy(true);
+        executor.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        sessions.values().forEach(session -> session.emitter.complete());
+    }
+
+    /**
+     * Open a session; the first event ("session") carries the id to post text to.
+     * Null when the maximum number of sessions is open.
+     */
+    public SseEmitter open() {
+        if (sessions.size() >= maxSessions) {
+            return null;
+        }
+        Session session = new Session(UUID.randomUUID().toString(), new SseEmitter(sessionTimeoutMillis));
+        sessions.put(session.id, session);
+        session.emitter.onCompletion(() -> close(session));
+        session.emitter.onTimeout(() -> close(session));
+        session.emitter.onError(e -> close(session));
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("sessionId", session.id);
+        data.put("debounceMillis", debounceMillis);
+        send(session, SseEmitter.event().name("session").data(data, MediaType.APPLICATION_JSON));
+        return session.emitter;
+    }
+
+    /**
+     * New text for a session; false when the session is unknown or closed
+     *
+     * @param version client revision echoed in the result, or null to number inputs server-side
+     */
+    public boolean update(String sessionId, String content, Long version) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        inputs.increment();
+        synchronized (session) {
+            session.pending = content != null ? content : "";
+            session.pendingVersion = version != null ? version : session.pendingVersion + 1;
+            if (!session.running) {
+                schedule(session);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Open sessions and what happened to their input
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openSessions", sessions.size());
+        stats.put("maxSessions", maxSessions);
+        stats.put("debounceMillis", debounceMillis);
+        stats.put("inputs", inputs.sum());
+        stats.put("analyses", analyses.sum());
+        stats.put("unchangedSkipped", unchanged.sum());
+        stats.put("staleResultsDropped", discarded.sum());
+        stats.put("shedRetried", shed.sum());
+        stats.put("supersededSkipped", inputs.sum() - analyses.sum() - unchanged.sum());
+        return stats;
+    }
+
+    // Caller holds the session lock
+    private void schedule(Session session) {
+        schedule(session, debounceMillis);
+    }
+
+    private void schedule(Session session, long delayMillis) {
+        if (session.timer != null) {
+            session.timer.cancel(false);
+        }
+        session.timer = scheduler.schedule(() -> analyze(session), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void analyze(Session session) {
+        String content;
+        String lastContent;
+        long version;
+        synchronized (session) {
+            if (session.pending == null || session.closed) {
+                return;
+            }
+            lastContent = session.lastContent;
+            content = session.pending;
+            version = session.pendingVersion;
+            session.pending = null;
+            session.timer = null;
+            session.running = true;
+        }
+
+        if (content.equals(lastContent)) {
+            unchanged.increment();
+            complete(session, content, version, null, null);
+        } else {
+            analysisBulkhead.analyzeAsync(content)
+                .whenComplete((result, error) -> complete(session, content, version, result, error));
+        }
+    }
+
+    // On the timer thread (unchanged text) or an analysis pool thread
+    private void complete(Session session, String content, long version,
+                          ScenarioAnalyzer.AnalysisResult result, Throwable error) {
+        boolean stale;
+        synchronized (session) {
+            session.running = false;
+            if (error instanceof AnalysisRejectedException && session.pending == null && !session.closed) {
+                shed.increment();
+                session.pending = content;
+                session.pendingVersion = version;
+                schedule(session, Math.max(debounceMillis, RETRY_MILLIS));
+                return;
+            }
+            stale = session.pending != null;
+            if (stale && !session.closed) {
+                schedule(session);
+            } else if (result != null) {
+                session.lastContent = content;
+            }
+        }
+        if (error != null && !(error instanceof AnalysisRejectedException)) {
+            log.warn("Live analysis failed in session {}: {}", session.id, error.toString());
+            return;
+        }
+        if (result == null) {
+            return;
+        }
+        analyses.increment();
+        if (stale) {
+            discarded.increment();
+            return;
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("version", version);
+        data.put("result", result);
+        send(session, SseEmitter.event().name("analysis").id(String.valueOf(version))
+            .data(data, MediaType.APPLICATION_JSON));
+    }
+
+    // Comment lines keep proxies and load balancers from closing idle streams
+    private void heartbeat() {
+        for (Session session : sessions.values()) {
+            send(session, SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    private void send(Session session, SseEmitter.SseEventBuilder event) {
+        try {
+            session.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client gone; the emitter's completion callback removes the session
+            log.debug("Live analysis session {} closed: {}", session.id, e.getMessage());
+            close(session);
+            session.emitter.completeWithError(e);
+        }
+    }
+
+    private void close(Session session) {
+        sessions.remove(session.id);
+        synchronized (session) {
+            session.closed = true;
+            if (session.timer != null) {
+                session.timer.cancel(false);
+                session.timer = null;
+            }
+        }
+    }
+
+    private static class Session {
+        private final String id;
+        private final SseEmitter emitter;
+        private String pending;
+        private long pendingVersion;
+        private ScheduledFuture<?> timer;
+        private boolean running;
+        private boolean closed;
+        private String lastContent;
+
+        Session(String id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.abtm.service;
 
+import com.abtm.cluster.CacheChange;
+import com.abtm.cluster.CacheInvalidationBus;
 import com.abtm.model.Exercise;
 import com.abtm.model.Module;
 import com.abtm.model.User;
@@ -19,6 +21,12 @@ public class ModuleService {
     @Autowired
     private ExerciseRepository exerciseRepository;
 
+    @Autowired
+    private ProgressTracker progressTracker;
+
+    @Autowired
+    private CacheInvalidationBus cacheBus;
+
     // Get all modules
     public List<Module> getAllModules() {
         return moduleRepository.findAll();
@@ -77,7 +85,9 @@ public class ModuleService {
         module.setPassingScore(70.0); // Default passing score
         module.setIsActive(true);
         
-        return moduleRepository.save(module);
+        Module saved = moduleRepository.save(module);
+        catalogChanged();
+        return saved;
     }
 
     // Create new exercise
@@ -86,7 +96,7 @@ public class ModuleService {
                                    User.Role targetRole) {
         Module module = getModuleById(moduleId);
         if (module == null) {
-            throw new RuntimeException("Module not found");
+            throw new NotFoundException("Module not found");
         }
 
         Exercise exercise = new Exercise();
@@ -103,7 +113,9 @@ public class ModuleService {
         long count = exerciseRepository.countByModule(module);
         exercise.setExerciseOrder((int) count + 1);
 
-        return exerciseRepository.save(exercise);
+        Exercise saved = exerciseRepository.save(exercise);
+        catalogChanged();
+        return saved;
     }
 
     // Update module
@@ -119,7 +131,9 @@ public class ModuleService {
         if (estimatedHours != null) module.setEstimatedHours(estimatedHours);
         if (passingScore != null) module.setPassingScore(passingScore);
 
-        return moduleRepository.save(module);
+        Module saved = moduleRepository.save(module);
+        catalogChanged();
+        return saved;
     }
 
     // Update exercise
@@ -135,7 +149,9 @@ public class ModuleService {
         if (userStory != null) exercise.setUserStory(userStory);
         if (sampleSolution != null) exercise.setSampleSolution(sampleSolution);
 
-        return exerciseRepository.save(exercise);
+        Exercise saved = exerciseRepository.save(exercise);
+        catalogChanged();
+        return saved;
     }
 
     // Activate module
@@ -143,7 +159,9 @@ public class ModuleService {
         Module module = getModuleById(id);
         if (module != null) {
             module.setIsActive(true);
-            return moduleRepository.save(module);
+            Module saved = moduleRepository.save(module);
+            catalogChanged();
+            return saved;
         }
         return null;
     }
@@ -153,7 +171,9 @@ public class ModuleService {
         Module module = getModuleById(id);
         if (module != null) {
             module.setIsActive(false);
-            return moduleRepository.save(module);
+            Module saved = moduleRepository.save(module);
+            catalogChanged();
+            return saved;
         }
         return null;
     }
@@ -163,7 +183,9 @@ public class ModuleService {
         Exercise exercise = getExerciseById(id);
         if (exercise != null) {
             exercise.setIsActive(true);
-            return exerciseRepository.save(exercise);
+            Exercise saved = exerciseRepository.save(exercise);
+            catalogChanged();
+            return saved;
         }
         return null;
     }
@@ -173,7 +195,9 @@ public class ModuleService {
         Exercise exercise = getExerciseById(id);
         if (exercise != null) {
             exercise.setIsActive(false);
-            return exerciseRepository.save(exercise);
+            Exercise saved = exerciseRepository.save(exercise);
+            catalogChanged();
+            return saved;
         }
         return null;
     }
@@ -182,6 +206,7 @@ public class ModuleService {
     public boolean deleteModule(Long id) {
         if (moduleRepository.existsById(id)) {
             moduleRepository.deleteById(id);
+            catalogChanged();
             return true;
         }
         return false;
@@ -191,8 +216,15 @@ public class ModuleService {
     public boolean deleteExercise(Long id) {
         if (exerciseRepository.existsById(id)) {
             exerciseRepository.deleteById(id);
+            catalogChanged();
             return true;
         }
         return false;
     }
+
+    // Rebuild this node's catalog and tell the other nodes to
+    private void catalogChanged() {
+        progressTracker.invalidateCatalog();
+        cacheBus.publish(CacheChange.Topic.CATALOG, null);
+    }
 }
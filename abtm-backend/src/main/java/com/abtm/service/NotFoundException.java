@@ -0,0 +1,12 @@
+package com.abtm.service;
+
+/**
+ * Thrown when a referenced user, exercise, module or scenario does not exist;
+ * callers answer 404, while any other failure stays a server error
+ */
+public class NotFoundException extends RuntimeException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.abtm.service;
+
+/**
+ * Thrown when the password hashing pool is saturated; callers should answer
+ * 429 and let the client retry
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
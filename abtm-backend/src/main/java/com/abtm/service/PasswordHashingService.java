@@ -0,0 +1,231 @@
+package com.abtm.service;
+
+import com.abtm.config.PasswordEncoderConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt hashing and verification on the dedicated password hashing pool
+ *
+ * The calling request thread only waits for the result; the CPU work is
+ * bounded by the pool size. When the pool's queue is full, or a task is not
+ * done within abtm.password.timeout-ms, PasswordHashingRejectedException is
+ * thrown right away. Passwords stored before hashing was introduced (plain
+ * text) are still accepted and reported as needing a rehash. Bulk hashing
+ * (user import) shares the pool but never takes more than half its threads.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final String BCRYPT_PREFIX = "$2";
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier(PasswordEncoderConfig.PASSWORD_HASHING_EXECUTOR)
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${abtm.password.timeout-ms:5000}")
+    private long timeoutMs;
+
+    // Verified against when the user does not exist, so both cases cost the same
+    private String dummyHash;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rehashes = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    @PostConstruct
+    void init() {
+        dummyHash = passwordEncoder.encode("not-a-password");
+    }
+
+    /**
+     * BCrypt hash of a new password
+     */
+    public String encode(String rawPassword) {
+        hashes.increment();
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * BCrypt hashes of many passwords, in order (bulk import)
+     *
+     * At most half the pool's threads (at least one) hash for the caller at
+     * a time, so logins keep threads of their own; while the queue is full the
+     * caller waits on its own hashes instead of being rejected.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int window = Math.max(1, executor.getMaxPoolSize() / 2);
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        Deque<Future<String>> inFlight = new ArrayDeque<>();
+        for (String rawPassword : rawPasswords) {
+            hashes.increment();
+            if (inFlight.size() >= window) {
+                encoded.add(awaitBulk(inFlight.removeFirst()));
+            }
+            Future<String> future = null;
+            while (future == null) {
+                try {
+                    future = submit(() -> passwordEncoder.encode(rawPassword));
+                } catch (RejectedExecutionException e) {
+                    if (inFlight.isEmpty()) {
+                        pause();
+                    } else {
+                        encoded.add(awaitBulk(inFlight.removeFirst()));
+                    }
+                }
+            }
+            inFlight.addLast(future);
+        }
+        while (!inFlight.isEmpty()) {
+            encoded.add(awaitBulk(inFlight.removeFirst()));
+        }
+        return encoded;
+    }
+
+    /**
+     * Check a password against a stored hash (or legacy plain-text value); null stored means no such user
+     */
+    public boolean matches(String rawPassword, String stored) {
+        verifications.increment();
+        if (stored != null && !isHash(stored)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                                         stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String hash = stored != null ? stored : dummyHash;
+        boolean matches = run(() -> passwordEncoder.matches(rawPassword, hash));
+        return matches && stored != null;
+    }
+
+    /**
+     * Whether a stored value should be replaced after a successful login:
+     * plain text, or a hash with a lower cost than configured
+     */
+    public boolean needsRehash(String stored) {
+        return !isHash(stored) || passwordEncoder.upgradeEncoding(stored);
+    }
+
+    public void recordRehash() {
+        rehashes.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        long tasks = executor.getThreadPoolExecutor().getCompletedTaskCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", executor.getPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getThreadPoolExecutor().getQueue().size());
+        stats.put("queueCapacity", executor.getQueueCapacity());
+        stats.put("hashes", hashes.sum());
+        stats.put("verifications", verifications.sum());
+        stats.put("rehashes", rehashes.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("averageHashMillis", tasks > 0 ? toMillis(totalHashNanos.sum() / tasks) : 0.0);
+        stats.put("maxHashMillis", toMillis(maxHashNanos.get()));
+        stats.put("averageWaitMillis", tasks > 0 ? toMillis(totalWaitNanos.sum() / tasks) : 0.0);
+        stats.put("maxWaitMillis", toMillis(maxWaitNanos.get()));
+        return stats;
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long submitted = System.nanoTime();
+        return executor.submit(() -> {
+            long start = System.nanoTime();
+            recordWait(start - submitted);
+            try {
+                return task.call();
+            } finally {
+                long nanos = System.nanoTime() - start;
+                totalHashNanos.add(nanos);
+                maxHashNanos.accumulate(nanos);
+            }
+        });
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Too many concurrent logins, retry shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password check timed out, retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // Bulk hashes are not on a login's clock: wait as long as the queue takes
+    private static String awaitBulk(Future<String> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing passwords", e);
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulate(nanos);
+    }
+
+    private static boolean isHash(String stored) {
+        return stored.startsWith(BCRYPT_PREFIX);
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,427 @@
+package com.abtm.service;
+
+import com.abtm.model.Exercise;
+import com.abtm.model.Module;
+import com.abtm.repository.ExerciseRepository;
+import com.abtm.repository.ModuleRepository;
+import com.abtm.repository.UserPerformanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory per-user progress used by AdaptiveEngine
+ *
+ * Each user's performance rows are loaded once (one query) into bitsets of
+ * attempted, completed (score >= 70) and weak (score < 70) exercises plus
+ * per-module counters, then kept current by ScenarioService on every
+ * submission. Users are evicted least-recently-used beyond
+ * abtm.progress.max-users.
+ *
+ * Exercises are numbered by a catalog snapshot, grouped by module so a
+ * module's exercises form one contiguous bit range. Module or exercise
+ * changes (ModuleService) rebuild the catalog and drop all cached users.
+ */
+@Service
+public class ProgressTracker {
+
+    public static final double COMPLETION_SCORE = 70.0;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private UserPerformanceRepository performanceRepository;
+
+    @Value("${abtm.progress.max-users:10000}")
+    private int maxUsers;
+
+    private volatile Catalog catalog;
+
+    // Incremented by invalidateCatalog, so a build that started before it is not kept
+    private final AtomicLong catalogGeneration = new AtomicLong();
+
+    // Access-ordered for LRU eviction; guarded by itself
+    private final LinkedHashMap<Long, UserProgress> users = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UserProgress> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    // Loads in flight per user, guarded by users; a score recorded meanwhile marks them stale
+    private final Map<Long, List<LoadTicket>> loading = new HashMap<>();
+
+    /**
+     * Current catalog snapshot, built on first use
+     *
+     * Built without holding a lock (no monitor across JDBC, which would pin a
+     * virtual thread), so concurrent first callers may each build one; only a
+     * catalog read since the last invalidation is kept.
+     */
+    public Catalog getCatalog() {
+        Catalog current = catalog;
+        if (current != null) {
+            return current;
+        }
+        long generation = catalogGeneration.get();
+        Catalog built = new Catalog(moduleRepository.findAll(), exerciseRepository.findAllWithModule());
+        synchronized (catalogGeneration) {
+            if (catalog == null && catalogGeneration.get() == generation) {
+                catalog = built;
+            }
+            return catalog != null ? catalog : built;
+        }
+    }
+
+    /**
+     * Progress of a user, loaded from user_performance on a cache miss
+     *
+     * The load is registered before the query and only cached if no score
+     * was recorded for the user (and the catalog did not change) before it
+     * is cached; both checks and the caching happen under the users lock.
+     */
+    public UserProgress getProgress(Long userId) {
+        for (int attempt = 0; ; attempt++) {
+            Catalog snapshot = getCatalog();
+            LoadTicket ticket = new LoadTicket();
+            synchronized (users) {
+                UserProgress cached = users.get(userId);
+                if (cached != null) {
+                    return cached;
+                }
+                loading.computeIfAbsent(userId, id -> new ArrayList<>(1)).add(ticket);
+            }
+
+            UserProgress progress = new UserProgress(snapshot);
+            try {
+                for (Object[] row : performanceRepository.findScoresByUserId(userId)) {
+                    progress.record((Long) row[0], (Double) row[1]);
+                }
+            } catch (RuntimeException e) {
+                synchronized (users) {
+                    unregister(userId, ticket);
+                }
+                throw e;
+            }
+            synchronized (users) {
+                unregister(userId, ticket);
+                if (!ticket.stale && snapshot == catalog) {
+                    UserProgress existing = users.putIfAbsent(userId, progress);
+                    return existing != null ? existing : progress;
+                }
+            }
+
+            // A score recorded during the load may be missing; retry once, then serve uncached
+            if (attempt > 0) {
+                return progress;
+            }
+        }
+    }
+
+    /**
+     * Apply the persisted performance score of a submission
+     *
+     * Submissions are not serialized per user, so scores may arrive out of
+     * order; the stored score is the best so far, so a lower one is stale.
+     */
+    public void recordScore(Long userId, Long exerciseId, Double performanceScore) {
+        UserProgress progress;
+        synchronized (users) {
+            markLoadsStale(userId);
+            progress = users.get(userId);
+        }
+        if (progress != null) {
+            progress.recordBest(exerciseId, performanceScore);
+        }
+    }
+
+    /**
+     * Forget a user (e.g. after deletion, or a score saved on another node)
+     */
+    public void evictUser(Long userId) {
+        synchronized (users) {
+            // A load in flight may have read the rows before the change
+            markLoadsStale(userId);
+            users.remove(userId);
+        }
+    }
+
+    // Caller holds the users lock
+    private void unregister(Long userId, LoadTicket ticket) {
+        List<LoadTicket> tickets = loading.get(userId);
+        tickets.remove(ticket);
+        if (tickets.isEmpty()) {
+            loading.remove(userId);
+        }
+    }
+
+    // Caller holds the users lock
+    private void markLoadsStale(Long userId) {
+        List<LoadTicket> tickets = loading.get(userId);
+        if (tickets != null) {
+            tickets.forEach(ticket -> ticket.stale = true);
+        }
+    }
+
+    /**
+     * Rebuild the catalog on next use; cached users refer to the old numbering
+     */
+    public void invalidateCatalog() {
+        synchronized (catalogGeneration) {
+            catalogGeneration.incrementAndGet();
+            catalog = null;
+        }
+        synchronized (users) {
+            users.clear();
+        }
+    }
+
+    public int getCachedUserCount() {
+        synchronized (users) {
+            return users.size();
+        }
+    }
+
+    // Guarded by users
+    private static class LoadTicket {
+        boolean stale;
+    }
+
+    /**
+     * Immutable numbering of modules and exercises
+     */
+    public static class Catalog {
+        private final List<Module> activeModules;
+        private final Map<Long, Integer> moduleSlots = new HashMap<>();
+        private final Map<Long, Integer> exerciseBits = new HashMap<>();
+        private final Exercise[] exercises;
+        private final int[] exerciseModule;
+        private final int[] moduleStart;
+        private final int[] moduleEnd;
+        private final boolean[] moduleActive;
+
+        Catalog(List<Module> modules, List<Exercise> allExercises) {
+            List<Module> active = new ArrayList<>();
+            this.moduleActive = new boolean[modules.size()];
+            for (int slot = 0; slot < modules.size(); slot++) {
+                Module module = modules.get(slot);
+                moduleSlots.put(module.getId(), slot);
+                if (Boolean.TRUE.equals(module.getIsActive())) {
+                    active.add(module);
+                    moduleActive[slot] = true;
+                }
+            }
+            active.sort(Comparator.comparing(Module::getModuleOrder, Comparator.nullsLast(Comparator.naturalOrder())));
+            this.activeModules = Collections.unmodifiableList(active);
+
+            // Group by module so each module owns a contiguous bit range
+            List<Exercise> sorted = new ArrayList<>(allExercises);
+            sorted.sort(Comparator
+                .comparing((Exercise e) -> moduleSlots.getOrDefault(e.getModule().getId(), Integer.MAX_VALUE))
+                .thenComparing(Exercise::getExerciseOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Exercise::getId));
+
+            this.exercises = sorted.toArray(new Exercise[0]);
+            this.exerciseModule = new int[exercises.length];
+            this.moduleStart = new int[modules.size()];
+            this.moduleEnd = new int[modules.size()];
+
+            for (int bit = exercises.length - 1; bit >= 0; bit--) {
+                Integer slot = moduleSlots.get(exercises[bit].getModule().getId());
+                exerciseBits.put(exercises[bit].getId(), bit);
+                exerciseModule[bit] = slot != null ? slot : -1;
+                if (slot != null) {
+                    if (moduleEnd[slot] == 0) {
+                        moduleEnd[slot] = bit + 1;
+                    }
+                    moduleStart[slot] = bit;
+                }
+            }
+        }
+
+        /**
+         * Active modules ordered by module order
+         */
+        public List<Module> getActiveModules() {
+            return activeModules;
+        }
+
+        /**
+         * Slot of a module, or -1 when the module is unknown
+         */
+        public int moduleSlot(Module module) {
+            Integer slot = module != null ? moduleSlots.get(module.getId()) : null;
+            return slot != null ? slot : -1;
+        }
+
+        /**
+         * Whether the module is known and active
+         */
+        public boolean isActive(Module module) {
+            int slot = moduleSlot(module);
+            return slot >= 0 && moduleActive[slot];
+        }
+
+        /**
+         * Number of exercises (active or not) in a module
+         */
+        public int exerciseCount(int moduleSlot) {
+            return moduleSlot >= 0 ? moduleEnd[moduleSlot] - moduleStart[moduleSlot] : 0;
+        }
+
+        public Exercise exercise(int bit) {
+            return exercises[bit];
+        }
+
+        int size() {
+            return exercises.length;
+        }
+
+        int moduleCount() {
+            return moduleStart.length;
+        }
+    }
+
+    /**
+     * One user's progress; all access is synchronized on the instance
+     */
+    public static class UserProgress {
+        private final Catalog catalog;
+        private final BitSet attempted = new BitSet();
+        private final BitSet completed = new BitSet();
+        private final BitSet weak = new BitSet();
+        private final double[] scores;
+        private final int[] moduleRows;
+        private final int[] moduleScored;
+        private final int[] moduleCompleted;
+        private final double[] moduleScoreSum;
+
+        UserProgress(Catalog catalog) {
+            this.catalog = catalog;
+            this.scores = new double[catalog.size()];
+            this.moduleRows = new int[catalog.moduleCount()];
+            this.moduleScored = new int[catalog.moduleCount()];
+            this.moduleCompleted = new int[catalog.moduleCount()];
+            this.moduleScoreSum = new double[catalog.moduleCount()];
+        }
+
+        /**
+         * Set the score of an exercise, replacing any previous one
+         */
+        synchronized void record(Long exerciseId, Double score) {
+            Integer bit = catalog.exerciseBits.get(exerciseId);
+            if (bit == null) {
+                return;
+            }
+            int slot = catalog.exerciseModule[bit];
+            if (slot < 0) {
+                return;
+            }
+
+            if (attempted.get(bit)) {
+                moduleRows[slot]--;
+                if (completed.get(bit) || weak.get(bit)) {
+                    moduleScored[slot]--;
+                    moduleScoreSum[slot] -= scores[bit];
+                }
+                if (completed.get(bit)) {
+                    moduleCompleted[slot]--;
+                }
+            }
+
+            attempted.set(bit);
+            completed.clear(bit);
+            weak.clear(bit);
+            moduleRows[slot]++;
+            if (score != null) {
+                scores[bit] = score;
+                moduleScored[slot]++;
+                moduleScoreSum[slot] += score;
+                if (score >= COMPLETION_SCORE) {
+                    completed.set(bit);
+                    moduleCompleted[slot]++;
+                } else {
+                    weak.set(bit);
+                }
+            }
+        }
+
+        /**
+         * Set the score of an exercise unless it already has this score or a better one
+         */
+        synchronized void recordBest(Long exerciseId, Double score) {
+            Integer bit = catalog.exerciseBits.get(exerciseId);
+            if (bit != null && attempted.get(bit)
+                    && (score == null || ((completed.get(bit) || weak.get(bit)) && scores[bit] >= score))) {
+                return;
+            }
+            record(exerciseId, score);
+        }
+
+        /**
+         * Whether at least one exercise of the module is completed
+         */
+        public synchronized boolean hasCompletedAny(int moduleSlot) {
+            return moduleSlot >= 0 && moduleCompleted[moduleSlot] > 0;
+        }
+
+        /**
+         * Whether the exercise is scored at or above the completion threshold
+         */
+        public synchronized boolean hasCompleted(Long exerciseId) {
+            Integer bit = catalog.exerciseBits.get(exerciseId);
+            return bit != null && completed.get(bit);
+        }
+
+        public synchronized int completedCount(int moduleSlot) {
+            return moduleSlot >= 0 ? moduleCompleted[moduleSlot] : 0;
+        }
+
+        /**
+         * Whether the user has any performance row in the module
+         */
+        public synchronized boolean hasAttempted(int moduleSlot) {
+            return moduleSlot >= 0 && moduleRows[moduleSlot] > 0;
+        }
+
+        /**
+         * Average of the non-null scores in the module (0 when there are none)
+         */
+        public synchronized double averageScore(int moduleSlot) {
+            if (moduleSlot < 0 || moduleScored[moduleSlot] == 0) {
+                return 0.0;
+            }
+            return moduleScoreSum[moduleSlot] / moduleScored[moduleSlot];
+        }
+
+        /**
+         * Exercises of the module scored below the completion threshold
+         */
+        public synchronized List<Exercise> weakExercises(int moduleSlot) {
+            List<Exercise> result = new ArrayList<>();
+            if (moduleSlot < 0) {
+                return result;
+            }
+            int end = catalog.moduleEnd[moduleSlot];
+            for (int bit = weak.nextSetBit(catalog.moduleStart[moduleSlot]); bit >= 0 && bit < end;
+                 bit = weak.nextSetBit(bit + 1)) {
+                result.add(catalog.exercise(bit));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.abtm.service;
+
+import com.abtm.dto.ReviewQueueResponse;
+import com.abtm.model.Exercise;
+import com.abtm.model.ReviewItem;
+import com.abtm.model.User;
+import com.abtm.repository.ReviewBatchRepository;
+import com.abtm.repository.ReviewItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Spaced-repetition review queues
+ *
+ * A scheduled job streams user_performance, decides for every exercise not
+ * yet mastered when it should be revisited (the better the score, the longer
+ * the interval since the last attempt), and stores the earliest-due exercises
+ * of each user in review_queue. Users are processed in chunks on a worker
+ * pool, each chunk written with one batched insert, so "what should I
+ * practice now" is a single indexed lookup.
+ */
+@Service
+public class ReviewQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewQueueService.class);
+
+    private static final Comparator<ReviewItem> REVIEW_ORDER =
+        Comparator.comparing(ReviewItem::getDueDate)
+            .thenComparing(ReviewItem::getPerformanceScore, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    @Autowired
+    private ReviewBatchRepository batchRepository;
+
+    @Autowired
+    private ReviewItemRepository reviewItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${abtm.review.mastery-score:90}")
+    private double masteryScore;
+
+    @Value("${abtm.review.min-interval-hours:24}")
+    private long minIntervalHours;
+
+    @Value("${abtm.review.max-interval-hours:720}")
+    private long maxIntervalHours;
+
+    @Value("${abtm.review.queue-size:10}")
+    private int queueSize;
+
+    @Value("${abtm.review.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${abtm.review.threads:4}")
+    private int threads;
+
+    @Value("${abtm.review.compute-on-startup:false}")
+    private boolean computeOnStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Map<String, Object> lastRun;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void computeOnStartup() {
+        if (computeOnStartup) {
+            computeQueues();
+        }
+    }
+
+    @Scheduled(cron = "${abtm.review.cron:0 15 * * * *}")
+    public void scheduledRun() {
+        computeQueues();
+    }
+
+    /**
+     * Recompute every user's review queue; skipped when a run is already in progress
+     */
+    public void computeQueues() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Review queue computation already running, skipped");
+            return;
+        }
+        try {
+            computeAll();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void computeAll() {
+        // Millisecond precision so rows written by this run never compare older than the run itself
+        LocalDateTime computedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        // Bounds the chunks read ahead of the workers
+        Semaphore inFlight = new Semaphore(threads * 2);
+        AtomicInteger items = new AtomicInteger();
+        AtomicInteger failedChunks = new AtomicInteger();
+        ChunkReader reader = new ChunkReader(chunk -> {
+            inFlight.acquireUninterruptibly();
+            workers.execute(() -> {
+                try {
+                    items.addAndGet(writeChunk(chunk, computedAt));
+                } catch (RuntimeException e) {
+                    failedChunks.incrementAndGet();
+                    log.error("Review queue chunk of {} users failed", chunk.size(), e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        });
+
+        boolean completed = false;
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> batchRepository.streamPerformance(rs -> reader.add(
+                rs.getLong("user_id"), rs.getLong("exercise_id"),
+                rs.getObject("performance_score", Double.class),
+                toLocalDateTime(rs.getTimestamp("last_attempt_date")))));
+            reader.flush();
+            completed = true;
+        } finally {
+            workers.shutdown();
+            awaitTermination(workers);
+        }
+
+        // Users not rewritten in this run have nothing left to review (keep everything if a chunk failed)
+        int removed = 0;
+        if (completed && failedChunks.get() == 0) {
+            removed = new TransactionTemplate(transactionManager)
+                .execute(status -> batchRepository.deleteComputedBefore(computedAt));
+        }
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("computedAt", computedAt);
+        run.put("users", reader.users);
+        run.put("performanceRows", reader.rows);
+        run.put("queuedItems", items.get());
+        run.put("staleItemsRemoved", removed);
+        run.put("failedChunks", failedChunks.get());
+        run.put("durationMillis", Duration.ofNanos(System.nanoTime() - start).toMillis());
+        lastRun = run;
+        log.info("Review queues computed: {}", run);
+    }
+
+    private int writeChunk(Map<Long, List<ReviewItem>> chunk, LocalDateTime computedAt) {
+        List<ReviewItem> items = new ArrayList<>();
+        for (List<ReviewItem> candidates : chunk.values()) {
+            candidates.sort(REVIEW_ORDER);
+            int size = Math.min(queueSize, candidates.size());
+            for (int position = 0; position < size; position++) {
+                ReviewItem item = candidates.get(position);
+                item.setPosition(position);
+                item.setComputedAt(computedAt);
+                items.add(item);
+            }
+        }
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> batchRepository.replaceQueues(chunk.keySet(), items));
+        return items.size();
+    }
+
+    /**
+     * When an exercise should next be reviewed, or null once it is mastered
+     *
+     * The interval grows geometrically with the score, from min-interval-hours
+     * at 0 to max-interval-hours at the mastery score; exercises never
+     * attempted with a date are due immediately.
+     */
+    public LocalDateTime dueDate(Double performanceScore, LocalDateTime lastAttemptDate, LocalDateTime now) {
+        double score = performanceScore != null ? Math.max(0.0, performanceScore) : 0.0;
+        if (score >= masteryScore) {
+            return null;
+        }
+        if (lastAttemptDate == null) {
+            return now;
+        }
+        double ratio = (double) maxIntervalHours / minIntervalHours;
+        double hours = minIntervalHours * Math.pow(ratio, score / masteryScore);
+        return lastAttemptDate.plusMinutes(Math.round(hours * 60));
+    }
+
+    /**
+     * Precomputed queue of a user: exercises due now, in review order, and when the next one falls due
+     */
+    public ReviewQueueResponse getReviewQueue(User user, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReviewQueueResponse.DueExercise> due = new ArrayList<>();
+        LocalDateTime nextDueDate = null;
+        LocalDateTime computedAt = null;
+        for (ReviewItem item : reviewItemRepository.findQueueByUserId(user.getId())) {
+            computedAt = item.getComputedAt();
+            if (item.getDueDate().isAfter(now)) {
+                if (nextDueDate == null || item.getDueDate().isBefore(nextDueDate)) {
+                    nextDueDate = item.getDueDate();
+                }
+                continue;
+            }
+            if (due.size() >= limit) {
+                continue;
+            }
+            Exercise exercise = item.getExercise();
+            due.add(new ReviewQueueResponse.DueExercise(exercise.getId(), exercise.getTitle(),
+                exercise.getDifficulty(), item.getPerformanceScore(), item.getLastAttemptDate(), item.getDueDate()));
+        }
+
+        return new ReviewQueueResponse(user.getId(), computedAt, due, nextDueDate);
+    }
+
+    /**
+     * Drop an exercise from a user's queue after a new attempt; the next run reschedules it
+     */
+    public void exerciseAttempted(Long userId, Long exerciseId) {
+        reviewItemRepository.deleteByUserIdAndExerciseId(userId, exerciseId);
+    }
+
+    /**
+     * Summary of the last completed run, or null before the first one
+     */
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+
+    private static void awaitTermination(ExecutorService workers) {
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Waiting for review queue chunks to finish");
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * Groups the streamed rows by user and hands over a chunk every chunk-size users
+     */
+    private class ChunkReader {
+        private final Consumer<Map<Long, List<ReviewItem>>> sink;
+        private final LocalDateTime now = LocalDateTime.now();
+        private Map<Long, List<ReviewItem>> chunk = new LinkedHashMap<>();
+        private Long currentUserId;
+        private int users;
+        private long rows;
+
+        ChunkReader(Consumer<Map<Long, List<ReviewItem>>> sink) {
+            this.sink = sink;
+        }
+
+        void add(Long userId, Long exerciseId, Double performanceScore, LocalDateTime lastAttemptDate) {
+            rows++;
+            if (!userId.equals(currentUserId)) {
+                if (chunk.size() >= chunkSize) {
+                    flush();
+                }
+                currentUserId = userId;
+                users++;
+                chunk.put(userId, new ArrayList<>());
+            }
+
+            LocalDateTime dueDate = dueDate(performanceScore, lastAttemptDate, now);
+            if (dueDate == null) {
+                return;
+            }
+            Exercise exercise = new Exercise();
+            exercise.setId(exerciseId);
+            ReviewItem item = new ReviewItem();
+            item.setUserId(userId);
+            item.setExercise(exercise);
+            item.setPerformanceScore(performanceScore);
+            item.setLastAttemptDate(lastAttemptDate);
+            item.setDueDate(dueDate);
+            chunk.get(userId).add(item);
+        }
+
+        void flush() {
+            if (!chunk.isEmpty()) {
+                sink.accept(chunk);
+                chunk = new LinkedHashMap<>();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.abtm.service;
+
+import com.abtm.analyzer.ScenarioAnalyzer;
+import com.abtm.monitoring.RequestTiming;
+import com.abtm.monitoring.jfr.ScenarioAnalysisEvent;
+import org.springframework.stereotype.Service;
+
+/**
+ * The application's scenario analyzer (abtm-analyzer), timed per phase for
+ * Server-Timing and recorded as a Flight Recorder event
+ */
+@Service
+public class ScenarioAnalysisService {
+
+    private static final ScenarioAnalyzer.PhaseTimer REQUEST_TIMING = new ScenarioAnalyzer.PhaseTimer() {
+        @Override
+        public long mark() {
+            return RequestTiming.mark();
+        }
+
+        @Override
+        public long lap(String phase, long since) {
+            return RequestTiming.lap(phase, since);
+        }
+    };
+
+    // Compiles the keywords and terms of every language once, at startup
+    private final ScenarioAnalyzer analyzer = new ScenarioAnalyzer();
+
+    /**
+     * Analyze a BDD scenario and return scores for 6 dimensions
+     */
+    public ScenarioAnalyzer.AnalysisResult analyze(String scenarioContent) {
+        ScenarioAnalysisEvent event = new ScenarioAnalysisEvent();
+        event.startMeasuring();
+        ScenarioAnalyzer.AnalysisResult result = analyzer.analyze(scenarioContent, REQUEST_TIMING);
+        if (event.stopMeasuring() && scenarioContent != null) {
+            event.setContentLength(scenarioContent.length());
+            event.setLanguage(result.getLanguage());
+            event.setLineCount(lineCount(scenarioContent));
+            int tableRows = 0;
+            for (ScenarioAnalyzer.TableSummary table : result.getTables()) {
+                tableRows += table.getRows();
+            }
+            event.setTableRows(tableRows);
+            event.setClarityScore(result.getClarityScore());
+            event.setBusinessValueScore(result.getBusinessValueScore());
+            event.setGherkinScore(result.getGherkinScore());
+            event.setTestabilityScore(result.getTestabilityScore());
+            event.setSpecificityScore(result.getSpecificityScore());
+            event.setDuplicationScore(result.getDuplicationScore());
+            event.setOverallScore(result.getOverallScore());
+            event.setAntipatternCount(result.getDetectedAntipatterns().size());
+            event.commit();
+        }
+        return result;
+    }
+
+    private static int lineCount(String text) {
+        int lines = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,406 @@
+package com.abtm.service;
+
+import com.abtm.analyzer.ScenarioAnalyzer;
+import com.abtm.cluster.CacheChange;
+import com.abtm.cluster.CacheInvalidationBus;
+import com.abtm.dto.ScenarioStatisticsResponse;
+import com.abtm.event.ScenarioEvent;
+import com.abtm.event.ScenarioReanalyzedEvent;
+import com.abtm.event.ScenarioSubmittedEvent;
+import com.abtm.model.Exercise;
+import com.abtm.model.Scenario;
+import com.abtm.model.User;
+import com.abtm.model.UserPerformance;
+import com.abtm.monitoring.jfr.PerformanceUpdateEvent;
+import com.abtm.monitoring.jfr.ScenarioSaveEvent;
+import com.abtm.repository.ExerciseRepository;
+import com.abtm.repository.ScenarioRepository;
+import com.abtm.repository.UserPerformanceRepository;
+import com.abtm.repository.UserPerformanceUpsertRepository;
+import com.abtm.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class ScenarioService {
+
+    @Autowired
+    private ScenarioRepository scenarioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private UserPerformanceRepository performanceRepository;
+
+    @Autowired
+    private UserPerformanceUpsertRepository performanceUpsertRepository;
+
+    @Autowired
+    private ScenarioAnalysisService scenarioAnalysisService;
+
+    @Autowired
+    private AnalysisBulkhead analysisBulkhead;
+
+    @Autowired
+    private ProgressTracker progressTracker;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private CacheInvalidationBus cacheBus;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Submit and analyze a scenario
+     */
+    @Transactional
+    public Scenario submitScenario(Long userId, Long exerciseId, String content) {
+        // Get user and exercise
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new NotFoundException("User not found"));
+        Exercise exercise = exerciseRepository.findById(exerciseId)
+            .orElseThrow(() -> new NotFoundException("Exercise not found"));
+
+        // Check for existing scenarios
+        List<Scenario> existingScenarios = scenarioRepository.findByUserAndExercise(user, exercise);
+        int submissionNumber = existingScenarios.size() + 1;
+
+        // Analyze the scenario
+        ScenarioAnalyzer.AnalysisResult analysisResult = scenarioAnalysisService.analyze(content);
+
+        // Create scenario entity
+        Scenario scenario = new Scenario();
+        scenario.setUser(user);
+        scenario.setExercise(exercise);
+        scenario.setContent(content);
+        scenario.setSubmissionNumber(submissionNumber);
+
+        // Set dimension scores
+        scenario.setClarityScore(analysisResult.getClarityScore());
+        scenario.setBusinessValueScore(analysisResult.getBusinessValueScore());
+        scenario.setGherkinScore(analysisResult.getGherkinScore());
+        scenario.setTestabilityScore(analysisResult.getTestabilityScore());
+        scenario.setSpecificityScore(analysisResult.getSpecificityScore());
+        scenario.setDuplicationScore(analysisResult.getDuplicationScore());
+
+        // Calculate overall SQS
+        scenario.calculateOverallSqs();
+
+        // Set feedback and status
+        scenario.setFeedback(analysisResult.getFeedback());
+        scenario.setDetectedAntipatterns(String.join("; ", analysisResult.getDetectedAntipatterns()));
+        scenario.setIsAutomationReady(analysisResult.isAutomationReady());
+
+        // Determine status based on overall score
+        if (scenario.getOverallSqs() >= 8.0) {
+            scenario.setStatus(Scenario.ScenarioStatus.PASSED);
+        } else if (scenario.getOverallSqs() >= 6.0) {
+            scenario.setStatus(Scenario.ScenarioStatus.NEEDS_IMPROVEMENT);
+        } else {
+            scenario.setStatus(Scenario.ScenarioStatus.FAILED);
+        }
+
+        // Save scenario
+        Scenario savedScenario = scenarioRepository.save(scenario);
+
+        // Derived state (performance, skills, leaderboards) is updated by listeners after commit
+        eventPublisher.publishEvent(new ScenarioSubmittedEvent(savedScenario));
+
+        return savedScenario;
+    }
+
+    /**
+     * Save scenario with analysis result (alternative method for controller)
+     *
+     * @param idempotencyKey client key of the submission, or null; a key the user already
+     *                       submitted with returns that scenario instead of a new one
+     */
+    @Transactional
+    public Scenario saveScenario(Long userId, Long exerciseId, String content, 
+                                 ScenarioAnalyzer.AnalysisResult analysisResult, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            // A retry that reached another node, or came after the key left the IdempotencyStore
+            Scenario original = scenarioRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey).orElse(null);
+            if (original != null) {
+                return original;
+            }
+        }
+
+        ScenarioSaveEvent event = new ScenarioSaveEvent();
+        event.startMeasuring();
+
+        // Get user and exercise
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new NotFoundException("User not found"));
+        Exercise exercise = exerciseRepository.findById(exerciseId)
+            .orElseThrow(() -> new NotFoundException("Exercise not found"));
+
+        // Check for existing scenarios
+        List<Scenario> existingScenarios = scenarioRepository.findByUserAndExercise(user, exercise);
+        int submissionNumber = existingScenarios.size() + 1;
+
+        // Create scenario entity
+        Scenario scenario = new Scenario();
+        scenario.setUser(user);
+        scenario.setExercise(exercise);
+        scenario.setContent(content);
+        scenario.setSubmissionNumber(submissionNumber);
+        scenario.setIdempotencyKey(idempotencyKey);
+
+        // Set dimension scores
+        scenario.setClarityScore(analysisResult.getClarityScore());
+        scenario.setBusinessValueScore(analysisResult.getBusinessValueScore());
+        scenario.setGherkinScore(analysisResult.getGherkinScore());
+        scenario.setTestabilityScore(analysisResult.getTestabilityScore());
+        scenario.setSpecificityScore(analysisResult.getSpecificityScore());
+        scenario.setDuplicationScore(analysisResult.getDuplicationScore());
+
+        // Calculate overall SQS
+        scenario.calculateOverallSqs();
+
+        // Set feedback and status
+        scenario.setFeedback(analysisResult.getFeedback());
+        scenario.setDetectedAntipatterns(String.join("; ", analysisResult.getDetectedAntipatterns()));
+        scenario.setIsAutomationReady(analysisResult.isAutomationReady());
+
+        // Determine status based on overall score
+        if (scenario.getOverallSqs() >= 8.0) {
+            scenario.setStatus(Scenario.ScenarioStatus.PASSED);
+        } else if (scenario.getOverallSqs() >= 6.0) {
+            scenario.setStatus(Scenario.ScenarioStatus.NEEDS_IMPROVEMENT);
+        } else {
+            scenario.setStatus(Scenario.ScenarioStatus.FAILED);
+        }
+
+        // Save scenario
+        Scenario savedScenario = scenarioRepository.save(scenario);
+
+        // Derived state (performance, skills, leaderboards) is updated by listeners after commit
+        eventPublisher.publishEvent(new ScenarioSubmittedEvent(savedScenario));
+
+        if (event.stopMeasuring()) {
+            event.setUserId(userId);
+            event.setExerciseId(exerciseId);
+            event.setScenarioId(savedScenario.getId());
+            event.setSubmissionNumber(submissionNumber);
+            event.setContentLength(content.length());
+            event.setOverallSqs(savedScenario.getOverallSqs());
+            event.setStatus(savedScenario.getStatus().name());
+            event.commit();
+        }
+        return savedScenario;
+    }
+
+    /**
+     * Scenario a user submitted with an Idempotency-Key, or null
+     */
+    public Scenario getScenarioByIdempotencyKey(Long userId, String idempotencyKey) {
+        return scenarioRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey).orElse(null);
+    }
+
+    /**
+     * Get all scenarios for a user
+     */
+    public List<Scenario> getUserScenarios(Long userId) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new NotFoundException("User not found"));
+        return scenarioRepository.findByUser(user);
+    }
+
+    /**
+     * Get scenarios for a specific exercise, only those of ownerId unless it is null
+     */
+    public List<Scenario> getExerciseScenarios(Long exerciseId, Long ownerId) {
+        Exercise exercise = exerciseRepository.findById(exerciseId)
+            .orElseThrow(() -> new NotFoundException("Exercise not found"));
+        if (ownerId != null) {
+            return scenarioRepository.findByUserAndExercise(userRepository.getReferenceById(ownerId), exercise);
+        }
+        return scenarioRepository.findByExercise(exercise);
+    }
+
+    /**
+     * Get user's scenarios for a specific exercise
+     */
+    public List<Scenario> getUserExerciseScenarios(Long userId, Long exerciseId) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new NotFoundException("User not found"));
+        Exercise exercise = exerciseRepository.findById(exerciseId)
+            .orElseThrow(() -> new NotFoundException("Exercise not found"));
+        return scenarioRepository.findByUserAndExercise(user, exercise);
+    }
+
+    /**
+     * Get scenario by ID
+     */
+    public Scenario getScenarioById(Long id) {
+        return scenarioRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Get user statistics
+     */
+    public ScenarioStatisticsResponse getUserStatistics(Long userId) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new NotFoundException("User not found"));
+
+        long totalScenarios = scenarioRepository.countByUser(user);
+        long passedScenarios = scenarioRepository.countByUserAndStatus(user, Scenario.ScenarioStatus.PASSED);
+        long failedScenarios = scenarioRepository.countByUserAndStatus(user, Scenario.ScenarioStatus.FAILED);
+        long needsImprovement = scenarioRepository.countByUserAndStatus(user, Scenario.ScenarioStatus.NEEDS_IMPROVEMENT);
+
+        // Average score
+        double averageScore = scenarioRepository.findByUser(user).stream()
+            .filter(s -> s.getOverallSqs() != null)
+            .mapToDouble(Scenario::getOverallSqs)
+            .average()
+            .orElse(0.0);
+
+        Long completedModules = performanceRepository.countCompletedModulesByUserId(userId);
+
+        return new ScenarioStatisticsResponse(totalScenarios, passedScenarios, failedScenarios, needsImprovement,
+            Math.round(averageScore * 100.0) / 100.0, completedModules != null ? completedModules : 0);
+    }
+
+    /**
+     * Reanalyze an existing scenario; one not owned by ownerId (unless null) is not found
+     *
+     * The analysis runs on the analysis pool (AnalysisRejectedException when it
+     * is saturated) before any transaction is opened; only the save holds one.
+     */
+    public Scenario reanalyzeScenario(Long scenarioId, Long ownerId) {
+        Scenario scenario = scenarioRepository.findById(scenarioId)
+            .filter(found -> isOwnedBy(found, ownerId))
+            .orElseThrow(() -> new NotFoundException("Scenario not found"));
+
+        ScenarioAnalyzer.AnalysisResult analysisResult = analysisBulkhead.analyze(scenario.getContent());
+
+        return new TransactionTemplate(transactionManager).execute(status -> applyReanalysis(scenario, analysisResult));
+    }
+
+    private Scenario applyReanalysis(Scenario scenario, ScenarioAnalyzer.AnalysisResult analysisResult) {
+        Double previousSqs = scenario.getOverallSqs();
+
+        // Update dimension scores
+        scenario.setClarityScore(analysisResult.getClarityScore());
+        scenario.setBusinessValueScore(analysisResult.getBusinessValueScore());
+        scenario.setGherkinScore(analysisResult.getGherkinScore());
+        scenario.setTestabilityScore(analysisResult.getTestabilityScore());
+        scenario.setSpecificityScore(analysisResult.getSpecificityScore());
+        scenario.setDuplicationScore(analysisResult.getDuplicationScore());
+
+        // Recalculate overall SQS
+        scenario.calculateOverallSqs();
+
+        // Update feedback and status
+        scenario.setFeedback(analysisResult.getFeedback());
+        scenario.setDetectedAntipatterns(String.join("; ", analysisResult.getDetectedAntipatterns()));
+        scenario.setIsAutomationReady(analysisResult.isAutomationReady());
+
+        // Update status
+        if (scenario.getOverallSqs() >= 8.0) {
+            scenario.setStatus(Scenario.ScenarioStatus.PASSED);
+        } else if (scenario.getOverallSqs() >= 6.0) {
+            scenario.setStatus(Scenario.ScenarioStatus.NEEDS_IMPROVEMENT);
+        } else {
+            scenario.setStatus(Scenario.ScenarioStatus.FAILED);
+        }
+
+        Scenario savedScenario = scenarioRepository.save(scenario);
+        eventPublisher.publishEvent(new ScenarioReanalyzedEvent(savedScenario, previousSqs));
+        cacheBus.publish(CacheChange.Topic.SCORE, scenario.getUser().getId() + ":" + scenario.getExercise().getId());
+        return savedScenario;
+    }
+
+    /**
+     * Delete scenario; one not owned by ownerId (unless null) is not found
+     */
+    public boolean deleteScenario(Long id, Long ownerId) {
+        Scenario scenario = scenarioRepository.findById(id).filter(found -> isOwnedBy(found, ownerId)).orElse(null);
+        if (scenario != null) {
+            scenarioRepository.delete(scenario);
+            leaderboardService.scenarioDeleted(scenario);
+            cacheBus.publish(CacheChange.Topic.SCORE, scenario.getUser().getId() + ":" + scenario.getExercise().getId());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether a scenario belongs to ownerId, or any owner is allowed (null)
+     */
+    public static boolean isOwnedBy(Scenario scenario, Long ownerId) {
+        return ownerId == null || ownerId.equals(scenario.getUser().getId());
+    }
+
+    /**
+     * Update user performance based on scenario submission
+     *
+     * Idempotent per scenario: the submission is marked applied in the same
+     * transaction that updates the row, so a retry or duplicate delivery is a
+     * no-op. Attempts are counted and the best score kept with one upsert, so
+     * deliveries may arrive in any order and on any node.
+     */
+    public void updateUserPerformance(ScenarioEvent event) {
+        PerformanceUpdateEvent jfrEvent = new PerformanceUpdateEvent();
+        jfrEvent.startMeasuring();
+        // Convert 0-10 to 0-100
+        Double score = event.getOverallSqs() != null ? event.getOverallSqs() * 10 : null;
+
+        UserPerformance performance = new TransactionTemplate(transactionManager).execute(status -> {
+            if (scenarioRepository.claimForPerformance(event.getScenarioId()) == 0) {
+                return null;
+            }
+            // Atomic in the database (unique user and exercise), so concurrent submissions need no lock here
+            performanceUpsertRepository.recordAttempt(event.getUserId(), event.getExerciseId(), score, LocalDateTime.now());
+            return performanceRepository.findByUserAndExercise(
+                userRepository.getReferenceById(event.getUserId()),
+                exerciseRepository.getReferenceById(event.getExerciseId())).get(0);
+        });
+
+        if (performance == null) {
+            if (jfrEvent.stopMeasuring()) {
+                commit(jfrEvent, event, null, true);
+            }
+            return;
+        }
+
+        // Keep AdaptiveEngine's in-memory progress current
+        progressTracker.recordScore(event.getUserId(), event.getExerciseId(), performance.getPerformanceScore());
+        if (jfrEvent.stopMeasuring()) {
+            commit(jfrEvent, event, performance, false);
+        }
+        cacheBus.publish(CacheChange.Topic.SCORE, event.getUserId() + ":" + event.getExerciseId());
+    }
+
+    private static void commit(PerformanceUpdateEvent jfrEvent, ScenarioEvent event, UserPerformance performance,
+                               boolean skipped) {
+        jfrEvent.setUserId(event.getUserId());
+        jfrEvent.setExerciseId(event.getExerciseId());
+        jfrEvent.setScenarioId(event.getScenarioId());
+        jfrEvent.setOverallSqs(event.getOverallSqs());
+        if (performance != null) {
+            jfrEvent.setPerformanceScore(performance.getPerformanceScore() != null ? performance.getPerformanceScore() : 0);
+            jfrEvent.setAttemptCount(performance.getAttemptCount());
+        }
+        jfrEvent.setSkipped(skipped);
+        jfrEvent.commit();
+    }
+}
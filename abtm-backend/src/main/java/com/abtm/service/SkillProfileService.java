@@ -0,0 +1,285 @@
+package com.abtm.service;
+
+import com.abtm.dto.RecommendationsResponse;
+import com.abtm.event.ScenarioEvent;
+import com.abtm.model.Exercise;
+import com.abtm.model.User;
+import com.abtm.model.UserSkill;
+import com.abtm.repository.ScenarioRepository;
+import com.abtm.repository.UserSkillRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user skill vectors and dimension-targeted exercise recommendations
+ *
+ * Every submission folds its six dimension scores into the user's
+ * exponentially weighted averages with a single UPDATE (user_skills), so no
+ * scenario history is ever rescanned. Each scenario is marked as folded in
+ * (scenarios.skills_applied) in the same transaction, so a replay is a
+ * no-op while submissions delivered out of order are all counted.
+ *
+ * Exercises are profiled by how learners score on each dimension there
+ * compared with everywhere else: an exercise where clarity scores run below
+ * the global clarity average is one that demands (and trains) clarity.
+ * Profiles are loaded with one aggregate query and then kept current in
+ * memory; scenario deletions and reanalysis are not reflected until restart.
+ */
+@Service
+public class SkillProfileService {
+
+    // Submissions worth of global average blended into each exercise profile
+    private static final double PRIOR_SUBMISSIONS = 5.0;
+
+    private static final UserSkill.Dimension[] DIMENSIONS = UserSkill.Dimension.values();
+
+    @Autowired
+    private UserSkillRepository skillRepository;
+
+    @Autowired
+    private ScenarioRepository scenarioRepository;
+
+    @Autowired
+    private ProgressTracker progressTracker;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${abtm.skills.ewma-alpha:0.3}")
+    private double alpha;
+
+    @Value("${abtm.skills.focus-dimensions:2}")
+    private int focusDimensions;
+
+    // Per exercise: [submissions, sum per dimension...]; guarded by this
+    private Map<Long, double[]> exerciseSums;
+    private final double[] globalSums = new double[DIMENSIONS.length + 1];
+
+    // Exercises ranked by demand per dimension, rebuilt when sums or catalog change; guarded by this
+    private Map<UserSkill.Dimension, List<Exercise>> rankings;
+    private ProgressTracker.Catalog rankedCatalog;
+
+    /**
+     * Fold a scored submission into the user's skill vector and the exercise profile
+     */
+    public void recordSubmission(ScenarioEvent event) {
+        if (event.getOverallSqs() == null) {
+            return;
+        }
+        double[] scores = new double[DIMENSIONS.length];
+        for (UserSkill.Dimension dimension : DIMENSIONS) {
+            scores[dimension.ordinal()] = scoreOf(dimension, event);
+        }
+
+        Long scenarioId = event.getScenarioId();
+        LocalDateTime now = LocalDateTime.now();
+        boolean applied;
+        try {
+            applied = apply(event.getUserId(), scenarioId, scores, now);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent first submission of the user created the row; the UPDATE applies now
+            applied = apply(event.getUserId(), scenarioId, scores, now);
+        }
+
+        synchronized (this) {
+            if (applied && exerciseSums != null) {
+                addToProfile(event.getExerciseId(), 1, scores);
+                rankings = null;
+            }
+        }
+    }
+
+    /**
+     * Exponentially weighted average after one more sample (the first sample is taken as is)
+     */
+    public double blend(Double current, double sample) {
+        return current == null ? sample : current + alpha * (sample - current);
+    }
+
+    /**
+     * Skill vector of a user, or null before the first submission
+     */
+    public UserSkill getSkills(Long userId) {
+        return skillRepository.findById(userId).orElse(null);
+    }
+
+    /**
+     * Exercises that best train the user's weakest dimensions
+     *
+     * Cost depends on the catalog size only, not on the user's history.
+     */
+    public RecommendationsResponse recommendExercises(User user, int limit) {
+        UserSkill skills = getSkills(user.getId());
+        ProgressTracker.Catalog catalog = progressTracker.getCatalog();
+        ProgressTracker.UserProgress progress = progressTracker.getProgress(user.getId());
+
+        Map<UserSkill.Dimension, List<Exercise>> ranked;
+        double[] globalMeans;
+        synchronized (this) {
+            ranked = rankings(catalog);
+            globalMeans = means(globalSums);
+        }
+
+        // Weakest dimensions first; without any submission fall back to what learners struggle with most
+        List<UserSkill.Dimension> weakest = new ArrayList<>(Arrays.asList(DIMENSIONS));
+        if (skills != null) {
+            weakest.sort(Comparator.comparingDouble(d -> skills.get(d) != null ? skills.get(d) : 0.0));
+        } else {
+            weakest.sort(Comparator.comparingDouble(d -> globalMeans[d.ordinal()]));
+        }
+        List<UserSkill.Dimension> focus = weakest.subList(0, Math.min(focusDimensions, weakest.size()));
+
+        // Round-robin over the focus dimensions' rankings
+        List<RecommendationsResponse.RecommendedExercise> exercises = new ArrayList<>();
+        Set<Long> picked = new HashSet<>();
+        int[] cursor = new int[DIMENSIONS.length];
+        boolean more = true;
+        while (exercises.size() < limit && more) {
+            more = false;
+            for (UserSkill.Dimension dimension : focus) {
+                List<Exercise> candidates = ranked.get(dimension);
+                int i = cursor[dimension.ordinal()];
+                while (i < candidates.size() && !isEligible(candidates.get(i), user, catalog, progress, picked)) {
+                    i++;
+                }
+                if (i < candidates.size() && exercises.size() < limit) {
+                    Exercise exercise = candidates.get(i);
+                    picked.add(exercise.getId());
+                    exercises.add(describe(exercise, dimension));
+                    i++;
+                }
+                cursor[dimension.ordinal()] = i;
+                more |= i < candidates.size();
+            }
+        }
+
+        Map<UserSkill.Dimension, Double> vector = new EnumMap<>(UserSkill.Dimension.class);
+        if (skills != null) {
+            for (UserSkill.Dimension dimension : DIMENSIONS) {
+                vector.put(dimension, round(skills.get(dimension)));
+            }
+        }
+        return new RecommendationsResponse(user.getId(), skills != null ? skills.getSampleCount() : 0, vector,
+            new ArrayList<>(focus), exercises);
+    }
+
+    private static double scoreOf(UserSkill.Dimension dimension, ScenarioEvent event) {
+        switch (dimension) {
+            case CLARITY: return event.getClarityScore();
+            case BUSINESS_VALUE: return event.getBusinessValueScore();
+            case GHERKIN: return event.getGherkinScore();
+            case TESTABILITY: return event.getTestabilityScore();
+            case SPECIFICITY: return event.getSpecificityScore();
+            default: return event.getDuplicationScore();
+        }
+    }
+
+    // Claims the scenario and folds it in within one transaction; false when it was already folded in
+    private boolean apply(Long userId, Long scenarioId, double[] scores, LocalDateTime now) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            if (scenarioRepository.claimForSkills(scenarioId) == 0) {
+                return false;
+            }
+            if (skillRepository.applySample(userId, alpha, scores[0], scores[1], scores[2],
+                    scores[3], scores[4], scores[5], now) == 0) {
+                skillRepository.insertFirstSample(userId, scores[0], scores[1], scores[2],
+                    scores[3], scores[4], scores[5], now);
+            }
+            return true;
+        });
+    }
+
+    // Active, in an active module, meant for the user's role and not yet completed
+    private boolean isEligible(Exercise exercise, User user, ProgressTracker.Catalog catalog,
+                               ProgressTracker.UserProgress progress, Set<Long> picked) {
+        return !picked.contains(exercise.getId())
+            && Boolean.TRUE.equals(exercise.getIsActive())
+            && catalog.isActive(exercise.getModule())
+            && (exercise.getTargetRole() == null || exercise.getTargetRole() == user.getRole())
+            && !progress.hasCompleted(exercise.getId());
+    }
+
+    private RecommendationsResponse.RecommendedExercise describe(Exercise exercise, UserSkill.Dimension dimension) {
+        return new RecommendationsResponse.RecommendedExercise(exercise.getId(), exercise.getTitle(),
+            exercise.getModule().getId(), exercise.getDifficulty(), dimension);
+    }
+
+    /**
+     * Per-dimension exercise rankings for the catalog, most demanding first
+     */
+    private Map<UserSkill.Dimension, List<Exercise>> rankings(ProgressTracker.Catalog catalog) {
+        if (exerciseSums == null) {
+            exerciseSums = new HashMap<>();
+            for (Object[] row : scenarioRepository.sumDimensionScoresByExercise()) {
+                double[] sums = new double[DIMENSIONS.length];
+                for (int d = 0; d < sums.length; d++) {
+                    sums[d] = row[d + 2] != null ? ((Number) row[d + 2]).doubleValue() : 0.0;
+                }
+                addToProfile((Long) row[0], ((Number) row[1]).longValue(), sums);
+            }
+        }
+        if (rankings != null && rankedCatalog == catalog) {
+            return rankings;
+        }
+
+        double[] globalMeans = means(globalSums);
+        Map<UserSkill.Dimension, List<Exercise>> result = new EnumMap<>(UserSkill.Dimension.class);
+        for (UserSkill.Dimension dimension : DIMENSIONS) {
+            int d = dimension.ordinal();
+            Map<Long, Double> demand = new HashMap<>();
+            List<Exercise> exercises = new ArrayList<>(catalog.size());
+            for (int bit = 0; bit < catalog.size(); bit++) {
+                Exercise exercise = catalog.exercise(bit);
+                double[] sums = exerciseSums.get(exercise.getId());
+                double count = sums != null ? sums[0] : 0.0;
+                double sum = sums != null ? sums[d + 1] : 0.0;
+                // Shrink sparse exercises towards the global mean
+                double mean = (sum + PRIOR_SUBMISSIONS * globalMeans[d]) / (count + PRIOR_SUBMISSIONS);
+                demand.put(exercise.getId(), globalMeans[d] - mean);
+                exercises.add(exercise);
+            }
+            exercises.sort(Comparator.comparingDouble((Exercise e) -> demand.get(e.getId())).reversed());
+            result.put(dimension, exercises);
+        }
+        rankings = result;
+        rankedCatalog = catalog;
+        return result;
+    }
+
+    private void addToProfile(Long exerciseId, long count, double[] scoreSums) {
+        double[] sums = exerciseSums.computeIfAbsent(exerciseId, id -> new double[DIMENSIONS.length + 1]);
+        sums[0] += count;
+        globalSums[0] += count;
+        for (int d = 0; d < scoreSums.length; d++) {
+            sums[d + 1] += scoreSums[d];
+            globalSums[d + 1] += scoreSums[d];
+        }
+    }
+
+    private static double[] means(double[] sums) {
+        double[] means = new double[DIMENSIONS.length];
+        for (int d = 0; d < means.length; d++) {
+            means[d] = sums[0] > 0 ? sums[d + 1] / sums[0] : 0.0;
+        }
+        return means;
+    }
+
+    private static Double round(Double value) {
+        return value != null ? Math.round(value * 100.0) / 100.0 : null;
+    }
+}
@@ -0,0 +1,166 @@
+package com.abtm.service;
+
+import com.abtm.repository.UserIdentityRepository;
+import com.abtm.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Username and email availability, answered from Bloom filters when possible
+ *
+ * The filters hold every username and email: loaded at startup, updated on
+ * each registration, import and email change, and rebuilt periodically to
+ * drop deleted users and pick up rows written by other instances. A value
+ * the filter has never seen is free with no query; only possible matches
+ * are checked against the unique index. Until the first load completes
+ * every check goes to the database.
+ */
+@Service
+public class UserAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserIdentityRepository identityRepository;
+
+    @Value("${abtm.availability.expected-users:1000000}")
+    private long expectedUsers;
+
+    @Value("${abtm.availability.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile Filters filters;
+
+    // Filters being loaded; registrations during a rebuild go to both
+    private volatile Filters loading;
+
+    private final Counter usernames = new Counter();
+    private final Counter emails = new Counter();
+
+    /**
+     * Load the filters from the users table, replacing the current ones when done
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${abtm.availability.rebuild-ms:3600000}",
+        initialDelayString = "${abtm.availability.rebuild-ms:3600000}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        long count = identityRepository.countUsers();
+        // Room to grow before the false positive rate degrades
+        Filters next = new Filters(BloomFilter.create(Math.max(expectedUsers, count * 2), falsePositiveRate),
+            BloomFilter.create(Math.max(expectedUsers, count * 2), falsePositiveRate));
+        loading = next;
+        try {
+            identityRepository.forEachIdentity(next::add);
+            filters = next;
+        } finally {
+            loading = null;
+        }
+        log.info("Availability filters loaded: {} users, {} bits x {} hashes each, in {} ms",
+            count, next.usernames.getBits(), next.usernames.getHashes(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isUsernameTaken(String username) {
+        Filters current = filters;
+        if (current != null && !current.usernames.mightContain(username)) {
+            usernames.definitelyFree.increment();
+            return false;
+        }
+        boolean taken = userRepository.existsByUsername(username);
+        usernames.record(current != null, taken);
+        return taken;
+    }
+
+    public boolean isEmailTaken(String email) {
+        Filters current = filters;
+        if (current != null && !current.emails.mightContain(email)) {
+            emails.definitelyFree.increment();
+            return false;
+        }
+        boolean taken = userRepository.existsByEmail(email);
+        emails.record(current != null, taken);
+        return taken;
+    }
+
+    /**
+     * Add a saved user's username and email (call after the row is committed)
+     */
+    public void recordUser(String username, String email) {
+        Filters current = filters;
+        if (current != null) {
+            current.add(username, email);
+        }
+        Filters next = loading;
+        if (next != null) {
+            next.add(username, email);
+        }
+    }
+
+    /**
+     * Checks answered without a query, checks that needed one, and false positives
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Filters current = filters;
+        stats.put("loaded", current != null);
+        stats.put("username", usernames.toMap(current != null ? current.usernames : null));
+        stats.put("email", emails.toMap(current != null ? current.emails : null));
+        return stats;
+    }
+
+    private static class Filters {
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        Filters(BloomFilter usernames, BloomFilter emails) {
+            this.usernames = usernames;
+            this.emails = emails;
+        }
+
+        void add(String username, String email) {
+            usernames.put(username);
+            emails.put(email);
+        }
+    }
+
+    private static class Counter {
+        private final LongAdder definitelyFree = new LongAdder();
+        private final LongAdder databaseChecks = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+
+        void record(boolean filtered, boolean taken) {
+            databaseChecks.increment();
+            if (filtered && !taken) {
+                falsePositives.increment();
+            }
+        }
+
+        Map<String, Object> toMap(BloomFilter filter) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("answeredWithoutQuery", definitelyFree.sum());
+            map.put("databaseChecks", databaseChecks.sum());
+            map.put("falsePositives", falsePositives.sum());
+            if (filter != null) {
+                map.put("bits", filter.getBits());
+                map.put("hashes", filter.getHashes());
+                map.put("estimatedFalsePositiveRate", filter.estimatedFalsePositiveRate());
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.abtm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads user rows one at a time from a CSV or NDJSON upload
+ *
+ * CSV needs a header row naming the columns (username, password, email,
+ * fullName, role; in any order, case-insensitive) and follows RFC 4180
+ * quoting. NDJSON is one JSON object per line with the same keys. A row
+ * that cannot be parsed is returned with an error instead of failing the
+ * whole import.
+ */
+public abstract class UserImportReader {
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    static final String[] COLUMNS = {"username", "password", "email", "fullName", "role"};
+
+    /**
+     * Next row, or null at the end of the input
+     */
+    public abstract Row next() throws IOException;
+
+    public static UserImportReader forContentType(String contentType, InputStream in, ObjectMapper objectMapper) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (contentType != null && (contentType.startsWith(NDJSON) || contentType.startsWith("application/json"))) {
+            return new NdjsonReader(reader, objectMapper);
+        }
+        return new CsvReader(reader);
+    }
+
+    public static class Row {
+        private final int number;
+        private final Map<String, String> fields;
+        private final String error;
+
+        Row(int number, Map<String, String> fields, String error) {
+            this.number = number;
+            this.fields = fields;
+            this.error = error;
+        }
+
+        /**
+         * 1-based data row number (header excluded)
+         */
+        public int getNumber() {
+            return number;
+        }
+
+        /**
+         * Trimmed value, or null when missing or blank
+         */
+        public String get(String column) {
+            String value = fields.get(column);
+            return value == null || value.trim().isEmpty() ? null : value.trim();
+        }
+
+        /**
+         * Value exactly as uploaded (passwords may start or end with spaces), or null when missing or empty
+         */
+        public String getRaw(String column) {
+            String value = fields.get(column);
+            return value == null || value.isEmpty() ? null : value;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private static class CsvReader extends UserImportReader {
+        private final Reader in;
+        private String[] header;
+        private int rowNumber;
+        private boolean eof;
+
+        CsvReader(Reader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (header == null) {
+                List<String> names = readRecord();
+                if (names == null) {
+                    return null;
+                }
+                header = new String[names.size()];
+                for (int i = 0; i < header.length; i++) {
+                    // Spreadsheet exports may start with a byte order mark
+                    header[i] = canonicalColumn(names.get(i).replace("\uFEFF", "").trim());
+                }
+            }
+
+            List<String> values;
+            do {
+                values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).trim().isEmpty());
+
+            rowNumber++;
+            if (values.size() != header.length) {
+                return new Row(rowNumber, new HashMap<>(), "Expected " + header.length + " columns, found " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                if (header[i] != null) {
+                    fields.put(header[i], values.get(i));
+                }
+            }
+            return new Row(rowNumber, fields, null);
+        }
+
+        // One record, honouring quoted fields (which may contain commas, quotes and line breaks)
+        private List<String> readRecord() throws IOException {
+            if (eof) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            while (true) {
+                int c = in.read();
+                if (c == -1) {
+                    eof = true;
+                    if (!any) {
+                        return null;
+                    }
+                    values.add(field.toString());
+                    return values;
+                }
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        in.mark(1);
+                        if (in.read() == '"') {
+                            field.append('"');
+                        } else {
+                            in.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    values.add(field.toString());
+                    return values;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+        }
+    }
+
+    private static class NdjsonReader extends UserImportReader {
+        private final BufferedReader in;
+        private final ObjectMapper objectMapper;
+        private int rowNumber;
+
+        NdjsonReader(BufferedReader in, ObjectMapper objectMapper) {
+            this.in = in;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.trim().isEmpty());
+
+            rowNumber++;
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                return new Row(rowNumber, new HashMap<>(), "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return new Row(rowNumber, new HashMap<>(), "Expected a JSON object");
+            }
+            Map<String, String> fields = new HashMap<>();
+            node.fields().forEachRemaining(entry -> {
+                String column = canonicalColumn(entry.getKey());
+                if (column != null && !entry.getValue().isNull()) {
+                    fields.put(column, entry.getValue().asText());
+                }
+            });
+            return new Row(rowNumber, fields, null);
+        }
+    }
+
+    private static String canonicalColumn(String name) {
+        for (String column : COLUMNS) {
+            if (column.equalsIgnoreCase(name) || column.equalsIgnoreCase(name.replace("_", ""))) {
+                return column;
+            }
+        }
+        return null;
+    }
+}
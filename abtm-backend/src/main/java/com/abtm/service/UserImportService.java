@@ -0,0 +1,256 @@
+package com.abtm.service;
+
+import com.abtm.cluster.CacheChange;
+import com.abtm.cluster.CacheInvalidationBus;
+import com.abtm.model.User;
+import com.abtm.repository.UserImportRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user import for cohort onboarding
+ *
+ * Rows are read from the upload as it streams in and processed in batches:
+ * per-row validation (including duplicates within the file), one query each
+ * for usernames and emails already taken, passwords hashed at the login cost
+ * on the password hashing pool (see PasswordHashingService.encodeAll), and
+ * one multi-row INSERT per batch. Rejected rows are reported individually in
+ * the streamed JSON response; the rest of the file is still imported. If the
+ * database or the hashing pool fails mid-import, the response ends with one
+ * error entry for the remaining rows and the totals so far.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    @Autowired
+    private UserImportRepository importRepository;
+
+    @Autowired
+    private UserAvailabilityService availabilityService;
+
+    @Autowired
+    private PasswordHashingService passwordHashing;
+
+    @Autowired
+    private CacheInvalidationBus cacheBus;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${abtm.import.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Import the users of a CSV or NDJSON upload and write the outcome as JSON;
+     * IllegalStateException (before anything is written) when an import is already running
+     */
+    public void importUsers(String contentType, InputStream in, OutputStream out) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An import is already running");
+        }
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            long start = System.nanoTime();
+            json.writeStartObject();
+            json.writeArrayFieldStart("errors");
+
+            Batch batch = new Batch(json);
+            UserImportReader reader = UserImportReader.forContentType(contentType, in, objectMapper);
+            try {
+                for (UserImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                    batch.add(row);
+                    if (batch.size() >= batchSize) {
+                        batch.flush();
+                    }
+                }
+                batch.flush();
+            } catch (DataAccessException | PasswordHashingRejectedException e) {
+                // The response is already streaming: end it with what was imported so far
+                log.warn("User import stopped at row {}: {}", batch.pendingRow, e.getMessage());
+                batch.stop(e instanceof DataAccessException ? "Database error" : e.getMessage());
+            }
+
+            json.writeEndArray();
+            json.writeNumberField("imported", batch.imported);
+            json.writeNumberField("failed", batch.failed);
+            json.writeNumberField("durationMillis", (System.nanoTime() - start) / 1_000_000);
+            json.writeEndObject();
+            log.info("User import: {} imported, {} failed", batch.imported, batch.failed);
+            if (batch.imported > 0) {
+                cacheBus.publish(CacheChange.Topic.USERS, null);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Valid rows waiting to be checked against the database and inserted
+     */
+    private class Batch {
+        private final JsonGenerator json;
+        // First row of every username and email seen in this import
+        private final Map<String, Integer> seenUsernames = new HashMap<>();
+        private final Map<String, Integer> seenEmails = new HashMap<>();
+        private final List<Candidate> candidates = new ArrayList<>();
+        private int imported;
+        private int failed;
+        // First row of the batch being flushed that is not inserted yet
+        private int pendingRow;
+
+        Batch(JsonGenerator json) {
+            this.json = json;
+        }
+
+        int size() {
+            return candidates.size();
+        }
+
+        void add(UserImportReader.Row row) throws IOException {
+            String username = row.get("username");
+            if (row.getError() != null) {
+                reject(row.getNumber(), username, row.getError());
+                return;
+            }
+            String password = row.getRaw("password");
+            String email = row.get("email");
+            String roleName = row.get("role");
+            if (username == null || password == null || email == null || roleName == null) {
+                reject(row.getNumber(), username, "Missing required fields (username, password, email, role)");
+                return;
+            }
+            User.Role role;
+            try {
+                role = User.Role.valueOf(roleName.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                reject(row.getNumber(), username, "Unknown role: " + roleName);
+                return;
+            }
+            Integer firstUsername = seenUsernames.putIfAbsent(username, row.getNumber());
+            if (firstUsername != null) {
+                reject(row.getNumber(), username, "Duplicate username in import (row " + firstUsername + ")");
+                return;
+            }
+            Integer firstEmail = seenEmails.putIfAbsent(email, row.getNumber());
+            if (firstEmail != null) {
+                reject(row.getNumber(), username, "Duplicate email in import (row " + firstEmail + ")");
+                return;
+            }
+
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(password);
+            user.setEmail(email);
+            user.setFullName(row.get("fullName"));
+            user.setRole(role);
+            candidates.add(new Candidate(row.getNumber(), user));
+        }
+
+        void flush() throws IOException {
+            if (candidates.isEmpty()) {
+                return;
+            }
+            pendingRow = candidates.get(0).row;
+            Set<String> takenUsernames = importRepository.findExistingUsernames(
+                candidates.stream().map(c -> c.user.getUsername()).collect(Collectors.toList()));
+            Set<String> takenEmails = importRepository.findExistingEmails(
+                candidates.stream().map(c -> c.user.getEmail()).collect(Collectors.toList()));
+
+            List<Candidate> accepted = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                if (takenUsernames.contains(candidate.user.getUsername())) {
+                    reject(candidate.row, candidate.user.getUsername(), "Username already exists");
+                } else if (takenEmails.contains(candidate.user.getEmail())) {
+                    reject(candidate.row, candidate.user.getUsername(), "Email already exists");
+                } else {
+                    accepted.add(candidate);
+                }
+            }
+            List<String> hashes = passwordHashing.encodeAll(
+                accepted.stream().map(c -> c.user.getPassword()).collect(Collectors.toList()));
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).user.setPassword(hashes.get(i));
+            }
+
+            insert(accepted);
+            candidates.clear();
+            json.flush();
+        }
+
+        // One statement for the batch; if a concurrent registration took a name meanwhile, row by row
+        private void insert(List<Candidate> accepted) throws IOException {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                importRepository.insertAll(accepted.stream().map(c -> c.user).collect(Collectors.toList()), now);
+                imported += accepted.size();
+                accepted.forEach(c -> availabilityService.recordUser(c.user.getUsername(), c.user.getEmail()));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.info("Batch insert of {} users conflicted, inserting row by row", accepted.size());
+            }
+            for (Candidate candidate : accepted) {
+                pendingRow = candidate.row;
+                try {
+                    importRepository.insertAll(Collections.singletonList(candidate.user), now);
+                    imported++;
+                    availabilityService.recordUser(candidate.user.getUsername(), candidate.user.getEmail());
+                } catch (DataIntegrityViolationException e) {
+                    reject(candidate.row, candidate.user.getUsername(), "Username or email already exists");
+                }
+            }
+        }
+
+        // The import cannot go on: one entry for the batch being flushed and everything after it
+        void stop(String reason) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("row", pendingRow);
+            json.writeNullField("username");
+            json.writeStringField("error", "Import stopped: " + reason
+                + "; rows from " + pendingRow + " on were not imported");
+            json.writeEndObject();
+        }
+
+        private void reject(int row, String username, String error) throws IOException {
+            failed++;
+            json.writeStartObject();
+            json.writeNumberField("row", row);
+            json.writeStringField("username", username);
+            json.writeStringField("error", error);
+            json.writeEndObject();
+        }
+    }
+
+    private static class Candidate {
+        private final int row;
+        private final User user;
+
+        Candidate(int row, User user) {
+            this.row = row;
+            this.user = user;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.abtm.service;
+
+import com.abtm.cluster.CacheChange;
+import com.abtm.cluster.CacheInvalidationBus;
+import com.abtm.dto.UserStatisticsResponse;
+import com.abtm.model.User;
+import com.abtm.repository.CredentialRepository;
+import com.abtm.repository.ScenarioRepository;
+import com.abtm.repository.UserPerformanceRepository;
+import com.abtm.repository.UserRepository;
+import com.abtm.repository.UserSkillRepository;
+import com.abtm.security.TokenDenyList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class UserService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Autowired
+    private UserPerformanceRepository performanceRepository;
+
+    @Autowired
+    private ScenarioRepository scenarioRepository;
+
+    @Autowired
+    private UserSkillRepository skillRepository;
+
+    @Autowired
+    private ProgressTracker progressTracker;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private TokenDenyList denyList;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserAvailabilityService availabilityService;
+
+    @Autowired
+    private CacheInvalidationBus cacheBus;
+
+    public User registerUser(User user) {
+        // Hash before any JPA access so no connection is held while waiting for the hashing pool
+        String passwordHash = passwordHashingService.encode(user.getPassword());
+        if (availabilityService.isUsernameTaken(user.getUsername())) {
+            throw new RuntimeException("Username already exists");
+        }
+        if (availabilityService.isEmailTaken(user.getEmail())) {
+            throw new RuntimeException("Email already exists");
+        }
+        user.setPassword(passwordHash);
+        User saved = userRepository.save(user);
+        availabilityService.recordUser(saved.getUsername(), saved.getEmail());
+        cacheBus.publish(CacheChange.Topic.USER, saved.getId());
+        return saved;
+    }
+
+    /**
+     * User with these credentials, or null; plain-text and lower-cost
+     * stored passwords are rehashed on success
+     */
+    public User authenticate(String username, String password) {
+        CredentialRepository.Credentials credentials = credentialRepository.findByUsername(username);
+        String stored = credentials != null ? credentials.getPassword() : null;
+        if (!passwordHashingService.matches(password, stored)) {
+            return null;
+        }
+
+        if (passwordHashingService.needsRehash(stored)) {
+            try {
+                String hash = passwordHashingService.encode(password);
+                if (credentialRepository.updatePassword(credentials.getUserId(), stored, hash)) {
+                    passwordHashingService.recordRehash();
+                }
+            } catch (PasswordHashingRejectedException e) {
+                // Pool busy: keep the old value, the next login upgrades it
+            }
+        }
+        return getUserById(credentials.getUserId());
+    }
+
+    public User getUserById(Long id) {
+        return userRepository.findById(id).orElse(null);
+    }
+
+    public User getUserByUsername(String username) {
+        return userRepository.findByUsername(username).orElse(null);
+    }
+
+    public List<User> getAllUsers() {
+        return userRepository.findAll();
+    }
+
+    /**
+     * Change the full name and/or email of a user (null leaves a field unchanged); null when the user is unknown
+     */
+    public User updateUser(Long id, String fullName, String email) {
+        User user = getUserById(id);
+        if (user != null) {
+            if (fullName != null) {
+                user.setFullName(fullName);
+            }
+            if (email != null && !email.equals(user.getEmail())) {
+                if (availabilityService.isEmailTaken(email)) {
+                    throw new RuntimeException("Email already exists");
+                }
+                user.setEmail(email);
+            }
+            User saved = userRepository.save(user);
+            availabilityService.recordUser(saved.getUsername(), saved.getEmail());
+            cacheBus.publish(CacheChange.Topic.USER, saved.getId());
+            return saved;
+        }
+        return null;
+    }
+
+    /**
+     * Learning progress of a user, or null when the user is unknown
+     */
+    public UserStatisticsResponse getUserStatistics(Long userId) {
+        User user = getUserById(userId);
+        if (user == null) {
+            return null;
+        }
+
+        Long completedModules = performanceRepository.countCompletedModulesByUserId(userId);
+        Long exercisesAttempted = performanceRepository.countExercisesByUserId(userId);
+        Double averageScore = performanceRepository.getAverageScoreByUserId(userId);
+        long scenariosSubmitted = scenarioRepository.countByUser(user);
+
+        return new UserStatisticsResponse(
+            completedModules != null ? completedModules : 0,
+            exercisesAttempted != null ? exercisesAttempted : 0,
+            averageScore != null ? Math.round(averageScore * 10.0) / 10.0 : 0.0,
+            scenariosSubmitted);
+    }
+
+    public boolean deleteUser(Long id) {
+        if (userRepository.existsById(id)) {
+            userRepository.deleteById(id);
+            skillRepository.deleteByUserId(id);
+            long revokedAt = System.currentTimeMillis();
+            progressTracker.evictUser(id);
+            leaderboardService.removeUser(id);
+            denyList.revokeUser(id, revokedAt);
+            cacheBus.publish(CacheChange.Topic.USER_DELETED, id + ":" + revokedAt);
+            return true;
+        }
+        return false;
+    }
+}
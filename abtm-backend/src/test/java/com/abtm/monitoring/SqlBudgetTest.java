@@ -0,0 +1,226 @@
+package com.abtm.monitoring;
+
+import com.abtm.bench.BenchDataGenerator;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Calls every controller endpoint once on the bench data set and checks the
+ * statements it issued (X-SQL-Statistics) against its @SqlBudget
+ *
+ * Fails when an endpoint has no budget, exceeds it, does not succeed, or is
+ * not called here; a new endpoint needs a request below.
+ */
+@SpringBootTest(properties = {
+    "abtm.password.bcrypt-strength=4",
+    "abtm.rate-limit.enabled=false"
+})
+@ActiveProfiles("bench")
+@AutoConfigureMockMvc
+class SqlBudgetTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("statements=(\\d+)");
+
+    private static final String SCENARIO =
+        "Scenario: Registered customer signs in\n" +
+        "Given a customer with email \"ann@example.com\" and password \"secret\"\n" +
+        "When the customer submits the login request\n" +
+        "Then the customer sees the dashboard";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    private final Set<String> called = new TreeSet<>();
+    private final List<String> failures = new ArrayList<>();
+
+    @Test
+    void everyEndpointStaysWithinItsBudget() throws Exception {
+        String learner = login(BenchDataGenerator.USERNAME_PREFIX + "1");
+        String instructor = login(BenchDataGenerator.INSTRUCTOR_USERNAME);
+
+        // Reads
+        call(get("/api/modules"), learner);
+        call(get("/api/modules/1"), learner);
+        call(get("/api/modules/number/1"), learner);
+        call(get("/api/modules/1/exercises").param("role", "DEVELOPER"), learner);
+        call(get("/api/modules/exercises/1"), learner);
+        call(get("/api/modules/1/exercises/difficulty/EASY"), learner);
+        call(get("/api/leaderboards/modules/1"), learner);
+        call(get("/api/leaderboards/modules/1/users/1"), learner);
+        call(get("/api/leaderboards/exercises/1"), learner);
+        call(get("/api/leaderboards/exercises/1/users/1"), learner);
+        call(get("/api/users/availability").param("username", "nobody"), learner);
+        call(get("/api/users/1"), learner);
+        call(get("/api/users/1/statistics"), learner);
+        call(get("/api/users/1/recommendations"), learner);
+        call(get("/api/users/1/review-queue"), learner);
+        call(get("/api/scenarios/user/1"), learner);
+        call(get("/api/scenarios/user/1/statistics"), learner);
+        call(get("/api/scenarios/exercise/1"), learner);
+        call(get("/api/scenarios/user/1/exercise/1"), learner);
+        call(get("/api/scenarios/1"), learner);
+        call(get("/api/reports/cohort"), instructor);
+        for (String path : new String[] {"event-listeners", "review-queue", "token-cache", "password-hashing",
+                "rate-limits", "availability", "live-analysis", "analysis", "idempotency", "cache-bus", "jfr"}) {
+            call(get("/api/monitoring/" + path), learner);
+        }
+
+        // Analysis
+        call(post("/api/scenarios/analyze").contentType(MediaType.APPLICATION_JSON)
+            .content(json("content", SCENARIO)), null);
+        String stream = call(get("/api/scenarios/live").accept(MediaType.TEXT_EVENT_STREAM), null)
+            .getResponse().getContentAsString();
+        Matcher session = Pattern.compile("\"sessionId\":\"([^\"]+)\"").matcher(stream);
+        assertTrue(session.find(), "No session event in " + stream);
+        call(post("/api/scenarios/live/" + session.group(1)).contentType(MediaType.APPLICATION_JSON)
+            .content(json("content", SCENARIO)), null);
+        call(post("/api/monitoring/jfr/start"), learner);
+        call(post("/api/monitoring/jfr/stop"), learner);
+
+        // Writes
+        MvcResult submitted = call(post("/api/scenarios/submit").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"userId\": 1, \"exerciseId\": 1, \"content\": " + quote(SCENARIO) + "}"), learner);
+        Number scenarioId = JsonPath.read(submitted.getResponse().getContentAsString(), "$.id");
+        call(post("/api/scenarios/" + scenarioId + "/reanalyze"), learner);
+        call(delete("/api/scenarios/" + scenarioId), learner);
+        call(put("/api/users/1").contentType(MediaType.APPLICATION_JSON)
+            .content(json("fullName", "Bench User One")), learner);
+        call(post("/api/users/import").contentType("text/csv")
+            .content("username,password,email,fullName,role\n" +
+                     "imported_1,Secret12345,imported_1@example.com,Imported One,DEVELOPER\n"), instructor);
+
+        MvcResult module = call(post("/api/modules").param("title", "Budget module").param("description", "-")
+            .param("estimatedHours", "1").param("moduleOrder", "99"), learner);
+        Number moduleId = JsonPath.read(module.getResponse().getContentAsString(), "$.id");
+        MvcResult exercise = call(post("/api/modules/" + moduleId + "/exercises").param("title", "Budget exercise")
+            .param("description", "-").param("userStory", "As a user I want budgets"), learner);
+        Number exerciseId = JsonPath.read(exercise.getResponse().getContentAsString(), "$.id");
+        call(put("/api/modules/" + moduleId).param("title", "Budget module, renamed"), learner);
+        call(put("/api/modules/exercises/" + exerciseId).param("title", "Budget exercise, renamed"), learner);
+        call(put("/api/modules/" + moduleId + "/deactivate"), learner);
+        call(put("/api/modules/" + moduleId + "/activate"), learner);
+        call(delete("/api/modules/exercises/" + exerciseId), learner);
+        call(delete("/api/modules/" + moduleId), learner);
+
+        MvcResult registered = call(post("/api/users/register").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"username\": \"budget_user\", \"email\": \"budget_user@example.com\", " +
+                     "\"password\": \"Secret12345\", \"fullName\": \"Budget User\", \"role\": \"DEVELOPER\"}"), null);
+        Number userId = JsonPath.read(registered.getResponse().getContentAsString(), "$.id");
+        String registeredToken = login("budget_user", "Secret12345");
+        call(post("/api/users/logout"), login("budget_user", "Secret12345"));
+        call(delete("/api/users/" + userId), registeredToken);
+
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            HandlerMethod handler = entry.getValue();
+            if (!handler.getBeanType().getPackageName().startsWith("com.abtm")) {
+                continue;
+            }
+            if (!handler.hasMethodAnnotation(SqlBudget.class)) {
+                failures.add("No @SqlBudget on " + entry.getKey());
+            }
+            for (String endpoint : endpointsOf(entry.getKey())) {
+                if (!called.contains(endpoint)) {
+                    failures.add("Not called by this test: " + endpoint);
+                }
+            }
+        }
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    /**
+     * Perform a request (with a bearer token unless null) and check its statements against the handler's budget
+     */
+    private MvcResult call(MockHttpServletRequestBuilder request, String token) throws Exception {
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        MvcResult result = mvc.perform(request).andReturn();
+        String endpoint = result.getRequest().getMethod() + " "
+            + result.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        called.add(endpoint);
+
+        int status = result.getResponse().getStatus();
+        if (status >= 300) {
+            failures.add(endpoint + " answered " + status + ": " + result.getResponse().getContentAsString());
+            return result;
+        }
+        SqlBudget budget = result.getHandler() instanceof HandlerMethod
+            ? ((HandlerMethod) result.getHandler()).getMethodAnnotation(SqlBudget.class) : null;
+        if (budget == null) {
+            return result;
+        }
+        String statistics = result.getResponse().getHeader(SqlStatisticsFilter.STATISTICS_HEADER);
+        if (statistics == null) {
+            // Event streams are not observed; they must not query at all
+            if (budget.value() != 0) {
+                failures.add(endpoint + " has no " + SqlStatisticsFilter.STATISTICS_HEADER + " header");
+            }
+            return result;
+        }
+        Matcher statements = STATEMENTS.matcher(statistics);
+        if (!statements.find()) {
+            failures.add(endpoint + " has an unreadable statistics header: " + statistics);
+        } else if (Integer.parseInt(statements.group(1)) > budget.value()) {
+            failures.add(endpoint + " issued " + statements.group(1) + " statements, budget " + budget.value());
+        }
+        return result;
+    }
+
+    private String login(String username) throws Exception {
+        return login(username, BenchDataGenerator.PASSWORD);
+    }
+
+    private String login(String username, String password) throws Exception {
+        MvcResult result = call(post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"username\": " + quote(username) + ", \"password\": " + quote(password) + "}"), null);
+        return JsonPath.read(result.getResponse().getContentAsString(), "$.token");
+    }
+
+    private static List<String> endpointsOf(RequestMappingInfo info) {
+        List<String> endpoints = new ArrayList<>();
+        for (String pattern : info.getPatternValues()) {
+            info.getMethodsCondition().getMethods().forEach(method -> endpoints.add(method.name() + " " + pattern));
+        }
+        return endpoints;
+    }
+
+    private static String json(String field, String value) {
+        return "{" + quote(field) + ": " + quote(value) + "}";
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+}
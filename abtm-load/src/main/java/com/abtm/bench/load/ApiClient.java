@@ -0,0 +1,137 @@
+package com.abtm.bench.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Thin JSON client for the ABTM REST API that times every call
+ *
+ * Each call is recorded under a templated endpoint name (e.g.
+ * "GET /api/modules/{id}/exercises") so path parameters don't fragment
+ * the per-endpoint histograms.
+ */
+public class ApiClient {
+
+    // Set by SqlStatisticsFilter when an endpoint exceeds its @SqlBudget
+    static final String BUDGET_EXCEEDED_HEADER = "X-SQL-Budget-Exceeded";
+
+    // Synthetic client address, so per-IP rate limits see one client per journey (bench profile trusts it)
+    static final String CLIENT_ADDRESS_HEADER = "X-Forwarded-For";
+
+    private static final ThreadLocal<String> clientAddress =
+        ThreadLocal.withInitial(ApiClient::randomAddress);
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration requestTimeout;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    public ApiClient(String baseUrl, Duration requestTimeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    }
+
+    public JsonNode get(String endpoint, String path) {
+        return get(endpoint, path, null);
+    }
+
+    public JsonNode post(String endpoint, String path, Object body) {
+        return post(endpoint, path, body, null);
+    }
+
+    /**
+     * GET with a bearer token (null for none)
+     */
+    public JsonNode get(String endpoint, String path, String token) {
+        return send(endpoint, authorize(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), token));
+    }
+
+    /**
+     * POST with a bearer token (null for none)
+     */
+    public JsonNode post(String endpoint, String path, Object body, String token) {
+        try {
+            String json = objectMapper.writeValueAsString(body);
+            return send(endpoint, authorize(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)), token));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    /**
+     * Make the calling virtual user appear as a new client (new address)
+     */
+    public void newClientAddress() {
+        clientAddress.set(randomAddress());
+    }
+
+    /**
+     * Stats collected so far, keyed by endpoint name
+     */
+    public Map<String, EndpointStats> getStats() {
+        return stats;
+    }
+
+    /**
+     * Send the request and record its latency; returns null for failed calls
+     */
+    private JsonNode send(String endpoint, HttpRequest.Builder builder) {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, EndpointStats::new);
+        HttpRequest request = builder.header(CLIENT_ADDRESS_HEADER, clientAddress.get()).timeout(requestTimeout).build();
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() >= 200 && response.statusCode() < 300;
+            endpointStats.record(System.nanoTime() - start, success);
+            if (response.headers().firstValue(BUDGET_EXCEEDED_HEADER).isPresent()) {
+                endpointStats.recordBudgetViolation();
+            }
+            if (!success) {
+                return null;
+            }
+            return parse(response.body());
+        } catch (IOException e) {
+            endpointStats.record(System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static String randomAddress() {
+        int address = ThreadLocalRandom.current().nextInt(1 << 24);
+        return "10." + (address >>> 16) + "." + ((address >>> 8) & 0xff) + "." + (address & 0xff);
+    }
+
+    private static HttpRequest.Builder authorize(HttpRequest.Builder builder, String token) {
+        return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+    }
+
+    // Some endpoints answer with plain text; those map to a null node
+    private JsonNode parse(String body) {
+        try {
+            return body.isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(body);
+        } catch (IOException e) {
+            return objectMapper.nullNode();
+        }
+    }
+}
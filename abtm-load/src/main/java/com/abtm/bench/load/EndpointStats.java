@@ -0,0 +1,134 @@
+package com.abtm.bench.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error counter for one endpoint
+ *
+ * Latencies are recorded in microseconds into an HdrHistogram Recorder,
+ * which is safe to write from all virtual-user threads without locking.
+ */
+public class EndpointStats {
+
+    // Track up to one minute with 3 significant digits
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String endpoint;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder budgetViolations = new LongAdder();
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Record one call; failed calls are counted and still contribute latency
+     */
+    public void record(long elapsedNanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS);
+        recorder.recordValue(Math.max(1, micros));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Count a response flagged with X-SQL-Budget-Exceeded
+     */
+    public void recordBudgetViolation() {
+        budgetViolations.increment();
+    }
+
+    /**
+     * Discard everything recorded so far (used after warm-up)
+     */
+    public void reset() {
+        recorder.reset();
+        errors.reset();
+        budgetViolations.reset();
+    }
+
+    /**
+     * Summarize everything recorded so far over the given wall-clock duration
+     */
+    public Summary summarize(double durationSeconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+
+        Summary summary = new Summary();
+        summary.setEndpoint(endpoint);
+        summary.setCount(histogram.getTotalCount());
+        summary.setErrors(errors.sum());
+        summary.setBudgetViolations(budgetViolations.sum());
+        summary.setThroughput(round(histogram.getTotalCount() / durationSeconds));
+        summary.setP50(toMillis(histogram.getValueAtPercentile(50)));
+        summary.setP90(toMillis(histogram.getValueAtPercentile(90)));
+        summary.setP99(toMillis(histogram.getValueAtPercentile(99)));
+        summary.setP999(toMillis(histogram.getValueAtPercentile(99.9)));
+        summary.setMax(toMillis(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private static double toMillis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Per-endpoint result, also the format of the baseline file
+     */
+    public static class Summary {
+        private String endpoint;
+        private long count;
+        private long errors;
+        private long budgetViolations;
+        private double throughput;
+        private double p50;
+        private double p90;
+        private double p99;
+        private double p999;
+        private double max;
+
+        public double errorRate() {
+            return count > 0 ? (double) errors / count : 0.0;
+        }
+
+        // Getters and Setters
+        public String getEndpoint() { return endpoint; }
+        public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+
+        public long getCount() { return count; }
+        public void setCount(long count) { this.count = count; }
+
+        public long getErrors() { return errors; }
+        public void setErrors(long errors) { this.errors = errors; }
+
+        public long getBudgetViolations() { return budgetViolations; }
+        public void setBudgetViolations(long budgetViolations) { this.budgetViolations = budgetViolations; }
+
+        public double getThroughput() { return throughput; }
+        public void setThroughput(double throughput) { this.throughput = throughput; }
+
+        public double getP50() { return p50; }
+        public void setP50(double p50) { this.p50 = p50; }
+
+        public double getP90() { return p90; }
+        public void setP90(double p90) { this.p90 = p90; }
+
+        public double getP99() { return p99; }
+        public void setP99(double p99) { this.p99 = p99; }
+
+        public double getP999() { return p999; }
+        public void setP999(double p999) { this.p999 = p999; }
+
+        public double getMax() { return max; }
+        public void setMax(double max) { this.max = max; }
+    }
+}
@@ -0,0 +1,143 @@
+package com.abtm.bench.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Virtual-user journeys modelled on test-api.sh / test-api.ps1
+ *
+ * A journey stops at the first failed step, the same way a real client
+ * would give up when login or the module list fails.
+ */
+public enum Journey {
+
+    /**
+     * register -> login -> modules -> exercises -> submit -> statistics
+     */
+    NEW_STUDENT {
+        @Override
+        public void run(ApiClient client, int existingUsers) {
+            String username = "load_" + UUID.randomUUID().toString().substring(0, 12);
+            Map<String, String> registration = new HashMap<>();
+            registration.put("username", username);
+            registration.put("password", PASSWORD);
+            registration.put("email", username + "@load.abtm");
+            registration.put("fullName", "Load Test " + username);
+            registration.put("role", "DEVELOPER");
+
+            if (client.post("POST /api/users/register", "/api/users/register", registration) == null) {
+                return;
+            }
+            practice(client, username, PASSWORD);
+        }
+    },
+
+    /**
+     * login (existing bench user) -> modules -> exercises -> submit -> statistics
+     */
+    RETURNING_STUDENT {
+        @Override
+        public void run(ApiClient client, int existingUsers) {
+            if (existingUsers <= 0) {
+                NEW_STUDENT.run(client, existingUsers);
+                return;
+            }
+            int index = 1 + ThreadLocalRandom.current().nextInt(existingUsers);
+            practice(client, BENCH_USERNAME_PREFIX + index, BENCH_PASSWORD);
+        }
+    },
+
+    /**
+     * Preview analysis only, the four samples of test-api.sh
+     */
+    ANALYZE_ONLY {
+        @Override
+        public void run(ApiClient client, int existingUsers) {
+            for (String content : SAMPLE_SCENARIOS) {
+                Map<String, String> request = new HashMap<>();
+                request.put("content", content);
+                if (client.post("POST /api/scenarios/analyze", "/api/scenarios/analyze", request) == null) {
+                    return;
+                }
+            }
+        }
+    };
+
+    static final String PASSWORD = "LoadPass123";
+
+    // Users created by the backend's bench profile (BenchDataGenerator)
+    static final String BENCH_USERNAME_PREFIX = "bench_user_";
+    static final String BENCH_PASSWORD = "BenchPass123";
+
+    static final String[] SAMPLE_SCENARIOS = {
+        "Feature: User Registration\n\nScenario: Successful user registration\n" +
+            "  Given a new user with email \"alice@example.com\" and password \"SecurePass123\"\n" +
+            "  When the user submits the registration form\n" +
+            "  Then the user receives a confirmation email\n" +
+            "  And the user account is created with status \"active\"",
+        "Feature: Login\n\nScenario: User login\n" +
+            "  When I click the login button\n" +
+            "  And I enter my username in the username textbox\n" +
+            "  And I enter my password in the password field\n" +
+            "  And I click submit button\n" +
+            "  Then I see the dashboard screen",
+        "Feature: Shopping\n\nScenario: Add item\n" +
+            "  Given I am logged in\n" +
+            "  When I add an item\n" +
+            "  Then it should be added correctly",
+        "Feature: Payment\n\nScenario: Process payment\n" +
+            "  When the user pays with credit card\n" +
+            "  Then the payment is processed successfully"
+    };
+
+    /**
+     * Execute the journey once
+     */
+    public abstract void run(ApiClient client, int existingUsers);
+
+    /**
+     * Shared tail of the student journeys: login, browse, submit, check statistics
+     */
+    static void practice(ApiClient client, String username, String password) {
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("username", username);
+        credentials.put("password", password);
+
+        JsonNode user = client.post("POST /api/users/login", "/api/users/login", credentials);
+        if (user == null || !user.has("id")) {
+            return;
+        }
+        long userId = user.get("id").asLong();
+        String token = user.hasNonNull("token") ? user.get("token").asText() : null;
+
+        JsonNode modules = client.get("GET /api/modules", "/api/modules", token);
+        if (modules == null || modules.size() == 0) {
+            return;
+        }
+        long moduleId = pick(modules).get("id").asLong();
+
+        JsonNode exercises = client.get("GET /api/modules/{id}/exercises", "/api/modules/" + moduleId + "/exercises", token);
+        if (exercises == null || exercises.size() == 0) {
+            return;
+        }
+        long exerciseId = pick(exercises).get("id").asLong();
+
+        Map<String, Object> submission = new HashMap<>();
+        submission.put("userId", userId);
+        submission.put("exerciseId", exerciseId);
+        submission.put("content", SAMPLE_SCENARIOS[ThreadLocalRandom.current().nextInt(SAMPLE_SCENARIOS.length)]);
+        if (client.post("POST /api/scenarios/submit", "/api/scenarios/submit", submission, token) == null) {
+            return;
+        }
+
+        client.get("GET /api/scenarios/user/{id}/statistics", "/api/scenarios/user/" + userId + "/statistics", token);
+    }
+
+    private static JsonNode pick(JsonNode array) {
+        return array.get(ThreadLocalRandom.current().nextInt(array.size()));
+    }
+}
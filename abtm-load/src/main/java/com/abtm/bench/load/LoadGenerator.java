@@ -0,0 +1,294 @@
+package com.abtm.bench.load;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator replaying the test-api.sh user journeys against a running instance
+ *
+ * Journeys are picked by weight and started either at a fixed arrival rate
+ * (open model, --rate > 0) or back-to-back by each virtual user (closed model).
+ * Concurrency caps the number of journeys in flight; arrivals that find every
+ * virtual user busy are counted as dropped rather than queued.
+ *
+ * Usage:
+ *   mvn -Pload verify -Dload.args="--base-url=http://localhost:8080 --duration=60 --rate=50"
+ *
+ * With --baseline the run fails when p99 latency, throughput or error rate of
+ * any endpoint regresses by more than --tolerance against the baseline report.
+ * It always fails when the server flagged a response as over its @SqlBudget
+ * (requires abtm.sql-stats.enabled=true, as in the bench profile).
+ */
+public class LoadGenerator {
+
+    private final Options options;
+    private final ApiClient client;
+    private final LongAdder journeysStarted = new LongAdder();
+    private final LongAdder journeysDropped = new LongAdder();
+
+    public LoadGenerator(Options options) {
+        this.options = options;
+        this.client = new ApiClient(options.baseUrl, Duration.ofSeconds(options.timeoutSeconds));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        LoadGenerator generator = new LoadGenerator(options);
+
+        List<EndpointStats.Summary> report = generator.run();
+        generator.print(report);
+
+        if (options.reportFile != null) {
+            mapper().writeValue(new File(options.reportFile), report);
+            System.out.println("Report written to " + options.reportFile);
+        }
+
+        List<String> regressions = new ArrayList<>();
+        for (EndpointStats.Summary summary : report) {
+            if (summary.getBudgetViolations() > 0) {
+                regressions.add(summary.getEndpoint() + " exceeded its @SqlBudget in "
+                    + summary.getBudgetViolations() + " response(s)");
+            }
+        }
+        if (options.baselineFile != null) {
+            regressions.addAll(compare(report, readBaseline(options.baselineFile), options.tolerance));
+        }
+
+        if (!regressions.isEmpty()) {
+            regressions.forEach(r -> System.out.println("REGRESSION: " + r));
+            throw new IllegalStateException(regressions.size() + " performance regression(s)");
+        }
+        if (options.baselineFile != null) {
+            System.out.println("No regressions against " + options.baselineFile);
+        }
+    }
+
+    /**
+     * Run the configured load (warm-up excluded from the report)
+     */
+    public List<EndpointStats.Summary> run() throws InterruptedException {
+        ExecutorService virtualUsers = Executors.newFixedThreadPool(options.concurrency);
+        try {
+            if (options.warmupSeconds > 0) {
+                System.out.println("Warming up for " + options.warmupSeconds + "s...");
+                drive(virtualUsers, options.warmupSeconds);
+                client.getStats().values().forEach(EndpointStats::reset);
+                journeysStarted.reset();
+                journeysDropped.reset();
+            }
+
+            System.out.println("Running for " + options.durationSeconds + "s against " + options.baseUrl
+                + " (concurrency " + options.concurrency
+                + (options.rate > 0 ? ", " + options.rate + " journeys/s" : ", closed model") + ")");
+            long start = System.nanoTime();
+            drive(virtualUsers, options.durationSeconds);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            List<EndpointStats.Summary> report = new ArrayList<>();
+            new TreeMap<>(client.getStats()).values().forEach(s -> report.add(s.summarize(elapsed)));
+            return report;
+        } finally {
+            virtualUsers.shutdownNow();
+        }
+    }
+
+    /**
+     * Start journeys for the given number of seconds and wait for in-flight ones
+     */
+    private void drive(ExecutorService virtualUsers, int seconds) throws InterruptedException {
+        Semaphore slots = new Semaphore(options.concurrency);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        if (options.rate > 0) {
+            long interval = (long) (1e9 / options.rate);
+            long next = System.nanoTime();
+            while (next < end) {
+                LockSupport.parkNanos(next - System.nanoTime());
+                if (slots.tryAcquire()) {
+                    start(virtualUsers, slots);
+                } else {
+                    journeysDropped.increment();
+                }
+                next += interval;
+            }
+        } else {
+            while (System.nanoTime() < end) {
+                if (slots.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    start(virtualUsers, slots);
+                }
+            }
+        }
+
+        // Drain: wait until every slot is released again
+        slots.acquire(options.concurrency);
+    }
+
+    private void start(ExecutorService virtualUsers, Semaphore slots) {
+        Journey journey = options.pickJourney();
+        journeysStarted.increment();
+        virtualUsers.execute(() -> {
+            try {
+                client.newClientAddress();
+                journey.run(client, options.existingUsers);
+            } catch (RuntimeException e) {
+                // A broken response must not kill the virtual user
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    /**
+     * Print the per-endpoint table
+     */
+    public void print(List<EndpointStats.Summary> report) {
+        System.out.println();
+        System.out.printf("%-42s %8s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+            "Endpoint", "Count", "Errors", "SqlOver", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms");
+        for (EndpointStats.Summary s : report) {
+            System.out.printf("%-42s %8d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                s.getEndpoint(), s.getCount(), s.getErrors(), s.getBudgetViolations(), s.getThroughput(),
+                s.getP50(), s.getP90(), s.getP99(), s.getP999(), s.getMax());
+        }
+        System.out.printf("%nJourneys started: %d, dropped (all virtual users busy): %d%n",
+            journeysStarted.sum(), journeysDropped.sum());
+    }
+
+    /**
+     * Compare a report against a baseline and describe every regression
+     */
+    static List<String> compare(List<EndpointStats.Summary> report,
+                                Map<String, EndpointStats.Summary> baseline,
+                                double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (EndpointStats.Summary current : report) {
+            EndpointStats.Summary base = baseline.get(current.getEndpoint());
+            if (base == null) {
+                continue;
+            }
+            // Ignore sub-millisecond p99 jitter
+            if (current.getP99() > base.getP99() * (1 + tolerance) && current.getP99() - base.getP99() > 1.0) {
+                regressions.add(String.format("%s p99 %.2f ms > baseline %.2f ms",
+                    current.getEndpoint(), current.getP99(), base.getP99()));
+            }
+            if (current.getThroughput() < base.getThroughput() * (1 - tolerance)) {
+                regressions.add(String.format("%s throughput %.2f req/s < baseline %.2f req/s",
+                    current.getEndpoint(), current.getThroughput(), base.getThroughput()));
+            }
+            if (current.errorRate() > base.errorRate() + 0.01) {
+                regressions.add(String.format("%s error rate %.2f%% > baseline %.2f%%",
+                    current.getEndpoint(), current.errorRate() * 100, base.errorRate() * 100));
+            }
+        }
+        return regressions;
+    }
+
+    private static Map<String, EndpointStats.Summary> readBaseline(String file) throws IOException {
+        EndpointStats.Summary[] summaries = mapper().readValue(new File(file), EndpointStats.Summary[].class);
+        Map<String, EndpointStats.Summary> baseline = new HashMap<>();
+        for (EndpointStats.Summary summary : summaries) {
+            baseline.put(summary.getEndpoint(), summary);
+        }
+        return baseline;
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Command line options (--name=value)
+     */
+    public static class Options {
+        String baseUrl = "http://localhost:8080";
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        int concurrency = 20;
+        double rate = 0;
+        int timeoutSeconds = 10;
+        int existingUsers = 200;
+        String reportFile;
+        String baselineFile;
+        double tolerance = 0.10;
+        Map<Journey, Integer> weights = new EnumMap<>(Journey.class);
+
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            options.weights.put(Journey.NEW_STUDENT, 1);
+            options.weights.put(Journey.RETURNING_STUDENT, 6);
+            options.weights.put(Journey.ANALYZE_ONLY, 3);
+
+            for (String arg : args) {
+                if (arg.isBlank()) {
+                    continue;
+                }
+                String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+                }
+                String value = pair[1];
+                switch (pair[0]) {
+                    case "base-url": options.baseUrl = value; break;
+                    case "duration": options.durationSeconds = Integer.parseInt(value); break;
+                    case "warmup": options.warmupSeconds = Integer.parseInt(value); break;
+                    case "concurrency": options.concurrency = Integer.parseInt(value); break;
+                    case "rate": options.rate = Double.parseDouble(value); break;
+                    case "timeout": options.timeoutSeconds = Integer.parseInt(value); break;
+                    case "existing-users": options.existingUsers = Integer.parseInt(value); break;
+                    case "report": options.reportFile = value; break;
+                    case "baseline": options.baselineFile = value; break;
+                    case "tolerance": options.tolerance = Double.parseDouble(value); break;
+                    case "mix": options.weights = parseMix(value); break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: --" + pair[0]
+                            + " (known: base-url, duration, warmup, concurrency, rate, timeout, "
+                            + "existing-users, report, baseline, tolerance, mix)");
+                }
+            }
+            return options;
+        }
+
+        // e.g. "new_student:1,returning_student:6,analyze_only:3"
+        private static Map<Journey, Integer> parseMix(String value) {
+            Map<Journey, Integer> weights = new EnumMap<>(Journey.class);
+            Arrays.stream(value.split(",")).forEach(entry -> {
+                String[] pair = entry.trim().split(":");
+                weights.put(Journey.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+            });
+            return weights;
+        }
+
+        Journey pickJourney() {
+            int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+            int roll = ThreadLocalRandom.current().nextInt(total);
+            for (Map.Entry<Journey, Integer> entry : weights.entrySet()) {
+                roll -= entry.getValue();
+                if (roll < 0) {
+                    return entry.getKey();
+                }
+            }
+            return Journey.ANALYZE_ONLY;
+        }
+    }
+}
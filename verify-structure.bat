@@ -21,53 +21,53 @@ echo.
 
 REM Check src directory
 echo [2/10] Checking src directory structure...
-if exist src\main\java (
-    echo [OK] src\main\java exists
+if exist abtm-backend\src\main\java (
+    echo [OK] abtm-backend\src\main\java exists
 ) else (
-    echo [ERROR] src\main\java directory not found!
+    echo [ERROR] abtm-backend\src\main\java directory not found!
     SET /A ERROR_COUNT+=1
 )
 echo.
 
 REM Check package structure
 echo [3/10] Checking com.abtm package structure...
-if exist src\main\java\com\abtm (
+if exist abtm-backend\src\main\java\com\abtm (
     echo [OK] Package structure exists
 ) else (
-    echo [ERROR] src\main\java\com\abtm directory not found!
+    echo [ERROR] abtm-backend\src\main\java\com\abtm directory not found!
     SET /A ERROR_COUNT+=1
 )
 echo.
 
 REM Check main application class
 echo [4/10] Checking AbtmApplication.java...
-if exist src\main\java\com\abtm\AbtmApplication.java (
+if exist abtm-backend\src\main\java\com\abtm\AbtmApplication.java (
     echo [OK] AbtmApplication.java found
 ) else (
     echo [ERROR] AbtmApplication.java not found!
-    echo        Expected location: src\main\java\com\abtm\AbtmApplication.java
+    echo        Expected location: abtm-backend\src\main\java\com\abtm\AbtmApplication.java
     SET /A ERROR_COUNT+=1
 )
 echo.
 
 REM Check controller
 echo [5/10] Checking controller package...
-if exist src\main\java\com\abtm\controller\ScenarioController.java (
+if exist abtm-backend\src\main\java\com\abtm\controller\ScenarioController.java (
     echo [OK] ScenarioController.java found
 ) else (
     echo [WARN] ScenarioController.java not found
-    echo       Location: src\main\java\com\abtm\controller\ScenarioController.java
+    echo       Location: abtm-backend\src\main\java\com\abtm\controller\ScenarioController.java
 )
 echo.
 
 REM Check model classes
 echo [6/10] Checking model package...
-if exist src\main\java\com\abtm\model\User.java (
+if exist abtm-backend\src\main\java\com\abtm\model\User.java (
     echo [OK] User.java found
 ) else (
     echo [WARN] User.java not found
 )
-if exist src\main\java\com\abtm\model\Scenario.java (
+if exist abtm-backend\src\main\java\com\abtm\model\Scenario.java (
     echo [OK] Scenario.java found
 ) else (
     echo [WARN] Scenario.java not found
@@ -76,7 +76,7 @@ echo.
 
 REM Check service
 echo [7/10] Checking service package...
-if exist src\main\java\com\abtm\service\ScenarioAnalyzer.java (
+if exist abtm-analyzer\src\main\java\com\abtm\analyzer\ScenarioAnalyzer.java (
     echo [OK] ScenarioAnalyzer.java found
 ) else (
     echo [WARN] ScenarioAnalyzer.java not found
@@ -85,7 +85,7 @@ echo.
 
 REM Check repository
 echo [8/10] Checking repository package...
-if exist src\main\java\com\abtm\repository (
+if exist abtm-backend\src\main\java\com\abtm\repository (
     echo [OK] Repository package exists
 ) else (
     echo [WARN] Repository package not found
@@ -94,11 +94,11 @@ echo.
 
 REM Check resources
 echo [9/10] Checking resources...
-if exist src\main\resources\application.properties (
+if exist abtm-backend\src\main\resources\application.properties (
     echo [OK] application.properties found
 ) else (
     echo [ERROR] application.properties not found!
-    echo        Expected location: src\main\resources\application.properties
+    echo        Expected location: abtm-backend\src\main\resources\application.properties
     SET /A ERROR_COUNT+=1
 )
 echo.